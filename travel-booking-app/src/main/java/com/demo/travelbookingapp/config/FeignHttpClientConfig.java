@@ -0,0 +1,82 @@
+package com.demo.travelbookingapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.io.ManagedHttpClientConnectionFactory;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class FeignHttpClientConfig {
+    public static final String CONNECTIONS_CREATED = "feign.client.connections.created";
+
+    @Bean
+    public PoolingHttpClientConnectionManager feignConnectionManager(
+            FeignHttpClientProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${http-client.validate-after-inactivity-ms:2000}") long validateAfterInactivityMs) {
+        FeignHttpClientProperties.Hc5Properties hc5 = properties.getHc5();
+        Counter connectionsCreated = Counter.builder(CONNECTIONS_CREATED).register(meterRegistry);
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                .setConnPoolPolicy(PoolReusePolicy.valueOf(hc5.getPoolReusePolicy().name()))
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.valueOf(hc5.getPoolConcurrencyPolicy().name()))
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(properties.getConnectionTimeout(), TimeUnit.MILLISECONDS)
+                        .setTimeToLive(properties.getTimeToLive(), properties.getTimeToLiveUnit())
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+                        .build())
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setSoTimeout(Timeout.of(hc5.getSocketTimeout(), hc5.getSocketTimeoutUnit()))
+                        .build())
+                .setTlsSocketStrategy(new InstrumentedTlsSocketStrategy(
+                        DefaultClientTlsStrategy.createSystemDefault(), meterRegistry))
+                .setConnectionFactory(socket -> {
+                    connectionsCreated.increment();
+                    return ManagedHttpClientConnectionFactory.INSTANCE.createConnection(socket);
+                })
+                .build();
+    }
+
+    @Bean
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer feignKeepAliveCustomizer(
+            @Value("${http-client.keep-alive-ms:60000}") long keepAliveMs,
+            @Value("${http-client.idle-eviction-ms:30000}") long idleEvictionMs) {
+        ConnectionKeepAliveStrategy keepAliveStrategy = cappedKeepAliveStrategy(TimeValue.ofMilliseconds(keepAliveMs));
+        return builder -> builder
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMs));
+    }
+
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(PoolingHttpClientConnectionManager feignConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(feignConnectionManager, "feign");
+    }
+
+    static ConnectionKeepAliveStrategy cappedKeepAliveStrategy(TimeValue maxKeepAlive) {
+        return (response, context) -> {
+            TimeValue advertised = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return TimeValue.isPositive(advertised) ? advertised.min(maxKeepAlive) : maxKeepAlive;
+        };
+    }
+}
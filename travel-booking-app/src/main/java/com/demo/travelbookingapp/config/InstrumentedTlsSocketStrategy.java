@@ -0,0 +1,38 @@
+package com.demo.travelbookingapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import javax.net.ssl.SSLSocket;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+public class InstrumentedTlsSocketStrategy implements TlsSocketStrategy {
+    public static final String TLS_HANDSHAKES = "feign.client.tls.handshakes";
+
+    private final TlsSocketStrategy delegate;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public SSLSocket upgrade(Socket socket, String target, int port, Object attachment, HttpContext context)
+            throws IOException {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            SSLSocket sslSocket = delegate.upgrade(socket, target, port, attachment, context);
+            outcome = "success";
+            return sslSocket;
+        } finally {
+            Timer.builder(TLS_HANDSHAKES)
+                    .tag("host", target)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
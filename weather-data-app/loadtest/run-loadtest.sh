@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+STUB_PORT="${STUB_PORT:-8089}"
+APP_PORT="${APP_PORT:-8080}"
+STUB_ARGS="${STUB_ARGS:-}"
+APP_ARGS="${APP_ARGS:-}"
+MVN="${MVN:-mvn -q}"
+
+$MVN -f ../pom.xml package -DskipTests
+$MVN package -DskipTests
+
+pids=()
+cleanup() {
+    for pid in "${pids[@]}"; do
+        kill "$pid" 2>/dev/null || true
+    done
+    wait 2>/dev/null || true
+}
+trap cleanup EXIT
+
+java -cp target/classes com.demo.weatherdataapp.loadtest.StubOpenWeatherServer --port="$STUB_PORT" $STUB_ARGS &
+pids+=($!)
+
+API_KEY=loadtest WEATHER_RATE_LIMIT_CALLS_PER_MINUTE="${WEATHER_RATE_LIMIT_CALLS_PER_MINUTE:-0}" java -jar ../target/weather-data-app-0.0.1-SNAPSHOT.jar \
+    --server.port="$APP_PORT" \
+    --weather-api.base-url="http://127.0.0.1:$STUB_PORT/data/2.5" \
+    --weather.warm-start.enabled=false \
+    --spring.jpa.show-sql=false \
+    --logging.level.root=warn \
+    $APP_ARGS > target/weather-data-app.log 2>&1 &
+pids+=($!)
+
+for _ in $(seq 1 120); do
+    if curl -sf "http://127.0.0.1:$APP_PORT/actuator/health" > /dev/null; then
+        break
+    fi
+    sleep 1
+done
+
+java -cp target/classes com.demo.weatherdataapp.loadtest.LoadGenerator --target="http://127.0.0.1:$APP_PORT" "$@"
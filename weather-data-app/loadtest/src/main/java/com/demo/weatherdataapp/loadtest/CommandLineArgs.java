@@ -0,0 +1,45 @@
+package com.demo.weatherdataapp.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+final class CommandLineArgs {
+    private final Map<String, String> values = new HashMap<>();
+
+    CommandLineArgs(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+    }
+
+    String string(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int integer(String name, int defaultValue) {
+        String value = values.get(name);
+
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    long longValue(String name, long defaultValue) {
+        String value = values.get(name);
+
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
+
+    double decimal(String name, double defaultValue) {
+        String value = values.get(name);
+
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    Duration seconds(String name, long defaultSeconds) {
+        return Duration.ofSeconds(longValue(name, defaultSeconds));
+    }
+}
@@ -0,0 +1,54 @@
+package com.demo.weatherdataapp.loadtest;
+
+import java.util.Arrays;
+
+final class LatencyRecorder {
+    private long[] samples;
+    private int size;
+
+    LatencyRecorder() {
+        this(1024);
+    }
+
+    LatencyRecorder(int initialCapacity) {
+        this.samples = new long[Math.max(16, initialCapacity)];
+    }
+
+    void record(long latencyNanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[size++] = latencyNanos;
+    }
+
+    int size() {
+        return size;
+    }
+
+    static long[] mergeSorted(Iterable<LatencyRecorder> recorders) {
+        int total = 0;
+        for (LatencyRecorder recorder : recorders) {
+            total += recorder.size;
+        }
+
+        long[] merged = new long[total];
+        int offset = 0;
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.samples, 0, merged, offset, recorder.size);
+            offset += recorder.size;
+        }
+        Arrays.sort(merged);
+
+        return merged;
+    }
+
+    static long percentile(long[] sortedValues, double percentile) {
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+
+        int rank = (int) Math.ceil(percentile * sortedValues.length / 100.0 - 1e-9);
+
+        return sortedValues[Math.min(sortedValues.length, Math.max(1, rank)) - 1];
+    }
+}
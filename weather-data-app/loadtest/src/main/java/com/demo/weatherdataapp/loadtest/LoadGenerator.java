@@ -0,0 +1,132 @@
+package com.demo.weatherdataapp.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class LoadGenerator {
+    private static final int TRANSPORT_ERROR = -1;
+
+    private final LoadProfile profile;
+    private final HttpClient httpClient;
+
+    public LoadGenerator(LoadProfile profile) {
+        this.profile = profile;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(profile.requestTimeout())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadProfile profile = LoadProfile.from(new CommandLineArgs(args));
+        System.out.printf("Driving %s with %d concurrent clients for %d s after %d s warmup "
+                        + "(%.0f%% zip, %.0f%% hot across %d hot / %d cold keys)%n",
+                profile.targetUrl(), profile.concurrency(), profile.duration().toSeconds(), profile.warmup().toSeconds(),
+                profile.zipRatio() * 100, profile.hotRatio() * 100, profile.hotKeys(), profile.coldKeys());
+
+        LoadReport report = new LoadGenerator(profile).run();
+
+        System.out.println(report.toText());
+        Path reportFile = Path.of(profile.reportFile());
+        if (reportFile.getParent() != null) {
+            Files.createDirectories(reportFile.getParent());
+        }
+        Files.writeString(reportFile, report.toJson());
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+
+    public LoadReport run() {
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + profile.warmup().toNanos();
+        long deadlineNanos = measureFromNanos + profile.duration().toNanos();
+
+        List<Worker> workers = new ArrayList<>(profile.concurrency());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < profile.concurrency(); i++) {
+                Worker worker = new Worker(measureFromNanos, deadlineNanos);
+                workers.add(worker);
+                executor.execute(worker);
+            }
+        }
+
+        Map<Integer, Long> statusCounts = new HashMap<>();
+        long transportErrors = 0;
+        List<LatencyRecorder> recorders = new ArrayList<>(workers.size());
+        for (Worker worker : workers) {
+            worker.statusCounts.forEach((status, count) -> statusCounts.merge(status, count, Long::sum));
+            transportErrors += worker.transportErrors;
+            recorders.add(worker.latencies);
+        }
+
+        Duration measured = Duration.ofNanos(Math.max(0, System.nanoTime() - measureFromNanos));
+
+        return LoadReport.of(LatencyRecorder.mergeSorted(recorders), statusCounts, transportErrors, measured);
+    }
+
+    private HttpRequest nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String path = profile.pickPath(random.nextDouble(), random.nextDouble(),
+                random.nextInt(Integer.MAX_VALUE), random.nextInt(Integer.MAX_VALUE));
+
+        return HttpRequest.newBuilder(URI.create(profile.targetUrl() + path))
+                .timeout(profile.requestTimeout())
+                .GET()
+                .build();
+    }
+
+    private final class Worker implements Runnable {
+        private final long measureFromNanos;
+        private final long deadlineNanos;
+        private final LatencyRecorder latencies = new LatencyRecorder();
+        private final Map<Integer, Long> statusCounts = new HashMap<>();
+        private long transportErrors;
+
+        private Worker(long measureFromNanos, long deadlineNanos) {
+            this.measureFromNanos = measureFromNanos;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+                HttpRequest request = nextRequest();
+                long callStart = System.nanoTime();
+                int status;
+                try {
+                    status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (IOException e) {
+                    status = TRANSPORT_ERROR;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+
+                    return;
+                }
+
+                if (callStart < measureFromNanos) {
+                    continue;
+                }
+
+                latencies.record(System.nanoTime() - callStart);
+                if (status == TRANSPORT_ERROR) {
+                    transportErrors++;
+                } else {
+                    statusCounts.merge(status, 1L, Long::sum);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.demo.weatherdataapp.loadtest;
+
+import java.time.Duration;
+
+public record LoadProfile(
+        String targetUrl,
+        Duration warmup,
+        Duration duration,
+        int concurrency,
+        double zipRatio,
+        double hotRatio,
+        int hotKeys,
+        int coldKeys,
+        Duration requestTimeout,
+        String reportFile
+) {
+    static LoadProfile from(CommandLineArgs args) {
+        return new LoadProfile(
+                args.string("target", "http://127.0.0.1:8080"),
+                args.seconds("warmup-seconds", 10),
+                args.seconds("duration-seconds", 60),
+                args.integer("concurrency", 64),
+                args.decimal("zip-ratio", 0.2),
+                args.decimal("hot-ratio", 0.9),
+                args.integer("hot-keys", 50),
+                args.integer("cold-keys", 5000),
+                args.seconds("timeout-seconds", 10),
+                args.string("report", "target/loadtest-report.json")
+        );
+    }
+
+    String pickPath(double mixRoll, double hotRoll, int hotIndex, int coldIndex) {
+        boolean hot = hotRoll < hotRatio;
+        int keyIndex = hot ? hotIndex % Math.max(1, hotKeys) : hotKeys + coldIndex % Math.max(1, coldKeys);
+        if (mixRoll < zipRatio) {
+            return String.format("/api/weather/zip/%05d?country=US", 10000 + keyIndex % 90000);
+        }
+
+        return "/api/weather/city/LoadCity" + keyIndex;
+    }
+}
@@ -0,0 +1,73 @@
+package com.demo.weatherdataapp.loadtest;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+public record LoadReport(
+        long requests,
+        SortedMap<Integer, Long> statusCounts,
+        long transportErrors,
+        Duration elapsed,
+        double throughputPerSecond,
+        double p50Millis,
+        double p95Millis,
+        double p99Millis,
+        double p999Millis,
+        double maxMillis
+) {
+    static LoadReport of(long[] sortedLatencies, Map<Integer, Long> statusCounts, long transportErrors, Duration elapsed) {
+        long requests = sortedLatencies.length;
+        double seconds = Math.max(1e-9, elapsed.toNanos() / 1e9);
+
+        return new LoadReport(
+                requests,
+                new TreeMap<>(statusCounts),
+                transportErrors,
+                elapsed,
+                requests / seconds,
+                toMillis(LatencyRecorder.percentile(sortedLatencies, 50)),
+                toMillis(LatencyRecorder.percentile(sortedLatencies, 95)),
+                toMillis(LatencyRecorder.percentile(sortedLatencies, 99)),
+                toMillis(LatencyRecorder.percentile(sortedLatencies, 99.9)),
+                toMillis(sortedLatencies.length > 0 ? sortedLatencies[sortedLatencies.length - 1] : 0)
+        );
+    }
+
+    long failedRequests() {
+        return transportErrors + statusCounts.entrySet().stream()
+                .filter(entry -> entry.getKey() >= 400)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    String toText() {
+        return String.format(Locale.ROOT, """
+                        Requests:    %d in %.1f s (%d failed, %d transport errors)
+                        Throughput:  %.1f req/s
+                        Latency:     p50 %.2f ms | p95 %.2f ms | p99 %.2f ms | p99.9 %.2f ms | max %.2f ms
+                        Status:      %s""",
+                requests, elapsed.toMillis() / 1000.0, failedRequests(), transportErrors, throughputPerSecond,
+                p50Millis, p95Millis, p99Millis, p999Millis, maxMillis, statusCounts);
+    }
+
+    String toJson() {
+        String statuses = statusCounts.entrySet().stream()
+                .map(entry -> "\"" + entry.getKey() + "\":" + entry.getValue())
+                .collect(Collectors.joining(","));
+
+        return String.format(Locale.ROOT,
+                "{\"requests\":%d,\"failed\":%d,\"transportErrors\":%d,\"elapsedMillis\":%d,\"throughputPerSecond\":%.2f,"
+                        + "\"latencyMillis\":{\"p50\":%.3f,\"p95\":%.3f,\"p99\":%.3f,\"p999\":%.3f,\"max\":%.3f},"
+                        + "\"statusCounts\":{%s}}",
+                requests, failedRequests(), transportErrors, elapsed.toMillis(), throughputPerSecond,
+                p50Millis, p95Millis, p99Millis, p999Millis, maxMillis, statuses);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,206 @@
+package com.demo.weatherdataapp.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+public class StubOpenWeatherServer implements AutoCloseable {
+    public static final String API_PATH = "/data/2.5";
+
+    private final StubServerConfig config;
+    private final Random random;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder injectedNotFound = new LongAdder();
+    private final Map<Long, String> namesById = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubOpenWeatherServer(StubServerConfig config) {
+        this.config = config;
+        this.random = new Random(config.seed());
+    }
+
+    public static void main(String[] args) throws IOException {
+        StubOpenWeatherServer stub = new StubOpenWeatherServer(StubServerConfig.from(new CommandLineArgs(args)));
+        stub.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+
+        System.out.printf("Stub OpenWeather API listening on %s (median %.0f ms, p99 %.0f ms, %.2f%% errors, %.2f%% not found)%n",
+                stub.baseUrl(), stub.config.latencyMedianMillis(), stub.config.latencyP99Millis(),
+                stub.config.errorRate() * 100, stub.config.notFoundRate() * 100);
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", config.port()), 1024);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(API_PATH + "/weather", this::handleWeather);
+        server.createContext(API_PATH + "/group", this::handleGroup);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + API_PATH;
+    }
+
+    public Stats stats() {
+        return new Stats(requests.sum(), injectedErrors.sum(), injectedNotFound.sum());
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.close();
+            server = null;
+
+            Stats stats = stats();
+            System.out.printf("Stub OpenWeather API served %d requests (%d injected errors, %d not found)%n",
+                    stats.requests(), stats.injectedErrors(), stats.injectedNotFound());
+        }
+    }
+
+    private void handleWeather(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String city = query.get("q");
+        String zip = query.get("zip");
+        if (city == null && zip == null) {
+            respond(exchange, 400, "{\"cod\":\"400\",\"message\":\"Nothing to geocode\"}");
+
+            return;
+        }
+
+        String location = city != null ? city : zip;
+        if (!simulateUpstream(exchange)) {
+            return;
+        }
+
+        long id = idOf(location);
+        String name = city != null ? city : "Zip " + zip.split(",")[0];
+        namesById.putIfAbsent(id, name);
+        respond(exchange, 200, currentWeatherJson(id, name, countryOf(zip)));
+    }
+
+    private void handleGroup(HttpExchange exchange) throws IOException {
+        String ids = parseQuery(exchange.getRequestURI().getRawQuery()).get("id");
+        if (ids == null || ids.isBlank()) {
+            respond(exchange, 400, "{\"cod\":\"400\",\"message\":\"Invalid id\"}");
+
+            return;
+        }
+
+        if (!simulateUpstream(exchange)) {
+            return;
+        }
+
+        List<String> entries = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            long upstreamId = Long.parseLong(id.trim());
+            entries.add(currentWeatherJson(upstreamId, namesById.getOrDefault(upstreamId, "City " + upstreamId), "US"));
+        }
+        respond(exchange, 200, "{\"cnt\":" + entries.size() + ",\"list\":[" + String.join(",", entries) + "]}");
+    }
+
+    private boolean simulateUpstream(HttpExchange exchange) throws IOException {
+        requests.increment();
+        sleep(config.sampleLatencyMillis(random.nextGaussian()));
+
+        double roll = random.nextDouble();
+        if (roll < config.errorRate()) {
+            injectedErrors.increment();
+            respond(exchange, 500, "{\"cod\":\"500\",\"message\":\"Internal error\"}");
+
+            return false;
+        }
+        if (roll < config.errorRate() + config.notFoundRate()) {
+            injectedNotFound.increment();
+            respond(exchange, 404, "{\"cod\":\"404\",\"message\":\"city not found\"}");
+
+            return false;
+        }
+
+        return true;
+    }
+
+    static String currentWeatherJson(long id, String name, String country) {
+        double temperature = Math.floorMod(id, 400) / 10.0 - 5;
+
+        return String.format(Locale.ROOT,
+                "{\"id\":%d,\"name\":\"%s\",\"cod\":200,\"dt\":%d,"
+                        + "\"main\":{\"temp\":%.1f,\"feels_like\":%.1f,\"pressure\":%d,\"humidity\":%d},"
+                        + "\"weather\":[{\"id\":802,\"main\":\"Clouds\",\"description\":\"scattered clouds\",\"icon\":\"03d\"}],"
+                        + "\"wind\":{\"speed\":%.1f,\"deg\":%d},\"sys\":{\"country\":\"%s\"}}",
+                id, name.replace("\"", ""), System.currentTimeMillis() / 1000, temperature, temperature - 1.5,
+                1000 + Math.floorMod(id, 30), 40 + Math.floorMod(id, 50), Math.floorMod(id, 120) / 10.0,
+                Math.floorMod(id, 360), country);
+    }
+
+    private static long idOf(String location) {
+        return 1_000_000L + Math.floorMod(location.toLowerCase(Locale.ROOT).hashCode(), 9_000_000);
+    }
+
+    private static String countryOf(String zip) {
+        if (zip == null || !zip.contains(",")) {
+            return "US";
+        }
+
+        return zip.substring(zip.indexOf(',') + 1).trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+
+        return query;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public record Stats(long requests, long injectedErrors, long injectedNotFound) {
+    }
+}
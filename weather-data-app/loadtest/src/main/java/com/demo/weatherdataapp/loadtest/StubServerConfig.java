@@ -0,0 +1,33 @@
+package com.demo.weatherdataapp.loadtest;
+
+public record StubServerConfig(
+        int port,
+        double latencyMedianMillis,
+        double latencyP99Millis,
+        double errorRate,
+        double notFoundRate,
+        long seed
+) {
+    private static final double Z_99 = 2.3263;
+
+    static StubServerConfig from(CommandLineArgs args) {
+        return new StubServerConfig(
+                args.integer("port", 8089),
+                args.decimal("latency-median-ms", 80),
+                args.decimal("latency-p99-ms", 400),
+                args.decimal("error-rate", 0.01),
+                args.decimal("not-found-rate", 0.005),
+                args.longValue("seed", 42)
+        );
+    }
+
+    long sampleLatencyMillis(double gaussian) {
+        if (latencyMedianMillis <= 0) {
+            return 0;
+        }
+
+        double sigma = latencyP99Millis > latencyMedianMillis ? Math.log(latencyP99Millis / latencyMedianMillis) / Z_99 : 0;
+
+        return Math.round(latencyMedianMillis * Math.exp(sigma * gaussian));
+    }
+}
@@ -0,0 +1,41 @@
+package com.demo.weatherdataapp.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyRecorderTest {
+    @Test
+    void testGivenSamplesBeyondInitialCapacity_whenMergeSorted_thenKeepAllSamplesInOrder() {
+        LatencyRecorder first = new LatencyRecorder(16);
+        LatencyRecorder second = new LatencyRecorder(16);
+        for (int i = 40; i > 0; i--) {
+            first.record(i);
+        }
+        second.record(0);
+
+        long[] merged = LatencyRecorder.mergeSorted(List.of(first, second));
+
+        assertEquals(41, merged.length);
+        assertEquals(0, merged[0]);
+        assertEquals(40, merged[40]);
+    }
+
+    @Test
+    void testGivenThousandSamples_whenPercentile_thenUseNearestRank() {
+        long[] sorted = new long[1000];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i + 1;
+        }
+
+        assertEquals(500, LatencyRecorder.percentile(sorted, 50));
+        assertEquals(990, LatencyRecorder.percentile(sorted, 99));
+        assertEquals(999, LatencyRecorder.percentile(sorted, 99.9));
+        assertEquals(1, LatencyRecorder.percentile(sorted, 0));
+        assertEquals(0, LatencyRecorder.percentile(new long[0], 99));
+        assertArrayEquals(new long[0], LatencyRecorder.mergeSorted(List.of()));
+    }
+}
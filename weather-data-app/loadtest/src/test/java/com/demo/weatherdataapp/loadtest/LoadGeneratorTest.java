@@ -0,0 +1,55 @@
+package com.demo.weatherdataapp.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadGeneratorTest {
+    @Test
+    void testGivenLocalTarget_whenRun_thenReportThroughputLatenciesAndStatuses() throws Exception {
+        ConcurrentHashMap<String, Boolean> paths = new ConcurrentHashMap<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            paths.put(exchange.getRequestURI().getPath(), true);
+            int status = exchange.getRequestURI().getPath().contains("/zip/") ? 404 : 200;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            LoadProfile profile = new LoadProfile("http://127.0.0.1:" + server.getAddress().getPort(),
+                    Duration.ZERO, Duration.ofMillis(500), 4, 0.5, 0.9, 5, 100, Duration.ofSeconds(5), "unused");
+
+            LoadReport report = new LoadGenerator(profile).run();
+
+            assertTrue(report.requests() > 0);
+            assertEquals(report.requests(), report.statusCounts().values().stream().mapToLong(Long::longValue).sum());
+            assertEquals(report.statusCounts().getOrDefault(404, 0L), report.failedRequests());
+            assertTrue(report.p50Millis() <= report.p99Millis() && report.p99Millis() <= report.maxMillis());
+            assertTrue(report.throughputPerSecond() > 0);
+            assertTrue(report.toJson().contains("\"p999\":"));
+            assertTrue(paths.keySet().stream().anyMatch(path -> path.startsWith("/api/weather/city/LoadCity")));
+            assertTrue(paths.keySet().stream().anyMatch(path -> path.startsWith("/api/weather/zip/")));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testGivenHotRatio_whenPickPath_thenHotAndColdKeysDoNotOverlap() {
+        LoadProfile profile = new LoadProfile("http://localhost", Duration.ZERO, Duration.ZERO, 1, 0.2, 0.9, 10, 100,
+                Duration.ofSeconds(1), "unused");
+
+        assertEquals("/api/weather/city/LoadCity3", profile.pickPath(0.5, 0.1, 13, 0));
+        assertEquals("/api/weather/city/LoadCity17", profile.pickPath(0.5, 0.95, 0, 107));
+        assertEquals("/api/weather/zip/10003?country=US", profile.pickPath(0.1, 0.1, 3, 0));
+    }
+}
@@ -0,0 +1,59 @@
+package com.demo.weatherdataapp.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StubOpenWeatherServerTest {
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void testGivenHealthyStub_whenRequestCityAndGroup_thenReturnOpenWeatherShapedJson() throws Exception {
+        try (StubOpenWeatherServer stub = new StubOpenWeatherServer(new StubServerConfig(0, 0, 0, 0, 0, 1))) {
+            stub.start();
+
+            HttpResponse<String> city = get(stub.baseUrl() + "/weather?q=London&appid=x&units=metric");
+            String cityId = city.body().replaceAll("^\\{\"id\":(\\d+),.*$", "$1");
+            HttpResponse<String> group = get(stub.baseUrl() + "/group?id=" + cityId + ",7&appid=x&units=metric");
+
+            assertEquals(200, city.statusCode());
+            assertTrue(city.body().contains("\"name\":\"London\""));
+            assertTrue(city.body().contains("\"feels_like\""));
+            assertEquals(200, group.statusCode());
+            assertTrue(group.body().startsWith("{\"cnt\":2,"));
+            assertTrue(group.body().contains("\"name\":\"London\""));
+            assertEquals(2, stub.stats().requests());
+        }
+    }
+
+    @Test
+    void testGivenFullErrorRate_whenRequestZip_thenInjectServerError() throws Exception {
+        try (StubOpenWeatherServer stub = new StubOpenWeatherServer(new StubServerConfig(0, 0, 0, 1.0, 0, 1))) {
+            stub.start();
+
+            HttpResponse<String> response = get(stub.baseUrl() + "/weather?zip=94040,US&appid=x&units=metric");
+
+            assertEquals(500, response.statusCode());
+            assertEquals(1, stub.stats().injectedErrors());
+        }
+    }
+
+    @Test
+    void testGivenMedianAndP99_whenSampleLatency_thenMatchLogNormalQuantiles() {
+        StubServerConfig config = new StubServerConfig(0, 80, 400, 0, 0, 1);
+
+        assertEquals(80, config.sampleLatencyMillis(0));
+        assertEquals(400, config.sampleLatencyMillis(2.3263));
+        assertEquals(0, new StubServerConfig(0, 0, 400, 0, 0, 1).sampleLatencyMillis(3));
+    }
+
+    private HttpResponse<String> get(String url) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
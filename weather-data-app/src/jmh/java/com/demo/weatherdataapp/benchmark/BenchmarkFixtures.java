@@ -0,0 +1,70 @@
+package com.demo.weatherdataapp.benchmark;
+
+import com.demo.weatherdataapp.dto.OpenWeatherResponse;
+import com.demo.weatherdataapp.entity.WeatherData;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+final class BenchmarkFixtures {
+    private BenchmarkFixtures() {
+    }
+
+    static OpenWeatherResponse apiResponse(String city) {
+        return apiResponse(idOf(city), city);
+    }
+
+    static OpenWeatherResponse apiResponse(long id, String city) {
+        OpenWeatherResponse response = new OpenWeatherResponse();
+        response.setId(id);
+        response.setName(city);
+
+        OpenWeatherResponse.Main main = new OpenWeatherResponse.Main();
+        main.setTemp(20.5);
+        main.setFeelsLike(18.3);
+        main.setHumidity(65);
+        main.setPressure(1013);
+        response.setMain(main);
+
+        OpenWeatherResponse.Sys sys = new OpenWeatherResponse.Sys();
+        sys.setCountry("GB");
+        response.setSys(sys);
+
+        OpenWeatherResponse.Weather weather = new OpenWeatherResponse.Weather();
+        weather.setDescription("scattered clouds");
+        weather.setMain("Clouds");
+        response.setWeather(List.of(weather));
+
+        OpenWeatherResponse.Wind wind = new OpenWeatherResponse.Wind();
+        wind.setSpeed(3.2);
+        wind.setDeg(190);
+        response.setWind(wind);
+
+        return response;
+    }
+
+    static WeatherData weatherData(String city, LocalDateTime lastUpdated) {
+        return WeatherData.builder()
+                .id(1L)
+                .locationKey("city:" + city.toLowerCase())
+                .upstreamId(idOf(city))
+                .city(city)
+                .country("GB")
+                .temperature(20.5)
+                .feelsLike(18.3)
+                .humidity(65)
+                .pressure(1013)
+                .description("scattered clouds")
+                .mainWeather("Clouds")
+                .windSpeed(3.2)
+                .windDirection(190)
+                .timestamp(lastUpdated)
+                .lastUpdated(lastUpdated)
+                .build();
+    }
+
+    static long idOf(String city) {
+        return 1_000_000L + Math.floorMod(city.toLowerCase(Locale.ROOT).hashCode(), 9_000_000);
+    }
+}
@@ -0,0 +1,48 @@
+package com.demo.weatherdataapp.benchmark;
+
+import com.demo.weatherdataapp.entity.WeatherData;
+import com.demo.weatherdataapp.service.impl.WeatherCacheServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheValidityBenchmark {
+    private WeatherCacheServiceImpl cacheService;
+    private WeatherData freshData;
+    private WeatherData expiredData;
+
+    @Setup
+    public void setUp() {
+        cacheService = new WeatherCacheServiceImpl(null, null, null, null, null, null, null, null, null, null);
+        ReflectionTestUtils.setField(cacheService, "cacheValidityMinutes", 30);
+        freshData = BenchmarkFixtures.weatherData("London", LocalDateTime.now().plusDays(1));
+        expiredData = BenchmarkFixtures.weatherData("Paris", LocalDateTime.now().minusHours(2));
+    }
+
+    @Benchmark
+    public boolean isCacheValidFresh() {
+        return cacheService.isCacheValid(freshData);
+    }
+
+    @Benchmark
+    public boolean isCacheValidExpired() {
+        return cacheService.isCacheValid(expiredData);
+    }
+}
@@ -0,0 +1,131 @@
+package com.demo.weatherdataapp.benchmark;
+
+import com.demo.weatherdataapp.WeatherDataAppApplication;
+import com.demo.weatherdataapp.client.WeatherApiClient;
+import com.demo.weatherdataapp.dto.EncodedWeatherResponse;
+import com.demo.weatherdataapp.dto.OpenWeatherGroupResponse;
+import com.demo.weatherdataapp.dto.OpenWeatherResponse;
+import com.demo.weatherdataapp.dto.WeatherRequest;
+import com.demo.weatherdataapp.dto.WeatherResponse;
+import com.demo.weatherdataapp.service.WeatherService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GetWeatherBenchmark {
+    private static final int REFRESHED_CITIES = 512;
+
+    private final AtomicInteger nextCity = new AtomicInteger();
+    private ConfigurableApplicationContext context;
+    private WeatherService weatherService;
+    private WeatherRequest londonRequest;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(WeatherDataAppApplication.class, StubClientConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:weather_benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn",
+                        "--weather-api.api-key=benchmark",
+                        "--weather.warm-start.enabled=false",
+                        "--weather.purge.keep-per-location=8",
+                        "--weather.rate-limit.calls-per-minute=100000000",
+                        "--weather.rate-limit.burst=100000");
+        weatherService = context.getBean(WeatherService.class);
+        weatherService.getWeatherByCity("London");
+        londonRequest = new WeatherRequest();
+        londonRequest.setCity("London");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public WeatherResponse getWeatherCached() {
+        return weatherService.getWeatherByCity("London");
+    }
+
+    @Benchmark
+    public EncodedWeatherResponse getEncodedWeatherCached() {
+        return weatherService.getEncodedWeather(londonRequest);
+    }
+
+    @Benchmark
+    public WeatherResponse getWeatherUpstreamRefresh() {
+        return weatherService.refreshWeatherByCity("City" + Math.floorMod(nextCity.getAndIncrement(), REFRESHED_CITIES));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class StubClientConfiguration {
+        @Bean
+        static BeanDefinitionRegistryPostProcessor stubWeatherApiClient() {
+            return registry -> {
+                String beanName = WeatherApiClient.class.getName();
+                registry.removeBeanDefinition(beanName);
+                BeanDefinition stub = new RootBeanDefinition(WeatherApiClient.class, StubWeatherApiClient::new);
+                registry.registerBeanDefinition(beanName, stub);
+            };
+        }
+    }
+
+    static class StubWeatherApiClient implements WeatherApiClient {
+        @Override
+        public OpenWeatherResponse getWeatherByCity(String city, String apiKey, String units) {
+            return BenchmarkFixtures.apiResponse(city);
+        }
+
+        @Override
+        public OpenWeatherResponse getWeatherByZipCode(String zipCode, String apiKey, String units) {
+            return BenchmarkFixtures.apiResponse("Mountain View");
+        }
+
+        @Override
+        public OpenWeatherResponse getWeatherByCoordinates(double latitude, double longitude, String apiKey, String units) {
+            return BenchmarkFixtures.apiResponse("London");
+        }
+
+        @Override
+        public OpenWeatherGroupResponse getWeatherByCityIds(String cityIds, String apiKey, String units) {
+            OpenWeatherGroupResponse response = new OpenWeatherGroupResponse();
+            List<OpenWeatherResponse> list = Arrays.stream(cityIds.split(","))
+                    .map(id -> BenchmarkFixtures.apiResponse(Long.parseLong(id), "City" + id))
+                    .toList();
+            response.setList(list);
+            response.setCnt(list.size());
+
+            return response;
+        }
+    }
+}
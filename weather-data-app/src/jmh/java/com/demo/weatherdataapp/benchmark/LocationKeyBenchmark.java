@@ -0,0 +1,46 @@
+package com.demo.weatherdataapp.benchmark;
+
+import com.demo.weatherdataapp.cache.LocationKey;
+import com.demo.weatherdataapp.dto.WeatherRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocationKeyBenchmark {
+    private WeatherRequest cityRequest;
+    private WeatherRequest zipRequest;
+
+    @Setup
+    public void setUp() {
+        cityRequest = new WeatherRequest();
+        cityRequest.setCity("  New York ");
+        zipRequest = new WeatherRequest();
+        zipRequest.setZipCode(" 94040 ");
+        zipRequest.setCountry("us");
+    }
+
+    @Benchmark
+    public String cityKey() {
+        return LocationKey.of(cityRequest);
+    }
+
+    @Benchmark
+    public String zipKey() {
+        return LocationKey.of(zipRequest);
+    }
+}
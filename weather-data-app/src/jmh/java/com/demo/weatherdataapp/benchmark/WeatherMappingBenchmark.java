@@ -0,0 +1,46 @@
+package com.demo.weatherdataapp.benchmark;
+
+import com.demo.weatherdataapp.dto.OpenWeatherResponse;
+import com.demo.weatherdataapp.dto.WeatherResponse;
+import com.demo.weatherdataapp.entity.WeatherData;
+import com.demo.weatherdataapp.mapper.WeatherResponseMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WeatherMappingBenchmark {
+    private OpenWeatherResponse apiResponse;
+    private WeatherData weatherData;
+
+    @Setup
+    public void setUp() {
+        apiResponse = BenchmarkFixtures.apiResponse("London");
+        weatherData = BenchmarkFixtures.weatherData("London", LocalDateTime.now());
+    }
+
+    @Benchmark
+    public WeatherData fromApiResponse() {
+        return WeatherResponseMapper.fromApiResponse(apiResponse, null);
+    }
+
+    @Benchmark
+    public WeatherResponse toResponse() {
+        return WeatherResponseMapper.toResponse(weatherData);
+    }
+}
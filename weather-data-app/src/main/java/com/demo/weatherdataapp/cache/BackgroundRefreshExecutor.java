@@ -0,0 +1,50 @@
+package com.demo.weatherdataapp.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+@Slf4j
+@Component
+public class BackgroundRefreshExecutor implements Executor, DisposableBean {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+
+    public BackgroundRefreshExecutor(
+            @Value("${weather.cache.stale-while-revalidate.max-concurrent-refreshes:16}") int maxConcurrentRefreshes) {
+        this.permits = new Semaphore(maxConcurrentRefreshes);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!permits.tryAcquire()) {
+            log.debug("Background refresh capacity exhausted, skipping refresh");
+
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            log.warn("Failed to schedule background refresh", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
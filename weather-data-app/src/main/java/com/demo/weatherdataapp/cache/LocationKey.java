@@ -0,0 +1,96 @@
+package com.demo.weatherdataapp.cache;
+
+import com.demo.weatherdataapp.dto.WeatherRequest;
+import com.demo.weatherdataapp.entity.WeatherData;
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+
+public final class LocationKey {
+    private static final String CITY_PREFIX = "city:";
+    private static final String ZIP_PREFIX = "zip:";
+    private static final String COORDINATES_PREFIX = "coord:";
+    private static final String UPSTREAM_ID_PREFIX = "id:";
+    private static final String DEFAULT_COUNTRY = "US";
+
+    private LocationKey() {
+    }
+
+    public static String of(WeatherRequest request) {
+        if (StringUtils.hasText(request.getCity())) {
+            return forCity(request.getCity());
+        }
+
+        if (StringUtils.hasText(request.getZipCode())) {
+            return forZipCode(request.getZipCode(), request.getCountry());
+        }
+
+        if (request.getLatitude() != null && request.getLongitude() != null) {
+            return forCoordinates(request.getLatitude(), request.getLongitude());
+        }
+
+        return null;
+    }
+
+    public static String of(WeatherData data) {
+        if (StringUtils.hasText(data.getLocationKey())) {
+            return data.getLocationKey();
+        }
+
+        if (StringUtils.hasText(data.getZipCode())) {
+            return forZipCode(data.getZipCode(), data.getCountry());
+        }
+
+        return StringUtils.hasText(data.getCity()) ? forCity(data.getCity()) : null;
+    }
+
+    public static WeatherRequest toRequest(String locationKey) {
+        WeatherRequest request = new WeatherRequest();
+        if (locationKey.startsWith(CITY_PREFIX)) {
+            request.setCity(locationKey.substring(CITY_PREFIX.length()));
+        } else if (locationKey.startsWith(ZIP_PREFIX)) {
+            request.setZipCode(locationKey.substring(ZIP_PREFIX.length()));
+        } else if (locationKey.startsWith(COORDINATES_PREFIX)) {
+            String[] coordinates = locationKey.substring(COORDINATES_PREFIX.length()).split(",");
+            request.setLatitude(Double.parseDouble(coordinates[0]));
+            request.setLongitude(Double.parseDouble(coordinates[1]));
+        } else {
+            throw new IllegalArgumentException("Unsupported location key: " + locationKey);
+        }
+
+        return request;
+    }
+
+    public static String forCity(String city) {
+        return CITY_PREFIX + normalize(city).toLowerCase(Locale.ROOT);
+    }
+
+    public static String forZipCode(String zipCode, String country) {
+        String zip = normalize(zipCode).toUpperCase(Locale.ROOT);
+        if (zip.contains(",")) {
+            return ZIP_PREFIX + zip;
+        }
+
+        String targetCountry = StringUtils.hasText(country) ? country.trim().toUpperCase(Locale.ROOT) : DEFAULT_COUNTRY;
+
+        return ZIP_PREFIX + zip + "," + targetCountry;
+    }
+
+    public static String forUpstreamId(long upstreamId) {
+        return UPSTREAM_ID_PREFIX + upstreamId;
+    }
+
+    public static Long upstreamIdOf(String locationKey) {
+        return locationKey.startsWith(UPSTREAM_ID_PREFIX)
+                ? Long.valueOf(locationKey.substring(UPSTREAM_ID_PREFIX.length()))
+                : null;
+    }
+
+    public static String forCoordinates(double latitude, double longitude) {
+        return String.format(Locale.ROOT, "%s%.2f,%.2f", COORDINATES_PREFIX, latitude, longitude);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,112 @@
+package com.demo.weatherdataapp.cache;
+
+import com.demo.weatherdataapp.dto.WeatherRequest;
+import com.demo.weatherdataapp.entity.WeatherData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class LocationResolver {
+    private final int maxAliases;
+    private final Map<String, String> canonicalByAlias = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> aliasesByCanonical = new ConcurrentHashMap<>();
+
+    public LocationResolver(@Value("${weather.location.max-aliases:20000}") int maxAliases) {
+        this.maxAliases = maxAliases;
+    }
+
+    public String resolve(WeatherRequest request) {
+        return resolve(LocationKey.of(request));
+    }
+
+    public String resolve(String locationKey) {
+        if (locationKey == null) {
+            return null;
+        }
+
+        return canonicalByAlias.getOrDefault(locationKey, locationKey);
+    }
+
+    public String canonicalize(String queryKey, WeatherData data) {
+        String canonicalKey = data.getUpstreamId() != null ? LocationKey.forUpstreamId(data.getUpstreamId()) : queryKey;
+        if (canonicalKey == null) {
+            return null;
+        }
+
+        if (!register(canonicalKey, queryKey)) {
+            return queryKey;
+        }
+        if (StringUtils.hasText(data.getCity()) && StringUtils.hasText(data.getCountry())) {
+            register(canonicalKey, LocationKey.forCity(data.getCity() + "," + data.getCountry()));
+        }
+
+        return canonicalKey;
+    }
+
+    public Set<String> aliasesOf(String canonicalKey) {
+        Set<String> aliases = aliasesByCanonical.get(canonicalKey);
+
+        return aliases != null ? Set.copyOf(aliases) : Set.of();
+    }
+
+    public Map<String, String> snapshot() {
+        return Map.copyOf(canonicalByAlias);
+    }
+
+    public void restore(String alias, String canonicalKey) {
+        if (canonicalKey != null) {
+            register(canonicalKey, alias);
+        }
+    }
+
+    public void remove(String canonicalKey) {
+        Set<String> aliases = aliasesByCanonical.remove(canonicalKey);
+        if (aliases != null) {
+            aliases.forEach(alias -> canonicalByAlias.remove(alias, canonicalKey));
+        }
+    }
+
+    public int size() {
+        return canonicalByAlias.size();
+    }
+
+    private boolean register(String canonicalKey, String alias) {
+        if (alias == null || alias.equals(canonicalKey)) {
+            return true;
+        }
+
+        if (!canonicalByAlias.containsKey(alias) && canonicalByAlias.size() >= maxAliases) {
+            log.debug("Alias index full ({} entries), not aliasing {} to {}", maxAliases, alias, canonicalKey);
+
+            return false;
+        }
+
+        String previous = canonicalByAlias.put(alias, canonicalKey);
+        if (canonicalKey.equals(previous)) {
+            return true;
+        }
+
+        if (previous != null) {
+            aliasesByCanonical.computeIfPresent(previous, (key, aliases) -> {
+                aliases.remove(alias);
+
+                return aliases.isEmpty() ? null : aliases;
+            });
+        }
+        aliasesByCanonical.compute(canonicalKey, (key, aliases) -> {
+            Set<String> updated = aliases != null ? aliases : ConcurrentHashMap.newKeySet();
+            updated.add(alias);
+
+            return updated;
+        });
+
+        return true;
+    }
+}
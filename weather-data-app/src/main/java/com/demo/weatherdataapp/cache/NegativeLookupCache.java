@@ -0,0 +1,97 @@
+package com.demo.weatherdataapp.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+@Component
+public class NegativeLookupCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public NegativeLookupCache(@Value("${weather.cache.negative.max-entries:10000}") int maxEntries,
+                               @Value("${weather.cache.negative.ttl-seconds:600}") long ttlSeconds) {
+        this(maxEntries, ttlSeconds, System::nanoTime);
+    }
+
+    NegativeLookupCache(int maxEntries, long ttlSeconds, LongSupplier nanoClock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean evict = size() > NegativeLookupCache.this.maxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+
+                return evict;
+            }
+        };
+    }
+
+    public Optional<String> get(String locationKey) {
+        if (locationKey == null || ttlNanos <= 0) {
+            return Optional.empty();
+        }
+
+        synchronized (entries) {
+            Entry entry = entries.get(locationKey);
+            if (entry == null) {
+                return Optional.empty();
+            }
+
+            if (nanoClock.getAsLong() - entry.expiresAtNanos() >= 0) {
+                entries.remove(locationKey);
+
+                return Optional.empty();
+            }
+
+            hits.increment();
+
+            return Optional.of(entry.error());
+        }
+    }
+
+    public void put(String locationKey, String error) {
+        if (locationKey == null || ttlNanos <= 0 || maxEntries <= 0) {
+            return;
+        }
+
+        synchronized (entries) {
+            entries.put(locationKey, new Entry(error, nanoClock.getAsLong() + ttlNanos));
+        }
+        recorded.increment();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public NegativeCacheStats stats() {
+        return new NegativeCacheStats(hits.sum(), recorded.sum(), evictions.sum(), size());
+    }
+
+    public record NegativeCacheStats(long hits, long recorded, long evictions, int size) {
+    }
+
+    private record Entry(String error, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.demo.weatherdataapp.cache;
+
+import com.demo.weatherdataapp.exception.WeatherApiException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class RequestCoalescer {
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final long maxWaitMillis;
+
+    public RequestCoalescer(@Value("${weather.cache.coalesce-max-wait-ms:10000}") long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            log.debug("Joining in-flight request for: {}", key);
+
+            return (T) await(key, existing);
+        }
+
+        executions.increment();
+        try {
+            T result = loader.get();
+            flight.complete(result);
+
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public boolean isInFlight(String key) {
+        return inFlight.containsKey(key);
+    }
+
+    public CoalescerStats stats() {
+        return new CoalescerStats(executions.sum(), coalesced.sum(), inFlight.size());
+    }
+
+    private Object await(String key, CompletableFuture<Object> flight) {
+        try {
+            return flight.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            log.warn("Gave up after {} ms waiting for in-flight request for: {}", maxWaitMillis, key);
+
+            throw new WeatherApiException("Timed out waiting for in-flight request for: " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new WeatherApiException("Interrupted while waiting for in-flight request for: " + key);
+        }
+    }
+
+    public record CoalescerStats(long executions, long coalesced, int inFlight) {
+    }
+}
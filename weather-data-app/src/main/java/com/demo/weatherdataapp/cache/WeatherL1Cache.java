@@ -0,0 +1,169 @@
+package com.demo.weatherdataapp.cache;
+
+import com.demo.weatherdataapp.dto.EncodedWeatherResponse;
+import com.demo.weatherdataapp.entity.WeatherData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+@Slf4j
+@Component
+public class WeatherL1Cache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder encodedHits = new LongAdder();
+    private final LongAdder encodings = new LongAdder();
+
+    public WeatherL1Cache(int maxEntries, int validityMinutes) {
+        this(maxEntries, validityMinutes, false, 1);
+    }
+
+    @Autowired
+    public WeatherL1Cache(@Value("${weather.cache.l1.max-entries:1000}") int maxEntries,
+                          @Value("${weather.cache.validity-minutes:30}") int validityMinutes,
+                          @Value("${weather.cache.stale-while-revalidate.enabled:false}") boolean staleWhileRevalidate,
+                          @Value("${weather.cache.stale-while-revalidate.max-stale-factor:2}") int maxStaleFactor) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(staleWhileRevalidate
+                ? (long) validityMinutes * maxStaleFactor
+                : validityMinutes);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean evict = size() > WeatherL1Cache.this.maxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+
+                return evict;
+            }
+        };
+    }
+
+    public Optional<WeatherData> get(String locationKey) {
+        if (locationKey == null) {
+            misses.increment();
+
+            return Optional.empty();
+        }
+
+        synchronized (entries) {
+            Entry entry = entries.get(locationKey);
+            if (entry == null) {
+                misses.increment();
+
+                return Optional.empty();
+            }
+
+            if (entry.isExpired(System.nanoTime())) {
+                entries.remove(locationKey);
+                expirations.increment();
+                misses.increment();
+
+                return Optional.empty();
+            }
+
+            hits.increment();
+
+            return Optional.of(entry.data());
+        }
+    }
+
+    public void put(String locationKey, WeatherData data) {
+        if (locationKey == null || data == null || data.getLastUpdated() == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long ageNanos = Math.max(0, Duration.between(data.getLastUpdated(), LocalDateTime.now()).toNanos());
+        long remainingNanos = ttlNanos - ageNanos;
+        if (remainingNanos <= 0) {
+            log.debug("Skipping L1 cache put for expired entry: {}", locationKey);
+
+            return;
+        }
+
+        synchronized (entries) {
+            entries.put(locationKey, new Entry(data, now + remainingNanos, new AtomicReference<>()));
+        }
+    }
+
+    public EncodedWeatherResponse getEncoded(String locationKey, WeatherData data,
+                                             Function<WeatherData, EncodedWeatherResponse> encoder) {
+        Entry entry = null;
+        if (locationKey != null) {
+            synchronized (entries) {
+                entry = entries.get(locationKey);
+            }
+        }
+
+        if (entry == null || entry.data() != data) {
+            encodings.increment();
+
+            return encoder.apply(data);
+        }
+
+        EncodedWeatherResponse encoded = entry.encoded().get();
+        if (encoded != null) {
+            encodedHits.increment();
+
+            return encoded;
+        }
+
+        encodings.increment();
+        encoded = encoder.apply(data);
+        entry.encoded().compareAndSet(null, encoded);
+
+        return encoded;
+    }
+
+    public void invalidate(String locationKey) {
+        synchronized (entries) {
+            entries.remove(locationKey);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), encodedHits.sum(),
+                encodings.sum(), size());
+    }
+
+    public record CacheStats(long hits, long misses, long evictions, long expirations, long encodedHits, long encodings,
+                             int size) {
+    }
+
+    private record Entry(WeatherData data, long expiresAtNanos, AtomicReference<EncodedWeatherResponse> encoded) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
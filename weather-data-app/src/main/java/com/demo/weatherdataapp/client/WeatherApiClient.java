@@ -1,5 +1,6 @@
 package com.demo.weatherdataapp.client;
 
+import com.demo.weatherdataapp.dto.OpenWeatherGroupResponse;
 import com.demo.weatherdataapp.dto.OpenWeatherResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -7,17 +8,32 @@ import org.springframework.web.bind.annotation.RequestParam;
 
 @FeignClient(name = "weather-api-client", url = "${weather-api.base-url}")
 public interface WeatherApiClient {
-    @GetMapping
+    @GetMapping("/weather")
     OpenWeatherResponse getWeatherByCity(
             @RequestParam("q") String city,
             @RequestParam("appid") String apiKey,
             @RequestParam("units") String units
     );
 
-    @GetMapping
+    @GetMapping("/weather")
     OpenWeatherResponse getWeatherByZipCode(
             @RequestParam("zip") String zipCode,
             @RequestParam("appid") String apiKey,
             @RequestParam("units") String units
     );
+
+    @GetMapping("/weather")
+    OpenWeatherResponse getWeatherByCoordinates(
+            @RequestParam("lat") double latitude,
+            @RequestParam("lon") double longitude,
+            @RequestParam("appid") String apiKey,
+            @RequestParam("units") String units
+    );
+
+    @GetMapping("/group")
+    OpenWeatherGroupResponse getWeatherByCityIds(
+            @RequestParam("id") String cityIds,
+            @RequestParam("appid") String apiKey,
+            @RequestParam("units") String units
+    );
 }
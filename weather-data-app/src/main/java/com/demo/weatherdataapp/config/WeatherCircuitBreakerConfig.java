@@ -0,0 +1,75 @@
+package com.demo.weatherdataapp.config;
+
+import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Slf4j
+@Configuration
+public class WeatherCircuitBreakerConfig {
+    public static final String WEATHER_API_CIRCUIT_BREAKER = "openWeather";
+
+    @Value("${weather.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${weather.circuit-breaker.slow-call-rate-threshold:50}")
+    private float slowCallRateThreshold;
+
+    @Value("${weather.circuit-breaker.slow-call-duration-ms:3000}")
+    private long slowCallDurationMs;
+
+    @Value("${weather.circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${weather.circuit-breaker.minimum-number-of-calls:10}")
+    private int minimumNumberOfCalls;
+
+    @Value("${weather.circuit-breaker.wait-in-open-state-ms:30000}")
+    private long waitInOpenStateMs;
+
+    @Value("${weather.circuit-breaker.permitted-calls-in-half-open-state:1}")
+    private int permittedCallsInHalfOpenState;
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry() {
+        return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(Duration.ofMillis(waitInOpenStateMs))
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .recordException(WeatherCircuitBreakerConfig::isUpstreamFailure)
+                .build());
+    }
+
+    @Bean
+    public CircuitBreaker weatherApiCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(WEATHER_API_CIRCUIT_BREAKER);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("OpenWeather circuit breaker transitioned: {}", event.getStateTransition()));
+
+        return circuitBreaker;
+    }
+
+    @Bean
+    public MeterBinder circuitBreakerMetrics(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry);
+    }
+
+    static boolean isUpstreamFailure(Throwable throwable) {
+        return !(throwable instanceof FeignException.FeignClientException)
+                || throwable instanceof FeignException.TooManyRequests;
+    }
+}
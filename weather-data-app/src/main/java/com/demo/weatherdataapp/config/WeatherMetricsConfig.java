@@ -0,0 +1,95 @@
+package com.demo.weatherdataapp.config;
+
+import com.demo.weatherdataapp.cache.LocationResolver;
+import com.demo.weatherdataapp.cache.NegativeLookupCache;
+import com.demo.weatherdataapp.cache.RequestCoalescer;
+import com.demo.weatherdataapp.cache.WeatherL1Cache;
+import com.demo.weatherdataapp.geo.CoordinateIndex;
+import com.demo.weatherdataapp.push.WeatherUpdatePublisher;
+import com.demo.weatherdataapp.ratelimit.UpstreamRateLimiter;
+import com.demo.weatherdataapp.tracking.LocationDemandTracker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class WeatherMetricsConfig {
+    @Bean
+    public MeterBinder weatherL1CacheMetrics(WeatherL1Cache l1Cache) {
+        return registry -> {
+            FunctionCounter.builder("weather.cache.l1.hits", l1Cache, cache -> cache.stats().hits()).register(registry);
+            FunctionCounter.builder("weather.cache.l1.misses", l1Cache, cache -> cache.stats().misses()).register(registry);
+            FunctionCounter.builder("weather.cache.l1.evictions", l1Cache, cache -> cache.stats().evictions()).register(registry);
+            FunctionCounter.builder("weather.cache.l1.expirations", l1Cache, cache -> cache.stats().expirations()).register(registry);
+            FunctionCounter.builder("weather.cache.l1.encoded.hits", l1Cache, cache -> cache.stats().encodedHits()).register(registry);
+            FunctionCounter.builder("weather.cache.l1.encodings", l1Cache, cache -> cache.stats().encodings()).register(registry);
+            Gauge.builder("weather.cache.l1.size", l1Cache, WeatherL1Cache::size).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder weatherNegativeCacheMetrics(NegativeLookupCache negativeLookupCache) {
+        return registry -> {
+            FunctionCounter.builder("weather.cache.negative.hits", negativeLookupCache, c -> c.stats().hits()).register(registry);
+            FunctionCounter.builder("weather.cache.negative.recorded", negativeLookupCache, c -> c.stats().recorded()).register(registry);
+            FunctionCounter.builder("weather.cache.negative.evictions", negativeLookupCache, c -> c.stats().evictions()).register(registry);
+            Gauge.builder("weather.cache.negative.size", negativeLookupCache, NegativeLookupCache::size).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder weatherCoalescerMetrics(RequestCoalescer coalescer) {
+        return registry -> {
+            FunctionCounter.builder("weather.coalescer.executions", coalescer, c -> c.stats().executions()).register(registry);
+            FunctionCounter.builder("weather.coalescer.coalesced", coalescer, c -> c.stats().coalesced()).register(registry);
+            Gauge.builder("weather.coalescer.in.flight", coalescer, c -> c.stats().inFlight()).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder weatherLocationAliasMetrics(LocationResolver locationResolver) {
+        return registry -> Gauge.builder("weather.location.aliases", locationResolver, LocationResolver::size)
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder weatherCoordinateIndexMetrics(CoordinateIndex coordinateIndex) {
+        return registry -> Gauge.builder("weather.geo.indexed.locations", coordinateIndex, CoordinateIndex::size)
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder weatherPushMetrics(WeatherUpdatePublisher publisher) {
+        return registry -> {
+            Gauge.builder("weather.push.subscribers", publisher, p -> p.stats().subscribers()).register(registry);
+            FunctionCounter.builder("weather.push.published", publisher, p -> p.stats().published()).register(registry);
+            FunctionCounter.builder("weather.push.dropped", publisher, p -> p.stats().dropped()).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder weatherDemandMetrics(LocationDemandTracker demandTracker) {
+        return registry -> Gauge.builder("weather.tracking.hot.locations", demandTracker, t -> t.hotLocationKeys().size())
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder weatherRateLimiterMetrics(UpstreamRateLimiter rateLimiter) {
+        return registry -> {
+            Gauge.builder("weather.ratelimit.utilization", rateLimiter, l -> l.stats().utilization()).register(registry);
+            Gauge.builder("weather.ratelimit.tokens", rateLimiter, l -> l.stats().availableTokens()).register(registry);
+            Gauge.builder("weather.ratelimit.waiting", rateLimiter, l -> l.stats().interactiveWaiting())
+                    .tag("priority", "interactive").register(registry);
+            Gauge.builder("weather.ratelimit.waiting", rateLimiter, l -> l.stats().backgroundWaiting())
+                    .tag("priority", "background").register(registry);
+            FunctionCounter.builder("weather.ratelimit.granted", rateLimiter, l -> l.stats().interactiveGranted())
+                    .tag("priority", "interactive").register(registry);
+            FunctionCounter.builder("weather.ratelimit.granted", rateLimiter, l -> l.stats().backgroundGranted())
+                    .tag("priority", "background").register(registry);
+            FunctionCounter.builder("weather.ratelimit.waited", rateLimiter, l -> l.stats().waited()).register(registry);
+            FunctionCounter.builder("weather.ratelimit.rejected", rateLimiter, l -> l.stats().rejected()).register(registry);
+        };
+    }
+}
@@ -1,12 +1,21 @@
 package com.demo.weatherdataapp.controller;
 
+import com.demo.weatherdataapp.dto.BatchWeatherRequest;
+import com.demo.weatherdataapp.dto.BatchWeatherResponse;
+import com.demo.weatherdataapp.dto.EncodedWeatherResponse;
+import com.demo.weatherdataapp.dto.WeatherHistorySummary;
 import com.demo.weatherdataapp.dto.WeatherRequest;
 import com.demo.weatherdataapp.dto.WeatherResponse;
 import com.demo.weatherdataapp.service.WeatherService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,6 +26,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.List;
 
 @Slf4j
@@ -27,24 +39,43 @@ import java.util.List;
 public class WeatherController {
     private final WeatherService weatherService;
 
+    @Value("${weather.cache.validity-minutes:30}")
+    private int cacheValidityMinutes;
+
     @GetMapping("/city/{cityName}")
-    public ResponseEntity<WeatherResponse> getWeatherByCity(@PathVariable @NotBlank String cityName) {
+    public ResponseEntity<byte[]> getWeatherByCity(@PathVariable @NotBlank String cityName) {
         log.info("GET /api/weather/city/{}", cityName);
 
-        WeatherResponse response = weatherService.getWeatherByCity(cityName);
+        WeatherRequest request = new WeatherRequest();
+        request.setCity(cityName);
 
-        return ResponseEntity.ok(response);
+        return cacheable(weatherService.getEncodedWeather(request));
     }
 
     @GetMapping("/zip/{zipCode}")
-    public ResponseEntity<WeatherResponse> getWeatherByZipCode(
+    public ResponseEntity<byte[]> getWeatherByZipCode(
             @PathVariable @NotBlank String zipCode,
             @RequestParam(value = "country", required = false) String country) {
         log.info("GET /api/weather/zip/{} (country: {})", zipCode, country);
 
-        WeatherResponse response = weatherService.getWeatherByZipCode(zipCode, country);
+        WeatherRequest request = new WeatherRequest();
+        request.setZipCode(zipCode);
+        request.setCountry(country);
 
-        return ResponseEntity.ok(response);
+        return cacheable(weatherService.getEncodedWeather(request));
+    }
+
+    @GetMapping("/coordinates")
+    public ResponseEntity<byte[]> getWeatherByCoordinates(
+            @RequestParam("lat") @DecimalMin("-90.0") @DecimalMax("90.0") double latitude,
+            @RequestParam("lon") @DecimalMin("-180.0") @DecimalMax("180.0") double longitude) {
+        log.info("GET /api/weather/coordinates (lat: {}, lon: {})", latitude, longitude);
+
+        WeatherRequest request = new WeatherRequest();
+        request.setLatitude(latitude);
+        request.setLongitude(longitude);
+
+        return cacheable(weatherService.getEncodedWeather(request));
     }
 
     @PostMapping("/search")
@@ -56,6 +87,41 @@ public class WeatherController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchWeatherResponse> getWeatherBatch(@Valid @RequestBody BatchWeatherRequest request) {
+        log.info("POST /api/weather/batch ({} locations)", request.getLocations().size());
+
+        BatchWeatherResponse response = weatherService.getWeatherBatch(request.getLocations());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/history/city/{cityName}")
+    public ResponseEntity<WeatherHistorySummary> getCityHistory(
+            @PathVariable @NotBlank String cityName,
+            @RequestParam(value = "hours", defaultValue = "24") int hours) {
+        log.info("GET /api/weather/history/city/{} (hours: {})", cityName, hours);
+
+        WeatherRequest request = new WeatherRequest();
+        request.setCity(cityName);
+
+        return ResponseEntity.ok(weatherService.getRecentHistory(request, hours));
+    }
+
+    @GetMapping("/history/zip/{zipCode}")
+    public ResponseEntity<WeatherHistorySummary> getZipCodeHistory(
+            @PathVariable @NotBlank String zipCode,
+            @RequestParam(value = "country", required = false) String country,
+            @RequestParam(value = "hours", defaultValue = "24") int hours) {
+        log.info("GET /api/weather/history/zip/{} (country: {}, hours: {})", zipCode, country, hours);
+
+        WeatherRequest request = new WeatherRequest();
+        request.setZipCode(zipCode);
+        request.setCountry(country);
+
+        return ResponseEntity.ok(weatherService.getRecentHistory(request, hours));
+    }
+
     @PostMapping("/refresh/city/{cityName}")
     public ResponseEntity<WeatherResponse> refreshCityWeather(@PathVariable @NotBlank String cityName) {
         log.info("POST /api/weather/refresh/city/{}", cityName);
@@ -98,4 +164,20 @@ public class WeatherController {
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Weather service is running");
     }
+
+    private ResponseEntity<byte[]> cacheable(EncodedWeatherResponse response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (response.lastUpdated() == null) {
+            return builder.body(response.json());
+        }
+
+        Instant lastModified = response.lastUpdated().atZone(ZoneId.systemDefault()).toInstant();
+        Duration remaining = Duration.ofMinutes(cacheValidityMinutes).minus(Duration.between(lastModified, Instant.now()));
+
+        return builder
+                .eTag(response.eTag())
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.maxAge(remaining.isNegative() ? Duration.ZERO : remaining))
+                .body(response.json());
+    }
 }
@@ -0,0 +1,60 @@
+package com.demo.weatherdataapp.controller;
+
+import com.demo.weatherdataapp.dto.ExportFormat;
+import com.demo.weatherdataapp.dto.HistoryExportQuery;
+import com.demo.weatherdataapp.service.WeatherExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/weather/export")
+@RequiredArgsConstructor
+public class WeatherExportController {
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final WeatherExportService exportService;
+
+    @GetMapping("/history")
+    public ResponseEntity<StreamingResponseBody> exportHistory(
+            @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(value = "city", required = false) String city,
+            @RequestParam(value = "country", required = false) String country,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        log.info("GET /api/weather/export/history (format: {}, city: {}, country: {}, from: {}, to: {}, gzip: {})",
+                format, city, country, from, to, gzip);
+
+        HistoryExportQuery query = new HistoryExportQuery(city, country, from, to);
+        String filename = "weather-history." + format.getExtension() + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                exportService.exportHistory(query, format, gzipOut);
+                gzipOut.finish();
+            } else {
+                exportService.exportHistory(query, format, out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
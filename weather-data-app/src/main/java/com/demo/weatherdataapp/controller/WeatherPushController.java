@@ -0,0 +1,51 @@
+package com.demo.weatherdataapp.controller;
+
+import com.demo.weatherdataapp.cache.LocationKey;
+import com.demo.weatherdataapp.push.WeatherUpdatePublisher;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/weather/subscribe")
+@RequiredArgsConstructor
+@Validated
+public class WeatherPushController {
+    private final WeatherUpdatePublisher updatePublisher;
+
+    @GetMapping(value = "/city/{cityName}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToCity(@PathVariable @NotBlank String cityName) {
+        log.info("GET /api/weather/subscribe/city/{}", cityName);
+
+        return subscribe(LocationKey.forCity(cityName));
+    }
+
+    @GetMapping(value = "/zip/{zipCode}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToZipCode(
+            @PathVariable @NotBlank String zipCode,
+            @RequestParam(value = "country", required = false) String country) {
+        log.info("GET /api/weather/subscribe/zip/{} (country: {})", zipCode, country);
+
+        return subscribe(LocationKey.forZipCode(zipCode, country));
+    }
+
+    private ResponseEntity<SseEmitter> subscribe(String locationKey) {
+        SseEmitter emitter = updatePublisher.subscribe(locationKey);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        return ResponseEntity.ok(emitter);
+    }
+}
@@ -0,0 +1,60 @@
+package com.demo.weatherdataapp.controller;
+
+import com.demo.weatherdataapp.dto.WeatherRequest;
+import com.demo.weatherdataapp.dto.WeatherRollupResponse;
+import com.demo.weatherdataapp.entity.RollupGranularity;
+import com.demo.weatherdataapp.service.WeatherRollupService;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/weather/rollups")
+@RequiredArgsConstructor
+@Validated
+public class WeatherRollupController {
+    private final WeatherRollupService rollupService;
+
+    @GetMapping("/city/{cityName}")
+    public ResponseEntity<List<WeatherRollupResponse>> getCityRollups(
+            @PathVariable @NotBlank String cityName,
+            @RequestParam(value = "granularity", defaultValue = "HOURLY") RollupGranularity granularity,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /api/weather/rollups/city/{} (granularity: {}, from: {}, to: {})", cityName, granularity, from, to);
+
+        WeatherRequest request = new WeatherRequest();
+        request.setCity(cityName);
+
+        return ResponseEntity.ok(rollupService.getRollups(request, granularity, from, to));
+    }
+
+    @GetMapping("/zip/{zipCode}")
+    public ResponseEntity<List<WeatherRollupResponse>> getZipCodeRollups(
+            @PathVariable @NotBlank String zipCode,
+            @RequestParam(value = "country", required = false) String country,
+            @RequestParam(value = "granularity", defaultValue = "HOURLY") RollupGranularity granularity,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /api/weather/rollups/zip/{} (country: {}, granularity: {}, from: {}, to: {})",
+                zipCode, country, granularity, from, to);
+
+        WeatherRequest request = new WeatherRequest();
+        request.setZipCode(zipCode);
+        request.setCountry(country);
+
+        return ResponseEntity.ok(rollupService.getRollups(request, granularity, from, to));
+    }
+}
@@ -0,0 +1,8 @@
+package com.demo.weatherdataapp.dto;
+
+public enum BatchItemStatus {
+    OK,
+    INVALID,
+    NOT_FOUND,
+    FAILED
+}
@@ -0,0 +1,17 @@
+package com.demo.weatherdataapp.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BatchWeatherItem {
+    private String city;
+    private String zipCode;
+    private String country;
+    private Double latitude;
+    private Double longitude;
+    private BatchItemStatus status;
+    private WeatherResponse weather;
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.demo.weatherdataapp.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchWeatherRequest {
+    @NotEmpty(message = "At least one location must be provided")
+    @Size(max = 500, message = "A batch can contain at most 500 locations")
+    private List<WeatherRequest> locations;
+}
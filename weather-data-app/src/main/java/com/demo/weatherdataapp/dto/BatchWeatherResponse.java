@@ -0,0 +1,17 @@
+package com.demo.weatherdataapp.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BatchWeatherResponse {
+    private int requested;
+    private int unique;
+    private int fromCache;
+    private int fetched;
+    private int failed;
+    private List<BatchWeatherItem> results;
+}
@@ -0,0 +1,6 @@
+package com.demo.weatherdataapp.dto;
+
+import java.time.LocalDateTime;
+
+public record EncodedWeatherResponse(byte[] json, String eTag, LocalDateTime lastUpdated) {
+}
@@ -0,0 +1,6 @@
+package com.demo.weatherdataapp.dto;
+
+import java.time.LocalDateTime;
+
+public record HistoryExportQuery(String city, String country, LocalDateTime from, LocalDateTime to) {
+}
@@ -0,0 +1,4 @@
+package com.demo.weatherdataapp.dto;
+
+public record MetricSummary(Double min, Double max, Double avg, int samples) {
+}
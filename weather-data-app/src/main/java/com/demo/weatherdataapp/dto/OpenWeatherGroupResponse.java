@@ -0,0 +1,15 @@
+package com.demo.weatherdataapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class OpenWeatherGroupResponse {
+    @JsonProperty("cnt")
+    private Integer cnt;
+
+    @JsonProperty("list")
+    private List<OpenWeatherResponse> list;
+}
@@ -0,0 +1,7 @@
+package com.demo.weatherdataapp.dto;
+
+public record PurgeResult(int expiredRowsDeleted, int excessRowsDeleted, int chunks, long elapsedMillis, boolean completed) {
+    public int rowsDeleted() {
+        return expiredRowsDeleted + excessRowsDeleted;
+    }
+}
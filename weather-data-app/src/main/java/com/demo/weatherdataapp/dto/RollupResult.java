@@ -0,0 +1,4 @@
+package com.demo.weatherdataapp.dto;
+
+public record RollupResult(int readingsProcessed, int bucketsUpdated, long lastHistoryId, boolean drained) {
+}
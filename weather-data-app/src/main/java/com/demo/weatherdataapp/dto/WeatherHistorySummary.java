@@ -0,0 +1,19 @@
+package com.demo.weatherdataapp.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class WeatherHistorySummary {
+    private String locationKey;
+    private int hours;
+    private int samples;
+    private String from;
+    private String to;
+    private MetricSummary temperature;
+    private MetricSummary humidity;
+    private MetricSummary pressure;
+    private MetricSummary windSpeed;
+    private boolean truncated;
+}
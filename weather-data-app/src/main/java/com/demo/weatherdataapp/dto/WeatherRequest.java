@@ -1,6 +1,8 @@
 package com.demo.weatherdataapp.dto;
 
 import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -21,9 +23,18 @@ public class WeatherRequest {
     @Size(min = 2, max = 2, message = "Country code must be exactly 2 characters")
     private String country;
 
-    @AssertTrue(message = "Either city or zipCode must be provided")
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    @AssertTrue(message = "Either city, zipCode or latitude and longitude must be provided")
     public boolean isValid() {
         return (city != null && !city.trim().isEmpty()) ||
-                (zipCode != null && !zipCode.trim().isEmpty());
+                (zipCode != null && !zipCode.trim().isEmpty()) ||
+                (latitude != null && longitude != null);
     }
 }
@@ -9,6 +9,8 @@ public class WeatherResponse {
     private String city;
     private String country;
     private String zipCode;
+    private Double latitude;
+    private Double longitude;
     private Double temperature;
     private Double feelsLike;
     private Integer humidity;
@@ -18,4 +20,6 @@ public class WeatherResponse {
     private Double windSpeed;
     private Integer windDirection;
     private String lastUpdated;
+    private boolean stale;
+    private boolean degraded;
 }
@@ -0,0 +1,21 @@
+package com.demo.weatherdataapp.dto;
+
+import com.demo.weatherdataapp.entity.RollupGranularity;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class WeatherRollupResponse {
+    private String locationKey;
+    private String city;
+    private String country;
+    private String zipCode;
+    private RollupGranularity granularity;
+    private String bucketStart;
+    private int samples;
+    private MetricSummary temperature;
+    private MetricSummary humidity;
+    private MetricSummary pressure;
+    private MetricSummary windSpeed;
+}
@@ -0,0 +1,26 @@
+package com.demo.weatherdataapp.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "weather_rollup_gap")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupGap {
+    @Id
+    private Long historyId;
+
+    @Column(nullable = false)
+    private LocalDateTime detectedAt;
+}
@@ -0,0 +1,19 @@
+package com.demo.weatherdataapp.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    HOURLY(ChronoUnit.HOURS),
+    DAILY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public LocalDateTime bucketStart(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(unit);
+    }
+}
@@ -0,0 +1,29 @@
+package com.demo.weatherdataapp.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "weather_rollup_watermark")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupWatermark {
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Long lastHistoryId;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
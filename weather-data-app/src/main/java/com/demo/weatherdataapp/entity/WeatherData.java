@@ -16,7 +16,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "weather_data")
+@Table(name = "weather_current")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,6 +26,11 @@ public class WeatherData {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(nullable = false, unique = true)
+    private String locationKey;
+
+    private Long upstreamId;
+
     @Column(nullable = false)
     private String city;
 
@@ -33,6 +38,10 @@ public class WeatherData {
 
     private String zipCode;
 
+    private Double latitude;
+
+    private Double longitude;
+
     @Column(nullable = false)
     private Double temperature;
 
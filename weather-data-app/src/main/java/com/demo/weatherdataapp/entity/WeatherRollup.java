@@ -0,0 +1,83 @@
+package com.demo.weatherdataapp.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "weather_rollup", uniqueConstraints = @UniqueConstraint(
+        name = "uk_weather_rollup_bucket", columnNames = {"location_key", "granularity", "bucket_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WeatherRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String locationKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RollupGranularity granularity;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    private String city;
+
+    private String country;
+
+    private String zipCode;
+
+    private int samples;
+
+    private Double temperatureMin;
+
+    private Double temperatureMax;
+
+    private double temperatureSum;
+
+    private int temperatureCount;
+
+    private Double humidityMin;
+
+    private Double humidityMax;
+
+    private double humiditySum;
+
+    private int humidityCount;
+
+    private Double pressureMin;
+
+    private Double pressureMax;
+
+    private double pressureSum;
+
+    private int pressureCount;
+
+    private Double windSpeedMin;
+
+    private Double windSpeedMax;
+
+    private double windSpeedSum;
+
+    private int windSpeedCount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,15 @@
+package com.demo.weatherdataapp.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class LocationNotFoundException extends WeatherApiException {
+    public LocationNotFoundException(String message) {
+        super(message);
+    }
+
+    public LocationNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.demo.weatherdataapp.exception;
+
+public class RateLimitExceededException extends RuntimeException {
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,140 @@
+package com.demo.weatherdataapp.geo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class CoordinateIndex {
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final double MIN_CELL_DEGREES = 0.01;
+
+    private final double radiusKm;
+    private final double cellDegrees;
+    private final int latCells;
+    private final int lonCells;
+    private final Map<String, GeoPoint> positions = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> buckets = new ConcurrentHashMap<>();
+
+    public CoordinateIndex(@Value("${weather.geo.radius-km:10}") double radiusKm) {
+        this.radiusKm = Math.max(0, radiusKm);
+        this.lonCells = (int) Math.ceil(360 / Math.max(MIN_CELL_DEGREES, this.radiusKm / KM_PER_DEGREE));
+        this.cellDegrees = 360.0 / lonCells;
+        this.latCells = (int) Math.ceil(180 / cellDegrees);
+    }
+
+    public void put(String locationKey, GeoPoint point) {
+        if (locationKey == null || point == null) {
+            return;
+        }
+
+        positions.compute(locationKey, (key, previous) -> {
+            if (previous != null) {
+                removeFromBucket(cellOf(previous), key);
+            }
+            buckets.compute(cellOf(point), (cell, keys) -> {
+                Set<String> bucket = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                bucket.add(key);
+
+                return bucket;
+            });
+
+            return point;
+        });
+    }
+
+    public void remove(String locationKey) {
+        positions.computeIfPresent(locationKey, (key, previous) -> {
+            removeFromBucket(cellOf(previous), key);
+
+            return null;
+        });
+    }
+
+    public List<Neighbour> within(GeoPoint center) {
+        List<Neighbour> neighbours = new ArrayList<>();
+        if (positions.isEmpty()) {
+            return neighbours;
+        }
+
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double farthestLat = Math.min(90, Math.abs(center.latitude()) + latSpan);
+        double cosFarthestLat = Math.cos(Math.toRadians(farthestLat));
+        double lonSpan = cosFarthestLat > 1e-9 ? latSpan / cosFarthestLat : 180;
+
+        int firstLatCell = latCell(center.latitude() - latSpan);
+        int lastLatCell = latCell(center.latitude() + latSpan);
+        int firstLonCell = (int) Math.floor((center.longitude() - lonSpan + 180) / cellDegrees);
+        int lastLonCell = (int) Math.floor((center.longitude() + lonSpan + 180) / cellDegrees);
+        if (lastLonCell - firstLonCell + 1 >= lonCells) {
+            firstLonCell = 0;
+            lastLonCell = lonCells - 1;
+        }
+
+        long cellsToScan = (long) (lastLatCell - firstLatCell + 1) * (lastLonCell - firstLonCell + 1);
+        if (cellsToScan >= positions.size()) {
+            positions.forEach((locationKey, point) -> collect(center, locationKey, point, neighbours));
+        } else {
+            for (int latCell = firstLatCell; latCell <= lastLatCell; latCell++) {
+                for (int lonCell = firstLonCell; lonCell <= lastLonCell; lonCell++) {
+                    Set<String> bucket = buckets.get(cellId(latCell, Math.floorMod(lonCell, lonCells)));
+                    if (bucket != null) {
+                        bucket.forEach(locationKey -> collect(center, locationKey, positions.get(locationKey), neighbours));
+                    }
+                }
+            }
+        }
+
+        neighbours.sort(Comparator.comparingDouble(Neighbour::distanceKm));
+
+        return neighbours;
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    private void collect(GeoPoint center, String locationKey, GeoPoint point, List<Neighbour> neighbours) {
+        if (point == null) {
+            return;
+        }
+
+        double distanceKm = center.distanceKm(point);
+        if (distanceKm <= radiusKm) {
+            neighbours.add(new Neighbour(locationKey, distanceKm));
+        }
+    }
+
+    private void removeFromBucket(long cell, String locationKey) {
+        buckets.computeIfPresent(cell, (id, keys) -> {
+            keys.remove(locationKey);
+
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private long cellOf(GeoPoint point) {
+        int lonCell = Math.floorMod((int) Math.floor((point.longitude() + 180) / cellDegrees), lonCells);
+
+        return cellId(latCell(point.latitude()), lonCell);
+    }
+
+    private int latCell(double latitude) {
+        double clamped = Math.max(-90, Math.min(90, latitude));
+
+        return Math.min(latCells - 1, (int) Math.floor((clamped + 90) / cellDegrees));
+    }
+
+    private long cellId(int latCell, int lonCell) {
+        return (long) latCell * lonCells + lonCell;
+    }
+
+    public record Neighbour(String locationKey, double distanceKm) {
+    }
+}
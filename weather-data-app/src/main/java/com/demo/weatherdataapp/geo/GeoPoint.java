@@ -0,0 +1,19 @@
+package com.demo.weatherdataapp.geo;
+
+public record GeoPoint(double latitude, double longitude) {
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    public static GeoPoint of(Double latitude, Double longitude) {
+        return latitude != null && longitude != null ? new GeoPoint(latitude, longitude) : null;
+    }
+
+    public double distanceKm(GeoPoint other) {
+        double deltaLat = Math.toRadians(other.latitude - latitude);
+        double deltaLon = Math.toRadians(other.longitude - longitude);
+        double a = Math.pow(Math.sin(deltaLat / 2), 2)
+                + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(other.latitude))
+                * Math.pow(Math.sin(deltaLon / 2), 2);
+
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
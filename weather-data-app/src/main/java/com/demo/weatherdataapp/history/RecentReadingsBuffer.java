@@ -0,0 +1,109 @@
+package com.demo.weatherdataapp.history;
+
+import com.demo.weatherdataapp.dto.MetricSummary;
+
+public class RecentReadingsBuffer {
+    private static final int MISSING = Integer.MIN_VALUE;
+
+    private final long[] timestamps;
+    private final double[] temperatures;
+    private final int[] humidities;
+    private final int[] pressures;
+    private final double[] windSpeeds;
+    private int head;
+    private int size;
+
+    public RecentReadingsBuffer(int capacity) {
+        this.timestamps = new long[capacity];
+        this.temperatures = new double[capacity];
+        this.humidities = new int[capacity];
+        this.pressures = new int[capacity];
+        this.windSpeeds = new double[capacity];
+    }
+
+    public synchronized void append(long epochMillis, Double temperature, Integer humidity, Integer pressure, Double windSpeed) {
+        timestamps[head] = epochMillis;
+        temperatures[head] = temperature != null ? temperature : Double.NaN;
+        humidities[head] = humidity != null ? humidity : MISSING;
+        pressures[head] = pressure != null ? pressure : MISSING;
+        windSpeeds[head] = windSpeed != null ? windSpeed : Double.NaN;
+
+        head = (head + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    public synchronized Window summarize(long fromEpochMillis) {
+        Accumulator temperature = new Accumulator();
+        Accumulator humidity = new Accumulator();
+        Accumulator pressure = new Accumulator();
+        Accumulator windSpeed = new Accumulator();
+        long oldest = 0;
+        long newest = 0;
+        int samples = 0;
+        boolean truncated = size == timestamps.length;
+
+        for (int i = 0; i < size; i++) {
+            int index = Math.floorMod(head - 1 - i, timestamps.length);
+            if (timestamps[index] < fromEpochMillis) {
+                truncated = false;
+                break;
+            }
+
+            if (samples == 0) {
+                newest = timestamps[index];
+            }
+            oldest = timestamps[index];
+            samples++;
+
+            temperature.add(temperatures[index]);
+            windSpeed.add(windSpeeds[index]);
+            if (humidities[index] != MISSING) {
+                humidity.add(humidities[index]);
+            }
+            if (pressures[index] != MISSING) {
+                pressure.add(pressures[index]);
+            }
+        }
+
+        return new Window(samples, oldest, newest, temperature.toSummary(), humidity.toSummary(),
+                pressure.toSummary(), windSpeed.toSummary(), truncated);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    public record Window(int samples, long oldestEpochMillis, long newestEpochMillis, MetricSummary temperature,
+                         MetricSummary humidity, MetricSummary pressure, MetricSummary windSpeed, boolean truncated) {
+    }
+
+    private static final class Accumulator {
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double sum;
+        private int count;
+
+        void add(double value) {
+            if (Double.isNaN(value)) {
+                return;
+            }
+
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            count++;
+        }
+
+        MetricSummary toSummary() {
+            return count == 0
+                    ? new MetricSummary(null, null, null, 0)
+                    : new MetricSummary(min, max, sum / count, count);
+        }
+    }
+}
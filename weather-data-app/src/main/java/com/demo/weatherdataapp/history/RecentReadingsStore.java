@@ -0,0 +1,121 @@
+package com.demo.weatherdataapp.history;
+
+import com.demo.weatherdataapp.dto.WeatherHistorySummary;
+import com.demo.weatherdataapp.entity.WeatherData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class RecentReadingsStore {
+    private final int capacity;
+    private final int maxLocations;
+    private final Map<String, RecentReadingsBuffer> buffers;
+
+    public RecentReadingsStore(int capacity, int maxLocations) {
+        this.capacity = capacity;
+        this.maxLocations = maxLocations;
+        this.buffers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RecentReadingsBuffer> eldest) {
+                boolean evict = size() > RecentReadingsStore.this.maxLocations;
+                if (evict) {
+                    log.debug("Recent readings store is full, dropping least recently used: {}", eldest.getKey());
+                }
+
+                return evict;
+            }
+        };
+    }
+
+    @Autowired
+    public RecentReadingsStore(@Value("${weather.history.window-hours:48}") int windowHours,
+                               @Value("${weather.tracking.hot-refresh-interval-ms:600000}") long minRefreshIntervalMillis,
+                               @Value("${weather.history.max-locations:5000}") int maxLocations) {
+        this(capacityFor(windowHours, minRefreshIntervalMillis), maxLocations);
+    }
+
+    public void record(WeatherData data) {
+        if (data.getLocationKey() == null || data.getLastUpdated() == null) {
+            return;
+        }
+
+        RecentReadingsBuffer buffer;
+        synchronized (buffers) {
+            buffer = buffers.computeIfAbsent(data.getLocationKey(), key -> new RecentReadingsBuffer(capacity));
+        }
+
+        buffer.append(toEpochMillis(data.getLastUpdated()), data.getTemperature(), data.getHumidity(),
+                data.getPressure(), data.getWindSpeed());
+    }
+
+    public WeatherHistorySummary summarize(String locationKey, int hours) {
+        long fromEpochMillis = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(Math.max(1, hours));
+        RecentReadingsBuffer buffer;
+        synchronized (buffers) {
+            buffer = buffers.get(locationKey);
+        }
+        if (buffer == null) {
+            return WeatherHistorySummary.builder()
+                    .locationKey(locationKey)
+                    .hours(hours)
+                    .build();
+        }
+
+        RecentReadingsBuffer.Window window = buffer.summarize(fromEpochMillis);
+
+        return WeatherHistorySummary.builder()
+                .locationKey(locationKey)
+                .hours(hours)
+                .samples(window.samples())
+                .from(window.samples() > 0 ? format(window.oldestEpochMillis()) : null)
+                .to(window.samples() > 0 ? format(window.newestEpochMillis()) : null)
+                .temperature(window.temperature())
+                .humidity(window.humidity())
+                .pressure(window.pressure())
+                .windSpeed(window.windSpeed())
+                .truncated(window.truncated())
+                .build();
+    }
+
+    public void remove(String locationKey) {
+        synchronized (buffers) {
+            buffers.remove(locationKey);
+        }
+    }
+
+    public int trackedLocations() {
+        synchronized (buffers) {
+            return buffers.size();
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    static int capacityFor(int windowHours, long minRefreshIntervalMillis) {
+        long windowMillis = TimeUnit.HOURS.toMillis(Math.max(1, windowHours));
+
+        return (int) Math.max(1, Math.ceilDiv(windowMillis, Math.max(1, minRefreshIntervalMillis)));
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private String format(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault())
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+}
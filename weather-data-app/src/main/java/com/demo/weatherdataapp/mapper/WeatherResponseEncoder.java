@@ -0,0 +1,41 @@
+package com.demo.weatherdataapp.mapper;
+
+import com.demo.weatherdataapp.dto.EncodedWeatherResponse;
+import com.demo.weatherdataapp.dto.WeatherResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+@Component
+@RequiredArgsConstructor
+public class WeatherResponseEncoder {
+    private static final int ETAG_BYTES = 12;
+
+    private final ObjectMapper objectMapper;
+
+    public EncodedWeatherResponse encode(WeatherResponse response, LocalDateTime lastUpdated) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+
+            return new EncodedWeatherResponse(json, eTagOf(json), lastUpdated);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode weather response for: " + response.getCity(), e);
+        }
+    }
+
+    private String eTagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+
+            return "\"" + HexFormat.of().formatHex(digest, 0, ETAG_BYTES) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
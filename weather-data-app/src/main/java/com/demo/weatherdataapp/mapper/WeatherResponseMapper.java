@@ -0,0 +1,53 @@
+package com.demo.weatherdataapp.mapper;
+
+import com.demo.weatherdataapp.dto.OpenWeatherResponse;
+import com.demo.weatherdataapp.dto.WeatherResponse;
+import com.demo.weatherdataapp.entity.WeatherData;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+public final class WeatherResponseMapper {
+    private WeatherResponseMapper() {
+    }
+
+    public static WeatherResponse toResponse(WeatherData data) {
+        return WeatherResponse.builder()
+                .city(data.getCity())
+                .country(data.getCountry())
+                .zipCode(data.getZipCode())
+                .latitude(data.getLatitude())
+                .longitude(data.getLongitude())
+                .temperature(data.getTemperature())
+                .feelsLike(data.getFeelsLike())
+                .humidity(data.getHumidity())
+                .pressure(data.getPressure())
+                .description(data.getDescription())
+                .mainWeather(data.getMainWeather())
+                .windSpeed(data.getWindSpeed())
+                .windDirection(data.getWindDirection())
+                .lastUpdated(data.getLastUpdated().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .build();
+    }
+
+    public static WeatherData fromApiResponse(OpenWeatherResponse response, String originalZipCode) {
+        return WeatherData.builder()
+                .upstreamId(response.getId() != null && response.getId() > 0 ? response.getId() : null)
+                .city(response.getName())
+                .country(response.getSys().getCountry())
+                .zipCode(originalZipCode)
+                .latitude(response.getCoord() != null ? response.getCoord().getLat() : null)
+                .longitude(response.getCoord() != null ? response.getCoord().getLon() : null)
+                .temperature(response.getMain().getTemp())
+                .feelsLike(response.getMain().getFeelsLike())
+                .humidity(response.getMain().getHumidity())
+                .pressure(response.getMain().getPressure())
+                .description(!response.getWeather().isEmpty() ? response.getWeather().getFirst().getDescription() : null)
+                .mainWeather(!response.getWeather().isEmpty() ? response.getWeather().getFirst().getMain() : null)
+                .windSpeed(response.getWind() != null ? response.getWind().getSpeed() : null)
+                .windDirection(response.getWind() != null ? response.getWind().getDeg() : null)
+                .timestamp(LocalDateTime.now())
+                .lastUpdated(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.demo.weatherdataapp.metrics;
+
+import com.demo.weatherdataapp.scheduler.RefreshRunStats;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class WeatherMetrics {
+    public static final String CACHE_REQUESTS = "weather.cache.requests";
+    public static final String CACHE_LOOKUPS = "weather.cache.lookups";
+    public static final String UPSTREAM_REQUESTS = "weather.upstream.requests";
+    public static final String UPSTREAM_ERRORS = "weather.upstream.errors";
+    public static final String SCHEDULER_RUNS = "weather.scheduler.runs";
+    public static final String REFRESH_LOCATIONS = "weather.refresh.locations";
+    public static final String DEGRADED_RESPONSES = "weather.degraded.responses";
+
+    private final MeterRegistry registry;
+
+    public WeatherMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordCacheRequest(CacheResult result) {
+        Counter.builder(CACHE_REQUESTS)
+                .description("Weather lookups by cache outcome")
+                .tag("result", result.tagValue())
+                .register(registry)
+                .increment();
+    }
+
+    public void recordCacheLookups(CacheSource source, int count) {
+        if (count <= 0) {
+            return;
+        }
+
+        Counter.builder(CACHE_LOOKUPS)
+                .description("Current-reading lookups by the layer that answered them")
+                .tag("source", source.tagValue())
+                .register(registry)
+                .increment(count);
+    }
+
+    public void recordDegradedResponse() {
+        Counter.builder(DEGRADED_RESPONSES)
+                .description("Lookups answered from the last stored reading because OpenWeather was unavailable")
+                .register(registry)
+                .increment();
+    }
+
+    public <T> T timeUpstreamCall(String operation, Supplier<T> call) {
+        long startNanos = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            Counter.builder(UPSTREAM_ERRORS)
+                    .description("Failed OpenWeather calls")
+                    .tag("operation", operation)
+                    .tag("status", statusOf(e))
+                    .register(registry)
+                    .increment();
+            throw e;
+        } finally {
+            Timer.builder(UPSTREAM_REQUESTS)
+                    .description("OpenWeather call latency")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordSchedulerRun(String job, long startNanos, boolean succeeded) {
+        Timer.builder(SCHEDULER_RUNS)
+                .description("Scheduled job duration")
+                .tag("job", job)
+                .tag("outcome", succeeded ? "success" : "error")
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRefreshRun(RefreshRunStats stats) {
+        refreshLocations(stats.runName(), "success").increment(stats.successes());
+        refreshLocations(stats.runName(), "failure").increment(stats.failures());
+    }
+
+    private Counter refreshLocations(String runName, String outcome) {
+        return Counter.builder(REFRESH_LOCATIONS)
+                .description("Locations refreshed by scheduled runs")
+                .tag("run", runName)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private String statusOf(RuntimeException e) {
+        Throwable cause = e;
+        while (cause != null) {
+            if (cause instanceof FeignException feignException) {
+                return feignException.status() > 0 ? String.valueOf(feignException.status()) : "io";
+            }
+            cause = cause.getCause();
+        }
+
+        return "unknown";
+    }
+
+    public enum CacheResult {
+        HIT, STALE, MISS;
+
+        String tagValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    public enum CacheSource {
+        L1, DATABASE, NONE;
+
+        String tagValue() {
+            return name().toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.demo.weatherdataapp.push;
+
+import com.demo.weatherdataapp.entity.WeatherData;
+
+import java.util.Set;
+
+public record WeatherDataSavedEvent(WeatherData data, Set<String> aliases) {
+    public WeatherDataSavedEvent(WeatherData data) {
+        this(data, Set.of());
+    }
+}
@@ -0,0 +1,227 @@
+package com.demo.weatherdataapp.push;
+
+import com.demo.weatherdataapp.dto.WeatherResponse;
+import com.demo.weatherdataapp.entity.WeatherData;
+import com.demo.weatherdataapp.mapper.WeatherResponseMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class WeatherUpdatePublisher implements DisposableBean {
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long emitterTimeoutMillis;
+
+    public WeatherUpdatePublisher(int bufferSize, int maxSubscribers) {
+        this(bufferSize, maxSubscribers, 0L);
+    }
+
+    @Autowired
+    public WeatherUpdatePublisher(@Value("${weather.push.subscriber-buffer:16}") int bufferSize,
+                                  @Value("${weather.push.max-subscribers:10000}") int maxSubscribers,
+                                  @Value("${weather.push.emitter-timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+    }
+
+    public SseEmitter subscribe(String locationKey) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        if (!register(locationKey, emitter)) {
+            return null;
+        }
+
+        try {
+            emitter.send(SseEmitter.event().comment("subscribed to " + locationKey));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return emitter;
+    }
+
+    boolean register(String locationKey, SseEmitter emitter) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            log.warn("Rejecting subscription for {}: {} subscribers already connected", locationKey, maxSubscribers);
+
+            return false;
+        }
+
+        Subscription subscription = new Subscription(locationKey, emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscriptions.compute(locationKey, (key, current) -> {
+            Set<Subscription> updated = current != null ? current : ConcurrentHashMap.newKeySet();
+            updated.add(subscription);
+
+            return updated;
+        });
+
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(() -> unregister(subscription));
+        emitter.onError(e -> unregister(subscription));
+
+        log.debug("Subscribed to weather updates for: {}", locationKey);
+
+        return true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWeatherDataSaved(WeatherDataSavedEvent event) {
+        WeatherData data = event.data();
+        if (data.getLocationKey() == null) {
+            return;
+        }
+
+        WeatherResponse response = null;
+        for (String locationKey : subscribedKeys(data.getLocationKey(), event.aliases())) {
+            if (response == null) {
+                response = WeatherResponseMapper.toResponse(data);
+            }
+            publish(locationKey, response);
+        }
+    }
+
+    public void publish(String locationKey, WeatherResponse response) {
+        Set<Subscription> subscribers = subscriptions.get(locationKey);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        for (Subscription subscription : subscribers) {
+            enqueue(subscription, SseEmitter.event()
+                    .name("weather")
+                    .data(response, MediaType.APPLICATION_JSON));
+        }
+        published.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${weather.push.heartbeat-interval-ms:30000}",
+            initialDelayString = "${weather.push.heartbeat-interval-ms:30000}")
+    public void sendHeartbeats() {
+        for (Set<Subscription> subscribers : subscriptions.values()) {
+            for (Subscription subscription : subscribers) {
+                if (subscription.queue().isEmpty()) {
+                    enqueue(subscription, SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        }
+    }
+
+    public boolean hasSubscribers(String locationKey, Set<String> aliases) {
+        return !subscribedKeys(locationKey, aliases).isEmpty();
+    }
+
+    public PushStats stats() {
+        return new PushStats(subscriberCount.get(), subscriptions.size(), published.sum(), dropped.sum());
+    }
+
+    @Override
+    public void destroy() {
+        subscriptions.values().forEach(subscribers -> subscribers.forEach(subscription -> subscription.emitter().complete()));
+        executor.shutdownNow();
+    }
+
+    private List<String> subscribedKeys(String locationKey, Set<String> aliases) {
+        List<String> keys = new ArrayList<>(1);
+        if (subscriptions.containsKey(locationKey)) {
+            keys.add(locationKey);
+        }
+        for (String alias : aliases) {
+            if (subscriptions.containsKey(alias)) {
+                keys.add(alias);
+            }
+        }
+
+        return keys;
+    }
+
+    private void enqueue(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        while (!subscription.queue().offer(event)) {
+            if (subscription.queue().poll() != null) {
+                dropped.increment();
+            }
+        }
+
+        scheduleDrain(subscription);
+    }
+
+    private void scheduleDrain(Subscription subscription) {
+        if (subscription.draining().compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscription.queue().poll()) != null) {
+                subscription.emitter().send(event);
+            }
+        } catch (Exception e) {
+            log.debug("Dropping subscriber for {}: {}", subscription.locationKey(), e.getMessage());
+            unregister(subscription);
+            subscription.emitter().completeWithError(e);
+        } finally {
+            subscription.draining().set(false);
+        }
+
+        if (!subscription.queue().isEmpty() && isRegistered(subscription)) {
+            scheduleDrain(subscription);
+        }
+    }
+
+    private boolean isRegistered(Subscription subscription) {
+        Set<Subscription> subscribers = subscriptions.get(subscription.locationKey());
+
+        return subscribers != null && subscribers.contains(subscription);
+    }
+
+    private void unregister(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.locationKey(), (key, subscribers) -> {
+            if (subscribers.remove(subscription)) {
+                subscriberCount.decrementAndGet();
+                subscription.queue().clear();
+            }
+
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    public record PushStats(int subscribers, int locations, long published, long dropped) {
+    }
+
+    private record Subscription(String locationKey, SseEmitter emitter,
+                                BlockingQueue<SseEmitter.SseEventBuilder> queue, AtomicBoolean draining) {
+        Subscription(String locationKey, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> queue) {
+            this(locationKey, emitter, queue, new AtomicBoolean());
+        }
+    }
+}
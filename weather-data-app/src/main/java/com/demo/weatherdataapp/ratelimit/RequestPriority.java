@@ -0,0 +1,10 @@
+package com.demo.weatherdataapp.ratelimit;
+
+public enum RequestPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    public String tagValue() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,182 @@
+package com.demo.weatherdataapp.ratelimit;
+
+import com.demo.weatherdataapp.exception.RateLimitExceededException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+@Component
+public class UpstreamRateLimiter {
+    private static final long MIN_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition tokensChanged = lock.newCondition();
+    private final Map<RequestPriority, LongAdder> granted = new EnumMap<>(RequestPriority.class);
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongSupplier nanoClock;
+    private final double capacity;
+    private final double interactiveReserve;
+    private final double tokensPerNano;
+    private final long interactiveMaxWaitNanos;
+    private double tokens;
+    private long lastRefillNanos;
+    private int interactiveWaiting;
+    private int backgroundWaiting;
+
+    @Autowired
+    public UpstreamRateLimiter(@Value("${weather.rate-limit.calls-per-minute:60}") int callsPerMinute,
+                               @Value("${weather.rate-limit.burst:10}") int burst,
+                               @Value("${weather.rate-limit.interactive-reserve:2}") int interactiveReserve,
+                               @Value("${weather.rate-limit.interactive-max-wait-ms:2000}") long interactiveMaxWaitMs) {
+        this(callsPerMinute, burst, interactiveReserve, interactiveMaxWaitMs, System::nanoTime);
+    }
+
+    UpstreamRateLimiter(int callsPerMinute, int burst, int interactiveReserve, long interactiveMaxWaitMs,
+                        LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.capacity = callsPerMinute > 0 ? Math.max(1, burst) : 0;
+        this.interactiveReserve = Math.max(0, Math.min(interactiveReserve, capacity - 1));
+        this.tokensPerNano = callsPerMinute > 0 ? callsPerMinute / (double) TimeUnit.MINUTES.toNanos(1) : 0;
+        this.interactiveMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, interactiveMaxWaitMs));
+        this.tokens = capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+        for (RequestPriority priority : RequestPriority.values()) {
+            granted.put(priority, new LongAdder());
+        }
+    }
+
+    public void acquire(RequestPriority priority) {
+        if (tokensPerNano == 0) {
+            granted.get(priority).increment();
+            return;
+        }
+
+        lock.lock();
+        try {
+            enterQueue(priority);
+            try {
+                awaitToken(priority);
+            } finally {
+                leaveQueue(priority);
+                tokensChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public RateLimiterStats stats() {
+        lock.lock();
+        try {
+            refill(nanoClock.getAsLong());
+
+            return new RateLimiterStats(tokens, capacity, interactiveWaiting, backgroundWaiting,
+                    granted.get(RequestPriority.INTERACTIVE).sum(), granted.get(RequestPriority.BACKGROUND).sum(),
+                    waited.sum(), rejected.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitToken(RequestPriority priority) {
+        long deadline = nanoClock.getAsLong() + interactiveMaxWaitNanos;
+        boolean hasWaited = false;
+        try {
+            while (true) {
+                long now = nanoClock.getAsLong();
+                refill(now);
+                if (canTake(priority)) {
+                    tokens -= 1;
+                    granted.get(priority).increment();
+                    if (hasWaited) {
+                        waited.increment();
+                    }
+
+                    return;
+                }
+
+                hasWaited = true;
+                if (priority == RequestPriority.BACKGROUND && interactiveWaiting > 0) {
+                    tokensChanged.await();
+                    continue;
+                }
+
+                long waitNanos = nanosUntilAvailable(priority);
+                if (priority == RequestPriority.INTERACTIVE) {
+                    long remaining = deadline - now;
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        throw new RateLimitExceededException("OpenWeather call quota exhausted, no permit within "
+                                + TimeUnit.NANOSECONDS.toMillis(interactiveMaxWaitNanos) + " ms");
+                    }
+                    waitNanos = Math.min(waitNanos, remaining);
+                }
+
+                tokensChanged.awaitNanos(waitNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RateLimitExceededException("Interrupted while waiting for an OpenWeather call permit");
+        }
+    }
+
+    private boolean canTake(RequestPriority priority) {
+        if (priority == RequestPriority.INTERACTIVE) {
+            return tokens >= 1;
+        }
+
+        return interactiveWaiting == 0 && tokens >= 1 + interactiveReserve;
+    }
+
+    private long nanosUntilAvailable(RequestPriority priority) {
+        double required = priority == RequestPriority.INTERACTIVE ? 1 : 1 + interactiveReserve;
+        double missing = Math.max(1e-9, required - tokens);
+
+        return Math.max(MIN_WAIT_NANOS, (long) Math.ceil(missing / tokensPerNano));
+    }
+
+    private void refill(long now) {
+        if (tokensPerNano == 0) {
+            return;
+        }
+
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = now;
+        }
+    }
+
+    private void enterQueue(RequestPriority priority) {
+        if (priority == RequestPriority.INTERACTIVE) {
+            interactiveWaiting++;
+        } else {
+            backgroundWaiting++;
+        }
+    }
+
+    private void leaveQueue(RequestPriority priority) {
+        if (priority == RequestPriority.INTERACTIVE) {
+            interactiveWaiting--;
+        } else {
+            backgroundWaiting--;
+        }
+    }
+
+    public record RateLimiterStats(double availableTokens, double capacity, int interactiveWaiting,
+                                   int backgroundWaiting, long interactiveGranted, long backgroundGranted,
+                                   long waited, long rejected) {
+        public double utilization() {
+            return capacity > 0 ? 1 - availableTokens / capacity : 0;
+        }
+    }
+}
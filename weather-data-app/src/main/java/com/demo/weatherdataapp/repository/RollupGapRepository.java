@@ -0,0 +1,17 @@
+package com.demo.weatherdataapp.repository;
+
+import com.demo.weatherdataapp.entity.RollupGap;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RollupGapRepository extends JpaRepository<RollupGap, Long> {
+    @Modifying
+    @Query("DELETE FROM RollupGap g WHERE g.detectedAt < :threshold")
+    int deleteDetectedBefore(@Param("threshold") LocalDateTime threshold);
+}
@@ -0,0 +1,9 @@
+package com.demo.weatherdataapp.repository;
+
+import com.demo.weatherdataapp.entity.RollupWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RollupWatermarkRepository extends JpaRepository<RollupWatermark, String> {
+}
@@ -0,0 +1,72 @@
+package com.demo.weatherdataapp.repository;
+
+import com.demo.weatherdataapp.entity.WeatherDataHistory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface WeatherDataHistoryRepository extends JpaRepository<WeatherDataHistory, Long> {
+    List<WeatherDataHistory> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT h FROM WeatherDataHistory h " +
+            "WHERE (:city IS NULL OR LOWER(h.city) = LOWER(:city)) " +
+            "AND (:country IS NULL OR h.country = :country) " +
+            "AND (:from IS NULL OR h.recordedAt >= :from) " +
+            "AND (:to IS NULL OR h.recordedAt < :to) " +
+            "ORDER BY h.id")
+    Stream<WeatherDataHistory> streamForExport(@Param("city") String city,
+                                               @Param("country") String country,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM weather_data_history WHERE id IN " +
+            "(SELECT id FROM weather_data_history WHERE recorded_at < :threshold ORDER BY id LIMIT :limit)",
+            nativeQuery = true)
+    int deleteRecordedBefore(@Param("threshold") LocalDateTime threshold, @Param("limit") int limit);
+
+    @Query(value = "SELECT location_key AS locationKey, recorded_at AS recordedAt, id FROM " +
+            "(SELECT location_key, recorded_at, id, " +
+            "ROW_NUMBER() OVER (PARTITION BY location_key ORDER BY recorded_at DESC, id DESC) AS row_num, " +
+            "COUNT(*) OVER (PARTITION BY location_key) AS total " +
+            "FROM weather_data_history) ranked WHERE row_num = :keep AND total > :keep",
+            nativeQuery = true)
+    List<RetentionCutoff> findRetentionCutoffs(@Param("keep") int keep);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM weather_data_history WHERE id IN " +
+            "(SELECT id FROM weather_data_history WHERE location_key = :locationKey " +
+            "AND (recorded_at < :recordedAt OR (recorded_at = :recordedAt AND id < :id)) ORDER BY id LIMIT :limit)",
+            nativeQuery = true)
+    int deleteOlderThanCutoff(@Param("locationKey") String locationKey,
+                              @Param("recordedAt") LocalDateTime recordedAt,
+                              @Param("id") long id,
+                              @Param("limit") int limit);
+
+    interface RetentionCutoff {
+        String getLocationKey();
+
+        LocalDateTime getRecordedAt();
+
+        Long getId();
+    }
+}
@@ -0,0 +1,26 @@
+package com.demo.weatherdataapp.repository;
+
+import com.demo.weatherdataapp.entity.RollupGranularity;
+import com.demo.weatherdataapp.entity.WeatherRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WeatherRollupRepository extends JpaRepository<WeatherRollup, Long> {
+    List<WeatherRollup> findByGranularityAndLocationKeyInAndBucketStartIn(RollupGranularity granularity,
+                                                                          Collection<String> locationKeys,
+                                                                          Collection<LocalDateTime> bucketStarts);
+
+    @Query("SELECT r FROM WeatherRollup r WHERE r.locationKey = :locationKey AND r.granularity = :granularity " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<WeatherRollup> findRange(@Param("locationKey") String locationKey,
+                                  @Param("granularity") RollupGranularity granularity,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+}
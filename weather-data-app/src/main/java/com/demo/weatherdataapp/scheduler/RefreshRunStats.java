@@ -0,0 +1,14 @@
+package com.demo.weatherdataapp.scheduler;
+
+import java.time.Duration;
+
+public record RefreshRunStats(
+        String runName,
+        int total,
+        int successes,
+        int failures,
+        Duration duration,
+        Duration p50Latency,
+        Duration p99Latency
+) {
+}
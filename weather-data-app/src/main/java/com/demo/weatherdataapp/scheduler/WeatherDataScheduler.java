@@ -1,35 +1,141 @@
 package com.demo.weatherdataapp.scheduler;
 
+import com.demo.weatherdataapp.cache.LocationKey;
+import com.demo.weatherdataapp.dto.PurgeResult;
+import com.demo.weatherdataapp.dto.RollupResult;
+import com.demo.weatherdataapp.metrics.WeatherMetrics;
+import com.demo.weatherdataapp.service.WeatherCacheService;
+import com.demo.weatherdataapp.service.WeatherRollupService;
 import com.demo.weatherdataapp.service.WeatherService;
+import com.demo.weatherdataapp.tracking.LocationDemandTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class WeatherDataScheduler {
+    private static final int MAX_GROUP_SIZE = 20;
+
     private final WeatherService weatherService;
+    private final WeatherCacheService cacheService;
+    private final WeatherRefreshExecutor refreshExecutor;
+    private final WeatherRollupService rollupService;
+    private final LocationDemandTracker demandTracker;
+    private final WeatherMetrics metrics;
+
+    @Value("${weather.refresh.group-size:20}")
+    private int groupSize;
 
     @Scheduled(fixedRate = 1800000)
     public void refreshAllWeatherData() {
+        refreshExecutor.launch("refresh", this::runFullRefresh);
+    }
+
+    @Scheduled(fixedDelayString = "${weather.tracking.hot-refresh-interval-ms:600000}",
+            initialDelayString = "${weather.tracking.hot-refresh-interval-ms:600000}")
+    public void refreshHotLocations() {
+        refreshExecutor.launch("hot-refresh", this::runHotRefresh);
+    }
+
+    private void runFullRefresh() {
         log.info("Starting scheduled refresh of all weather data");
+        long startNanos = System.nanoTime();
 
         try {
-            List<String> cities = weatherService.getAllTrackedCities();
-            List<String> zipCodes = weatherService.getAllTrackedZipCodes();
+            int dropped = weatherService.untrackInactiveLocations();
+            if (dropped > 0) {
+                log.info("Dropped {} inactive locations before refresh", dropped);
+            }
 
-            log.info("Found {} cities and {} zip codes to refresh", cities.size(), zipCodes.size());
+            List<Long> upstreamIds = weatherService.getAllTrackedUpstreamIds();
+            List<String> cities = weatherService.getTrackedCitiesWithoutUpstreamId();
+            List<String> zipCodes = weatherService.getTrackedZipCodesWithoutUpstreamId();
 
+            log.info("Found {} upstream ids, {} cities and {} zip codes to refresh",
+                    upstreamIds.size(), cities.size(), zipCodes.size());
+
+            refreshUpstreamIds(upstreamIds);
             refreshCities(cities);
             refreshZipCodes(zipCodes);
 
             log.info("Completed scheduled refresh of weather data");
+            metrics.recordSchedulerRun("refresh", startNanos, true);
         } catch (Exception e) {
             log.error("Error during scheduled weather data refresh", e);
+            metrics.recordSchedulerRun("refresh", startNanos, false);
+        }
+    }
+
+    private void runHotRefresh() {
+        long startNanos = System.nanoTime();
+
+        try {
+            List<String> hotLocations = demandTracker.hotLocationKeys();
+            if (hotLocations.isEmpty()) {
+                return;
+            }
+
+            List<Long> hotUpstreamIds = new ArrayList<>();
+            List<String> otherHotLocations = new ArrayList<>();
+            for (String locationKey : hotLocations) {
+                Long upstreamId = LocationKey.upstreamIdOf(locationKey);
+                if (upstreamId != null) {
+                    hotUpstreamIds.add(upstreamId);
+                } else {
+                    otherHotLocations.add(locationKey);
+                }
+            }
+
+            log.info("Refreshing {} hot locations ({} by upstream id)", hotLocations.size(), hotUpstreamIds.size());
+            refreshUpstreamIds(hotUpstreamIds);
+            metrics.recordRefreshRun(refreshExecutor.refresh("hot locations", otherHotLocations,
+                    weatherService::refreshWeatherDataForLocationKey));
+            metrics.recordSchedulerRun("hot-refresh", startNanos, true);
+        } catch (Exception e) {
+            log.error("Error during scheduled refresh of hot locations", e);
+            metrics.recordSchedulerRun("hot-refresh", startNanos, false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${weather.purge.interval-ms:600000}",
+            initialDelayString = "${weather.purge.interval-ms:600000}")
+    public void purgeExpiredData() {
+        log.debug("Starting scheduled purge of weather history");
+        long startNanos = System.nanoTime();
+
+        try {
+            PurgeResult result = cacheService.cleanupExpiredCache();
+
+            log.debug("Completed scheduled purge: {} rows deleted in {} ms", result.rowsDeleted(), result.elapsedMillis());
+            metrics.recordSchedulerRun("purge", startNanos, true);
+        } catch (Exception e) {
+            log.error("Error during scheduled weather history purge", e);
+            metrics.recordSchedulerRun("purge", startNanos, false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${weather.rollup.interval-ms:60000}",
+            initialDelayString = "${weather.rollup.interval-ms:60000}")
+    public void rollupHistory() {
+        log.debug("Starting scheduled rollup of weather history");
+        long startNanos = System.nanoTime();
+
+        try {
+            RollupResult result = rollupService.rollupNewReadings();
+
+            log.debug("Completed scheduled rollup: {} readings into {} buckets, watermark at {}",
+                    result.readingsProcessed(), result.bucketsUpdated(), result.lastHistoryId());
+            metrics.recordSchedulerRun("rollup", startNanos, true);
+        } catch (Exception e) {
+            log.error("Error during scheduled weather history rollup", e);
+            metrics.recordSchedulerRun("rollup", startNanos, false);
         }
     }
 
@@ -46,23 +152,22 @@ public class WeatherDataScheduler {
         }
     }
 
+    private void refreshUpstreamIds(List<Long> upstreamIds) {
+        int chunkSize = Math.max(1, Math.min(MAX_GROUP_SIZE, groupSize));
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < upstreamIds.size(); i += chunkSize) {
+            chunks.add(upstreamIds.subList(i, Math.min(i + chunkSize, upstreamIds.size())));
+        }
+
+        metrics.recordRefreshRun(refreshExecutor.refreshGroups("upstream id groups", chunks,
+                group -> weatherService.refreshWeatherDataForUpstreamIds(group).size()));
+    }
+
     private void refreshCities(List<String> cities) {
-        cities.parallelStream().forEach(city -> {
-            try {
-                weatherService.refreshWeatherDataForCity(city);
-            } catch (Exception e) {
-                log.error("Error refreshing data for city: {}", city, e);
-            }
-        });
+        metrics.recordRefreshRun(refreshExecutor.refresh("cities", cities, weatherService::refreshWeatherDataForCity));
     }
 
     private void refreshZipCodes(List<String> zipCodes) {
-        zipCodes.parallelStream().forEach(zip -> {
-            try {
-                weatherService.refreshWeatherDataForZipCode(zip);
-            } catch (Exception e) {
-                log.error("Error refreshing data for zip code: {}", zip, e);
-            }
-        });
+        metrics.recordRefreshRun(refreshExecutor.refresh("zip codes", zipCodes, weatherService::refreshWeatherDataForZipCode));
     }
 }
@@ -0,0 +1,141 @@
+package com.demo.weatherdataapp.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+@Slf4j
+@Component
+public class WeatherRefreshExecutor {
+    private final int maxConcurrency;
+    private final Set<String> activeRuns = ConcurrentHashMap.newKeySet();
+
+    public WeatherRefreshExecutor(@Value("${weather.refresh.max-concurrency:8}") int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public boolean launch(String runName, Runnable run) {
+        if (!activeRuns.add(runName)) {
+            log.warn("Previous '{}' run is still in progress, skipping this one", runName);
+
+            return false;
+        }
+
+        Thread.ofVirtual().name("weather-" + runName).start(() -> {
+            try {
+                run.run();
+            } finally {
+                activeRuns.remove(runName);
+            }
+        });
+
+        return true;
+    }
+
+    public boolean isRunning(String runName) {
+        return activeRuns.contains(runName);
+    }
+
+    public <T> RefreshRunStats refresh(String runName, List<T> locations, Consumer<T> refreshAction) {
+        return run(runName, locations, location -> 1, location -> {
+            refreshAction.accept(location);
+
+            return 0;
+        });
+    }
+
+    public <T> RefreshRunStats refreshGroups(String runName, List<List<T>> groups, ToIntFunction<List<T>> refreshGroup) {
+        return run(runName, groups, List::size, refreshGroup);
+    }
+
+    private <E> RefreshRunStats run(String runName, List<E> entries, ToIntFunction<E> sizeOf, ToIntFunction<E> refreshEntry) {
+        long startNanos = System.nanoTime();
+        long[] latencies = new long[entries.size()];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        Semaphore permits = new Semaphore(maxConcurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < entries.size(); i++) {
+                if (!acquire(permits)) {
+                    log.warn("Refresh run '{}' interrupted after submitting {} of {} entries", runName, i, entries.size());
+                    break;
+                }
+
+                int index = i;
+                E entry = entries.get(i);
+                executor.execute(() -> {
+                    long callStart = System.nanoTime();
+                    int size = sizeOf.applyAsInt(entry);
+                    try {
+                        int failed = Math.min(size, Math.max(0, refreshEntry.applyAsInt(entry)));
+                        successes.addAndGet(size - failed);
+                        failures.addAndGet(failed);
+                    } catch (Exception e) {
+                        failures.addAndGet(size);
+                        log.error("Error refreshing {} entry: {}", runName, entry, e);
+                    } finally {
+                        latencies[index] = System.nanoTime() - callStart;
+                        completed.incrementAndGet();
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        long[] recorded = Arrays.copyOf(latencies, entries.size());
+        Arrays.sort(recorded);
+        long[] completedLatencies = Arrays.copyOfRange(recorded, recorded.length - completed.get(), recorded.length);
+
+        RefreshRunStats stats = new RefreshRunStats(
+                runName,
+                entries.stream().mapToInt(sizeOf).sum(),
+                successes.get(),
+                failures.get(),
+                Duration.ofNanos(System.nanoTime() - startNanos),
+                Duration.ofNanos(percentile(completedLatencies, 50)),
+                Duration.ofNanos(percentile(completedLatencies, 99))
+        );
+
+        log.info("Refresh run '{}' finished: {}/{} succeeded, {} failed in {} ms (p50 {} ms, p99 {} ms)",
+                runName, stats.successes(), stats.total(), stats.failures(), stats.duration().toMillis(),
+                stats.p50Latency().toMillis(), stats.p99Latency().toMillis());
+
+        return stats;
+    }
+
+    private boolean acquire(Semaphore permits) {
+        try {
+            permits.acquire();
+
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            return false;
+        }
+    }
+
+    static long percentile(long[] sortedValues, int percentile) {
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.length);
+
+        return sortedValues[Math.max(0, rank - 1)];
+    }
+}
@@ -1,16 +1,36 @@
 package com.demo.weatherdataapp.service;
 
+import com.demo.weatherdataapp.dto.EncodedWeatherResponse;
+import com.demo.weatherdataapp.dto.PurgeResult;
 import com.demo.weatherdataapp.dto.WeatherRequest;
 import com.demo.weatherdataapp.entity.WeatherData;
+import com.demo.weatherdataapp.geo.GeoPoint;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface WeatherCacheService {
     Optional<WeatherData> getCachedWeatherData(WeatherRequest request);
 
+    Map<String, WeatherData> getCachedWeatherDataByKeys(Collection<String> locationKeys);
+
+    Optional<WeatherData> findNearestValidWeatherData(GeoPoint point);
+
+    EncodedWeatherResponse getEncodedResponse(WeatherData data);
+
+    List<WeatherData> getAllCachedWeatherData();
+
     boolean isCacheValid(WeatherData data);
 
+    boolean isServableStale(WeatherData data);
+
     WeatherData saveToCache(WeatherData weatherData);
 
-    void cleanupExpiredCache();
+    int warmUp(Collection<WeatherData> snapshot, Map<String, String> aliases);
+
+    int evict(Collection<String> locationKeys);
+
+    PurgeResult cleanupExpiredCache();
 }
@@ -0,0 +1,11 @@
+package com.demo.weatherdataapp.service;
+
+import com.demo.weatherdataapp.dto.ExportFormat;
+import com.demo.weatherdataapp.dto.HistoryExportQuery;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface WeatherExportService {
+    long exportHistory(HistoryExportQuery query, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,16 @@
+package com.demo.weatherdataapp.service;
+
+import com.demo.weatherdataapp.dto.RollupResult;
+import com.demo.weatherdataapp.dto.WeatherRequest;
+import com.demo.weatherdataapp.dto.WeatherRollupResponse;
+import com.demo.weatherdataapp.entity.RollupGranularity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WeatherRollupService {
+    RollupResult rollupNewReadings();
+
+    List<WeatherRollupResponse> getRollups(WeatherRequest request, RollupGranularity granularity,
+                                           LocalDateTime from, LocalDateTime to);
+}
@@ -1,6 +1,9 @@
 package com.demo.weatherdataapp.service;
 
+import com.demo.weatherdataapp.dto.BatchWeatherResponse;
+import com.demo.weatherdataapp.dto.EncodedWeatherResponse;
 import com.demo.weatherdataapp.dto.OpenWeatherResponse;
+import com.demo.weatherdataapp.dto.WeatherHistorySummary;
 import com.demo.weatherdataapp.dto.WeatherRequest;
 import com.demo.weatherdataapp.dto.WeatherResponse;
 import com.demo.weatherdataapp.entity.WeatherData;
@@ -10,10 +13,18 @@ import java.util.List;
 public interface WeatherService {
     WeatherResponse getWeather(WeatherRequest request);
 
+    EncodedWeatherResponse getEncodedWeather(WeatherRequest request);
+
     WeatherResponse getWeatherByCity(String cityName);
 
     WeatherResponse getWeatherByZipCode(String zipCode, String country);
 
+    WeatherResponse getWeatherByCoordinates(double latitude, double longitude);
+
+    BatchWeatherResponse getWeatherBatch(List<WeatherRequest> requests);
+
+    WeatherHistorySummary getRecentHistory(WeatherRequest request, int hours);
+
     WeatherResponse refreshWeatherByCity(String cityName);
 
     WeatherResponse refreshWeatherByZipCode(String zipCode, String country);
@@ -26,7 +37,19 @@ public interface WeatherService {
 
     List<String> getAllTrackedZipCodes();
 
+    List<Long> getAllTrackedUpstreamIds();
+
+    List<String> getTrackedCitiesWithoutUpstreamId();
+
+    List<String> getTrackedZipCodesWithoutUpstreamId();
+
     void refreshWeatherDataForCity(String city);
 
     void refreshWeatherDataForZipCode(String zipCode);
+
+    List<Long> refreshWeatherDataForUpstreamIds(List<Long> upstreamIds);
+
+    void refreshWeatherDataForLocationKey(String locationKey);
+
+    int untrackInactiveLocations();
 }
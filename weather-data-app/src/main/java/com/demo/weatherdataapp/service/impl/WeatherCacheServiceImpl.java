@@ -1,41 +1,151 @@
 package com.demo.weatherdataapp.service.impl;
 
+import com.demo.weatherdataapp.cache.LocationKey;
+import com.demo.weatherdataapp.cache.LocationResolver;
+import com.demo.weatherdataapp.cache.WeatherL1Cache;
+import com.demo.weatherdataapp.dto.EncodedWeatherResponse;
+import com.demo.weatherdataapp.dto.PurgeResult;
 import com.demo.weatherdataapp.dto.WeatherRequest;
 import com.demo.weatherdataapp.entity.WeatherData;
+import com.demo.weatherdataapp.entity.WeatherDataHistory;
+import com.demo.weatherdataapp.geo.CoordinateIndex;
+import com.demo.weatherdataapp.geo.GeoPoint;
+import com.demo.weatherdataapp.history.RecentReadingsStore;
+import com.demo.weatherdataapp.mapper.WeatherResponseEncoder;
+import com.demo.weatherdataapp.mapper.WeatherResponseMapper;
+import com.demo.weatherdataapp.metrics.WeatherMetrics;
+import com.demo.weatherdataapp.metrics.WeatherMetrics.CacheSource;
+import com.demo.weatherdataapp.push.WeatherDataSavedEvent;
+import com.demo.weatherdataapp.repository.WeatherDataHistoryRepository;
+import com.demo.weatherdataapp.repository.WeatherDataHistoryRepository.RetentionCutoff;
 import com.demo.weatherdataapp.repository.WeatherDataRepository;
 import com.demo.weatherdataapp.service.WeatherCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class WeatherCacheServiceImpl implements WeatherCacheService {
     private final WeatherDataRepository weatherDataRepository;
+    private final WeatherDataHistoryRepository weatherDataHistoryRepository;
+    private final WeatherL1Cache l1Cache;
+    private final CoordinateIndex coordinateIndex;
+    private final LocationResolver locationResolver;
+    private final WeatherResponseEncoder responseEncoder;
+    private final RecentReadingsStore recentReadingsStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final WeatherMetrics metrics;
 
     @Value("${weather.cache.validity-minutes:30}")
     private int cacheValidityMinutes;
 
+    @Value("${weather.cache.stale-while-revalidate.enabled:false}")
+    private boolean staleWhileRevalidateEnabled;
+
+    @Value("${weather.cache.stale-while-revalidate.max-stale-factor:2}")
+    private int maxStaleFactor;
+
+    @Value("${weather.purge.history-retention-hours:48}")
+    private int historyRetentionHours;
+
+    @Value("${weather.purge.keep-per-location:96}")
+    private int keepPerLocation;
+
+    @Value("${weather.purge.chunk-size:1000}")
+    private int purgeChunkSize;
+
+    @Value("${weather.purge.time-budget-ms:5000}")
+    private long purgeTimeBudgetMillis;
+
     @Override
     public Optional<WeatherData> getCachedWeatherData(WeatherRequest request) {
-        if (StringUtils.hasText(request.getCity())) {
-            return getCachedDataByCity(request.getCity());
+        String locationKey = locationResolver.resolve(request);
+        if (locationKey == null) {
+            log.warn("Weather request contains neither city nor zip code: {}", request);
+
+            return Optional.empty();
         }
 
-        if (StringUtils.hasText(request.getZipCode())) {
-            return getCachedDataByZipCode(request.getZipCode(), request.getCountry());
+        return getCachedDataByLocationKey(locationKey);
+    }
+
+    @Override
+    public Map<String, WeatherData> getCachedWeatherDataByKeys(Collection<String> locationKeys) {
+        Map<String, WeatherData> cached = new HashMap<>();
+        List<String> l1Misses = new ArrayList<>();
+        for (String locationKey : locationKeys) {
+            l1Cache.get(locationKey).ifPresentOrElse(data -> cached.put(locationKey, data), () -> l1Misses.add(locationKey));
+        }
+
+        metrics.recordCacheLookups(CacheSource.L1, cached.size());
+
+        if (l1Misses.isEmpty()) {
+            return cached;
+        }
+
+        int fromDatabase = 0;
+        try {
+            for (WeatherData data : weatherDataRepository.findByLocationKeyIn(l1Misses)) {
+                cached.put(data.getLocationKey(), data);
+                l1Cache.put(data.getLocationKey(), data);
+                fromDatabase++;
+            }
+        } catch (Exception e) {
+            log.error("Error fetching cached data for {} locations", l1Misses.size(), e);
+        }
+
+        metrics.recordCacheLookups(CacheSource.DATABASE, fromDatabase);
+        metrics.recordCacheLookups(CacheSource.NONE, l1Misses.size() - fromDatabase);
+
+        return cached;
+    }
+
+    @Override
+    public Optional<WeatherData> findNearestValidWeatherData(GeoPoint point) {
+        List<String> candidates = coordinateIndex.within(point).stream()
+                .map(CoordinateIndex.Neighbour::locationKey)
+                .toList();
+        if (candidates.isEmpty()) {
+            return Optional.empty();
         }
 
-        log.warn("Weather request contains neither city nor zip code: {}", request);
+        Map<String, WeatherData> cached = getCachedWeatherDataByKeys(candidates);
+
+        return candidates.stream()
+                .map(cached::get)
+                .filter(this::isCacheValid)
+                .findFirst();
+    }
+
+    @Override
+    public EncodedWeatherResponse getEncodedResponse(WeatherData data) {
+        return l1Cache.getEncoded(data.getLocationKey(), data,
+                cached -> responseEncoder.encode(WeatherResponseMapper.toResponse(cached), cached.getLastUpdated()));
+    }
 
-        return Optional.empty();
+    @Override
+    public List<WeatherData> getAllCachedWeatherData() {
+        return weatherDataRepository.findAll();
     }
 
     @Override
@@ -52,10 +162,31 @@ public class WeatherCacheServiceImpl implements WeatherCacheService {
         return isValid;
     }
 
+    @Override
+    public boolean isServableStale(WeatherData data) {
+        if (!staleWhileRevalidateEnabled || data == null || data.getLastUpdated() == null) {
+            return false;
+        }
+
+        LocalDateTime staleThreshold = LocalDateTime.now().minusMinutes((long) cacheValidityMinutes * maxStaleFactor);
+
+        return data.getLastUpdated().isAfter(staleThreshold);
+    }
+
     @Override
     public WeatherData saveToCache(WeatherData weatherData) {
-        weatherData.setLastUpdated(LocalDateTime.now());
-        WeatherData saved = weatherDataRepository.save(weatherData);
+        WeatherData saved;
+        try {
+            saved = transactionTemplate.execute(status -> upsert(weatherData));
+        } catch (DataIntegrityViolationException e) {
+            log.info("Concurrent first save for {}, retrying as update", weatherData.getLocationKey());
+            weatherData.setId(null);
+            saved = transactionTemplate.execute(status -> upsert(weatherData));
+        }
+
+        cacheLocally(saved);
+        recentReadingsStore.record(saved);
+        eventPublisher.publishEvent(new WeatherDataSavedEvent(saved, locationResolver.aliasesOf(weatherData.getLocationKey())));
 
         log.info("Cached weather data for: {} (ID: {})", saved.getCity(), saved.getId());
 
@@ -63,43 +194,188 @@ public class WeatherCacheServiceImpl implements WeatherCacheService {
     }
 
     @Override
-    public void cleanupExpiredCache() {
-        LocalDateTime threshold = LocalDateTime.now().minusMinutes(cacheValidityMinutes * 2L);
+    @Transactional
+    public int warmUp(Collection<WeatherData> snapshot, Map<String, String> aliases) {
+        Map<String, WeatherData> restorable = new LinkedHashMap<>();
+        for (WeatherData data : snapshot) {
+            String locationKey = locationResolver.canonicalize(LocationKey.of(data), data);
+            if (locationKey == null || data.getLastUpdated() == null) {
+                continue;
+            }
+            data.setId(null);
+            data.setLocationKey(locationKey);
+            restorable.merge(locationKey, data, (a, b) -> b.getLastUpdated().isAfter(a.getLastUpdated()) ? b : a);
+        }
+        Set<String> warmedKeys = Set.copyOf(restorable.keySet());
 
+        for (WeatherData existing : weatherDataRepository.findByLocationKeyIn(restorable.keySet())) {
+            restorable.remove(existing.getLocationKey());
+            cacheLocally(existing);
+        }
+
+        List<WeatherData> saved = weatherDataRepository.saveAll(List.copyOf(restorable.values()));
+        saved.forEach(this::cacheLocally);
+
+        int restoredAliases = 0;
+        for (Map.Entry<String, String> alias : aliases.entrySet()) {
+            if (warmedKeys.contains(alias.getValue())) {
+                locationResolver.restore(alias.getKey(), alias.getValue());
+                restoredAliases++;
+            }
+        }
+
+        log.info("Warmed cache with {} locations and {} query aliases from snapshot", saved.size(), restoredAliases);
+
+        return saved.size();
+    }
+
+    @Override
+    @Transactional
+    public int evict(Collection<String> locationKeys) {
+        if (locationKeys.isEmpty()) {
+            return 0;
+        }
+
+        int deleted = weatherDataRepository.deleteByLocationKeyIn(locationKeys);
+        locationKeys.forEach(locationKey -> {
+            l1Cache.invalidate(locationKey);
+            coordinateIndex.remove(locationKey);
+            locationResolver.remove(locationKey);
+            recentReadingsStore.remove(locationKey);
+        });
+
+        log.info("Evicted {} locations from the tracked set", deleted);
+
+        return deleted;
+    }
+
+    @Override
+    public PurgeResult cleanupExpiredCache() {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(purgeTimeBudgetMillis);
+        LocalDateTime threshold = LocalDateTime.now().minusHours(historyRetentionHours);
+
+        ChunkedDelete expired = new ChunkedDelete(0, 0, false);
+        ChunkedDelete excess = new ChunkedDelete(0, 0, keepPerLocation <= 0);
         try {
-            List<WeatherData> expiredData = weatherDataRepository.findDataOlderThan(threshold);
-            if (!expiredData.isEmpty()) {
-                weatherDataRepository.deleteAll(expiredData);
-                log.info("Cleaned up {} expired cache entries", expiredData.size());
+            expired = deleteInChunks(() -> weatherDataHistoryRepository.deleteRecordedBefore(threshold, purgeChunkSize),
+                    deadlineNanos);
+            if (expired.drained() && keepPerLocation > 0) {
+                excess = deleteExcessPerLocation(deadlineNanos);
             }
         } catch (Exception e) {
             log.error("Error during cache cleanup", e);
         }
+
+        PurgeResult result = new PurgeResult(
+                expired.rowsDeleted(),
+                excess.rowsDeleted(),
+                expired.chunks() + excess.chunks(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                expired.drained() && excess.drained()
+        );
+
+        if (result.rowsDeleted() > 0 || !result.completed()) {
+            log.info("Purged {} expired and {} excess history rows in {} chunks ({} ms, completed: {})",
+                    result.expiredRowsDeleted(), result.excessRowsDeleted(), result.chunks(),
+                    result.elapsedMillis(), result.completed());
+        }
+
+        return result;
     }
 
-    private Optional<WeatherData> getCachedDataByCity(String city) {
+    private Optional<WeatherData> getCachedDataByLocationKey(String locationKey) {
+        Optional<WeatherData> l1Data = l1Cache.get(locationKey);
+        if (l1Data.isPresent()) {
+            metrics.recordCacheLookups(CacheSource.L1, 1);
+
+            return l1Data;
+        }
+
         try {
-            return weatherDataRepository.findLatestByCityIgnoreCase(city);
+            Optional<WeatherData> data = weatherDataRepository.findByLocationKey(locationKey);
+            data.ifPresent(weatherData -> l1Cache.put(locationKey, weatherData));
+            metrics.recordCacheLookups(data.isPresent() ? CacheSource.DATABASE : CacheSource.NONE, 1);
+
+            return data;
         } catch (Exception e) {
-            log.error("Error fetching cached data for city: {}", city, e);
+            log.error("Error fetching cached data for: {}", locationKey, e);
+            metrics.recordCacheLookups(CacheSource.NONE, 1);
 
             return Optional.empty();
         }
     }
 
-    private Optional<WeatherData> getCachedDataByZipCode(String zipCode, String country) {
-        try {
-            String zipQuery = formatZipCode(zipCode, country);
+    private WeatherData upsert(WeatherData weatherData) {
+        String locationKey = LocationKey.of(weatherData);
+        weatherData.setLocationKey(locationKey);
+        weatherData.setLastUpdated(LocalDateTime.now());
+        weatherDataRepository.findByLocationKey(locationKey)
+                .ifPresent(current -> weatherData.setId(current.getId()));
 
-            return weatherDataRepository.findLatestByZipCode(zipQuery);
-        } catch (Exception e) {
-            log.error("Error fetching cached data for zip: {}", zipCode, e);
+        WeatherData saved = weatherDataRepository.save(weatherData);
+        weatherDataHistoryRepository.save(toHistory(saved));
 
-            return Optional.empty();
+        return saved;
+    }
+
+    private void cacheLocally(WeatherData data) {
+        l1Cache.put(data.getLocationKey(), data);
+        coordinateIndex.put(data.getLocationKey(), GeoPoint.of(data.getLatitude(), data.getLongitude()));
+    }
+
+    private ChunkedDelete deleteExcessPerLocation(long deadlineNanos) {
+        int rowsDeleted = 0;
+        int chunks = 0;
+        for (RetentionCutoff cutoff : weatherDataHistoryRepository.findRetentionCutoffs(keepPerLocation)) {
+            if (System.nanoTime() >= deadlineNanos) {
+                return new ChunkedDelete(rowsDeleted, chunks, false);
+            }
+
+            ChunkedDelete location = deleteInChunks(() -> weatherDataHistoryRepository.deleteOlderThanCutoff(
+                    cutoff.getLocationKey(), cutoff.getRecordedAt(), cutoff.getId(), purgeChunkSize), deadlineNanos);
+            rowsDeleted += location.rowsDeleted();
+            chunks += location.chunks();
+            if (!location.drained()) {
+                return new ChunkedDelete(rowsDeleted, chunks, false);
+            }
         }
+
+        return new ChunkedDelete(rowsDeleted, chunks, true);
+    }
+
+    private ChunkedDelete deleteInChunks(IntSupplier deleteChunk, long deadlineNanos) {
+        int rowsDeleted = 0;
+        int chunks = 0;
+        int deleted;
+        do {
+            deleted = deleteChunk.getAsInt();
+            rowsDeleted += deleted;
+            chunks++;
+        } while (deleted >= purgeChunkSize && System.nanoTime() < deadlineNanos);
+
+        return new ChunkedDelete(rowsDeleted, chunks, deleted < purgeChunkSize);
+    }
+
+    private WeatherDataHistory toHistory(WeatherData data) {
+        return WeatherDataHistory.builder()
+                .locationKey(data.getLocationKey())
+                .city(data.getCity())
+                .country(data.getCountry())
+                .zipCode(data.getZipCode())
+                .temperature(data.getTemperature())
+                .feelsLike(data.getFeelsLike())
+                .humidity(data.getHumidity())
+                .pressure(data.getPressure())
+                .description(data.getDescription())
+                .mainWeather(data.getMainWeather())
+                .windSpeed(data.getWindSpeed())
+                .windDirection(data.getWindDirection())
+                .timestamp(data.getTimestamp() != null ? data.getTimestamp() : data.getLastUpdated())
+                .recordedAt(data.getLastUpdated())
+                .build();
     }
 
-    private String formatZipCode(String zipCode, String country) {
-        return StringUtils.hasText(country) ? zipCode + "," + country : zipCode + ",US";
+    private record ChunkedDelete(int rowsDeleted, int chunks, boolean drained) {
     }
 }
@@ -0,0 +1,147 @@
+package com.demo.weatherdataapp.service.impl;
+
+import com.demo.weatherdataapp.dto.ExportFormat;
+import com.demo.weatherdataapp.dto.HistoryExportQuery;
+import com.demo.weatherdataapp.entity.WeatherDataHistory;
+import com.demo.weatherdataapp.repository.WeatherDataHistoryRepository;
+import com.demo.weatherdataapp.service.WeatherExportService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WeatherExportServiceImpl implements WeatherExportService {
+    private static final String[] COLUMNS = {
+            "id", "locationKey", "city", "country", "zipCode", "temperature", "feelsLike", "humidity", "pressure",
+            "description", "mainWeather", "windSpeed", "windDirection", "timestamp", "recordedAt"
+    };
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private final WeatherDataHistoryRepository weatherDataHistoryRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportHistory(HistoryExportQuery query, ExportFormat format, OutputStream out) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        String country = query.country() != null ? query.country().trim().toUpperCase(Locale.ROOT) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        long rows;
+        try (Stream<WeatherDataHistory> stream = weatherDataHistoryRepository
+                .streamForExport(query.city(), country, query.from(), query.to())) {
+            rows = format == ExportFormat.CSV ? writeCsv(stream.iterator(), writer) : writeNdjson(stream.iterator(), writer);
+        }
+        writer.flush();
+
+        log.info("Exported {} history rows as {} in {} ms", rows, format, System.currentTimeMillis() - startedAt);
+
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<WeatherDataHistory> rows, Writer writer) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            while (rows.hasNext()) {
+                WeatherDataHistory row = rows.next();
+                Object[] values = values(row);
+
+                generator.writeStartObject();
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    writeField(generator, COLUMNS[i], values[i]);
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+
+                entityManager.detach(row);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private long writeCsv(Iterator<WeatherDataHistory> rows, Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write('\n');
+
+        long count = 0;
+        while (rows.hasNext()) {
+            WeatherDataHistory row = rows.next();
+            Object[] values = values(row);
+
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(writer, values[i]);
+            }
+            writer.write('\n');
+
+            entityManager.detach(row);
+            count++;
+        }
+
+        return count;
+    }
+
+    private Object[] values(WeatherDataHistory row) {
+        return new Object[]{
+                row.getId(), row.getLocationKey(), row.getCity(), row.getCountry(), row.getZipCode(),
+                row.getTemperature(), row.getFeelsLike(), row.getHumidity(), row.getPressure(),
+                row.getDescription(), row.getMainWeather(), row.getWindSpeed(), row.getWindDirection(),
+                row.getTimestamp(), row.getRecordedAt()
+        };
+    }
+
+    private void writeField(JsonGenerator generator, String name, Object value) throws IOException {
+        switch (value) {
+            case null -> generator.writeNullField(name);
+            case Long number -> generator.writeNumberField(name, number);
+            case Integer number -> generator.writeNumberField(name, number);
+            case Double number -> generator.writeNumberField(name, number);
+            case LocalDateTime dateTime -> generator.writeStringField(name, dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            default -> generator.writeStringField(name, value.toString());
+        }
+    }
+
+    private void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        String text = value instanceof LocalDateTime dateTime
+                ? dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+
+            return;
+        }
+
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
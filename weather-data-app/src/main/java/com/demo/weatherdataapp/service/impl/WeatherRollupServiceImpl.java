@@ -0,0 +1,255 @@
+package com.demo.weatherdataapp.service.impl;
+
+import com.demo.weatherdataapp.cache.LocationResolver;
+import com.demo.weatherdataapp.dto.MetricSummary;
+import com.demo.weatherdataapp.dto.RollupResult;
+import com.demo.weatherdataapp.dto.WeatherRequest;
+import com.demo.weatherdataapp.dto.WeatherRollupResponse;
+import com.demo.weatherdataapp.entity.RollupGap;
+import com.demo.weatherdataapp.entity.RollupGranularity;
+import com.demo.weatherdataapp.entity.RollupWatermark;
+import com.demo.weatherdataapp.entity.WeatherDataHistory;
+import com.demo.weatherdataapp.entity.WeatherRollup;
+import com.demo.weatherdataapp.exception.InvalidWeatherRequestException;
+import com.demo.weatherdataapp.repository.RollupGapRepository;
+import com.demo.weatherdataapp.repository.RollupWatermarkRepository;
+import com.demo.weatherdataapp.repository.WeatherDataHistoryRepository;
+import com.demo.weatherdataapp.repository.WeatherRollupRepository;
+import com.demo.weatherdataapp.service.WeatherRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WeatherRollupServiceImpl implements WeatherRollupService {
+    private static final String WATERMARK_NAME = "weather_data_history";
+
+    private final WeatherDataHistoryRepository weatherDataHistoryRepository;
+    private final WeatherRollupRepository weatherRollupRepository;
+    private final RollupWatermarkRepository rollupWatermarkRepository;
+    private final RollupGapRepository rollupGapRepository;
+    private final LocationResolver locationResolver;
+
+    @Value("${weather.rollup.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${weather.rollup.late-commit-window-minutes:60}")
+    private long lateCommitWindowMinutes;
+
+    @Value("${weather.rollup.max-pending-gaps:10000}")
+    private int maxPendingGaps;
+
+    @Override
+    @Transactional
+    public RollupResult rollupNewReadings() {
+        RollupWatermark watermark = rollupWatermarkRepository.findById(WATERMARK_NAME)
+                .orElseGet(() -> RollupWatermark.builder().name(WATERMARK_NAME).lastHistoryId(0L).build());
+
+        LocalDateTime now = LocalDateTime.now();
+        int expired = rollupGapRepository.deleteDetectedBefore(now.minusMinutes(lateCommitWindowMinutes));
+        if (expired > 0) {
+            log.debug("Stopped waiting for {} history ids that never committed", expired);
+        }
+
+        List<RollupGap> pendingGaps = rollupGapRepository.findAll();
+        List<WeatherDataHistory> lateReadings = pendingGaps.isEmpty() ? List.of()
+                : weatherDataHistoryRepository.findAllById(pendingGaps.stream().map(RollupGap::getHistoryId).toList());
+        List<WeatherDataHistory> newReadings = weatherDataHistoryRepository
+                .findByIdGreaterThanOrderByIdAsc(watermark.getLastHistoryId(), Limit.of(batchSize));
+        if (lateReadings.isEmpty() && newReadings.isEmpty()) {
+            return new RollupResult(0, 0, watermark.getLastHistoryId(), true);
+        }
+
+        List<WeatherDataHistory> readings = new ArrayList<>(lateReadings.size() + newReadings.size());
+        readings.addAll(lateReadings);
+        readings.addAll(newReadings);
+
+        int bucketsUpdated = 0;
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            bucketsUpdated += fold(granularity, readings, now);
+        }
+
+        if (!lateReadings.isEmpty()) {
+            rollupGapRepository.deleteAllByIdInBatch(lateReadings.stream().map(WeatherDataHistory::getId).toList());
+            log.debug("Rolled up {} readings that committed after later history ids", lateReadings.size());
+        }
+
+        if (!newReadings.isEmpty()) {
+            int gapCapacity = maxPendingGaps - pendingGaps.size() + lateReadings.size();
+            rollupGapRepository.saveAll(gapsBefore(newReadings, watermark.getLastHistoryId(), gapCapacity, now));
+
+            watermark.setLastHistoryId(newReadings.getLast().getId());
+            watermark.setUpdatedAt(now);
+            rollupWatermarkRepository.save(watermark);
+        }
+
+        log.debug("Rolled up {} readings into {} buckets (watermark: {})", readings.size(), bucketsUpdated,
+                watermark.getLastHistoryId());
+
+        return new RollupResult(readings.size(), bucketsUpdated, watermark.getLastHistoryId(),
+                newReadings.size() < batchSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WeatherRollupResponse> getRollups(WeatherRequest request, RollupGranularity granularity,
+                                                  LocalDateTime from, LocalDateTime to) {
+        String locationKey = locationResolver.resolve(request);
+        if (locationKey == null) {
+            throw new InvalidWeatherRequestException("Either city or zipCode must be provided");
+        }
+
+        LocalDateTime rangeEnd = to != null ? to : LocalDateTime.now();
+        LocalDateTime rangeStart = from != null ? from : defaultRangeStart(granularity, rangeEnd);
+        if (!rangeStart.isBefore(rangeEnd)) {
+            throw new InvalidWeatherRequestException("Range start must be before range end");
+        }
+
+        return weatherRollupRepository.findRange(locationKey, granularity, granularity.bucketStart(rangeStart), rangeEnd)
+                .stream()
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    private List<RollupGap> gapsBefore(List<WeatherDataHistory> readings, long lastHistoryId, int capacity,
+                                       LocalDateTime now) {
+        List<RollupGap> gaps = new ArrayList<>();
+        long previousId = lastHistoryId;
+        for (WeatherDataHistory reading : readings) {
+            for (long id = previousId + 1; id < reading.getId(); id++) {
+                if (gaps.size() >= capacity) {
+                    log.warn("Pending rollup gaps reached {}, not waiting for history ids from {} up to {}",
+                            maxPendingGaps, id, readings.getLast().getId());
+
+                    return gaps;
+                }
+                gaps.add(RollupGap.builder().historyId(id).detectedAt(now).build());
+            }
+            previousId = reading.getId();
+        }
+
+        return gaps;
+    }
+
+    private int fold(RollupGranularity granularity, List<WeatherDataHistory> readings, LocalDateTime now) {
+        Set<String> locationKeys = new HashSet<>();
+        Set<LocalDateTime> bucketStarts = new HashSet<>();
+        for (WeatherDataHistory reading : readings) {
+            locationKeys.add(reading.getLocationKey());
+            bucketStarts.add(granularity.bucketStart(reading.getRecordedAt()));
+        }
+
+        Map<BucketKey, WeatherRollup> existing = new HashMap<>();
+        for (WeatherRollup rollup : weatherRollupRepository
+                .findByGranularityAndLocationKeyInAndBucketStartIn(granularity, locationKeys, bucketStarts)) {
+            existing.put(new BucketKey(rollup.getLocationKey(), rollup.getBucketStart()), rollup);
+        }
+
+        Map<BucketKey, WeatherRollup> touched = new LinkedHashMap<>();
+        for (WeatherDataHistory reading : readings) {
+            BucketKey key = new BucketKey(reading.getLocationKey(), granularity.bucketStart(reading.getRecordedAt()));
+            WeatherRollup rollup = touched.computeIfAbsent(key, k -> existing.getOrDefault(k, WeatherRollup.builder()
+                    .locationKey(k.locationKey())
+                    .granularity(granularity)
+                    .bucketStart(k.bucketStart())
+                    .build()));
+
+            accumulate(rollup, reading);
+            rollup.setUpdatedAt(now);
+        }
+
+        weatherRollupRepository.saveAll(touched.values());
+
+        return touched.size();
+    }
+
+    private void accumulate(WeatherRollup rollup, WeatherDataHistory reading) {
+        rollup.setCity(reading.getCity());
+        rollup.setCountry(reading.getCountry());
+        rollup.setZipCode(reading.getZipCode());
+        rollup.setSamples(rollup.getSamples() + 1);
+
+        if (reading.getTemperature() != null) {
+            double value = reading.getTemperature();
+            rollup.setTemperatureMin(min(rollup.getTemperatureMin(), value));
+            rollup.setTemperatureMax(max(rollup.getTemperatureMax(), value));
+            rollup.setTemperatureSum(rollup.getTemperatureSum() + value);
+            rollup.setTemperatureCount(rollup.getTemperatureCount() + 1);
+        }
+        if (reading.getHumidity() != null) {
+            double value = reading.getHumidity();
+            rollup.setHumidityMin(min(rollup.getHumidityMin(), value));
+            rollup.setHumidityMax(max(rollup.getHumidityMax(), value));
+            rollup.setHumiditySum(rollup.getHumiditySum() + value);
+            rollup.setHumidityCount(rollup.getHumidityCount() + 1);
+        }
+        if (reading.getPressure() != null) {
+            double value = reading.getPressure();
+            rollup.setPressureMin(min(rollup.getPressureMin(), value));
+            rollup.setPressureMax(max(rollup.getPressureMax(), value));
+            rollup.setPressureSum(rollup.getPressureSum() + value);
+            rollup.setPressureCount(rollup.getPressureCount() + 1);
+        }
+        if (reading.getWindSpeed() != null) {
+            double value = reading.getWindSpeed();
+            rollup.setWindSpeedMin(min(rollup.getWindSpeedMin(), value));
+            rollup.setWindSpeedMax(max(rollup.getWindSpeedMax(), value));
+            rollup.setWindSpeedSum(rollup.getWindSpeedSum() + value);
+            rollup.setWindSpeedCount(rollup.getWindSpeedCount() + 1);
+        }
+    }
+
+    private WeatherRollupResponse mapToResponse(WeatherRollup rollup) {
+        return WeatherRollupResponse.builder()
+                .locationKey(rollup.getLocationKey())
+                .city(rollup.getCity())
+                .country(rollup.getCountry())
+                .zipCode(rollup.getZipCode())
+                .granularity(rollup.getGranularity())
+                .bucketStart(rollup.getBucketStart().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .samples(rollup.getSamples())
+                .temperature(summary(rollup.getTemperatureMin(), rollup.getTemperatureMax(),
+                        rollup.getTemperatureSum(), rollup.getTemperatureCount()))
+                .humidity(summary(rollup.getHumidityMin(), rollup.getHumidityMax(),
+                        rollup.getHumiditySum(), rollup.getHumidityCount()))
+                .pressure(summary(rollup.getPressureMin(), rollup.getPressureMax(),
+                        rollup.getPressureSum(), rollup.getPressureCount()))
+                .windSpeed(summary(rollup.getWindSpeedMin(), rollup.getWindSpeedMax(),
+                        rollup.getWindSpeedSum(), rollup.getWindSpeedCount()))
+                .build();
+    }
+
+    private MetricSummary summary(Double min, Double max, double sum, int count) {
+        return new MetricSummary(min, max, count > 0 ? sum / count : null, count);
+    }
+
+    private LocalDateTime defaultRangeStart(RollupGranularity granularity, LocalDateTime rangeEnd) {
+        return granularity == RollupGranularity.HOURLY ? rangeEnd.minusHours(24) : rangeEnd.minusDays(30);
+    }
+
+    private static Double min(Double current, double value) {
+        return current == null ? value : Math.min(current, value);
+    }
+
+    private static Double max(Double current, double value) {
+        return current == null ? value : Math.max(current, value);
+    }
+
+    private record BucketKey(String locationKey, LocalDateTime bucketStart) {
+    }
+}
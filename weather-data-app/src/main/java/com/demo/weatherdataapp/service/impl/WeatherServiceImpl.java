@@ -1,26 +1,62 @@
 package com.demo.weatherdataapp.service.impl;
 
+import com.demo.weatherdataapp.cache.BackgroundRefreshExecutor;
+import com.demo.weatherdataapp.cache.LocationKey;
+import com.demo.weatherdataapp.cache.LocationResolver;
+import com.demo.weatherdataapp.cache.NegativeLookupCache;
+import com.demo.weatherdataapp.cache.RequestCoalescer;
 import com.demo.weatherdataapp.client.WeatherApiClient;
 import com.demo.weatherdataapp.config.WeatherApiConfig;
+import com.demo.weatherdataapp.dto.BatchItemStatus;
+import com.demo.weatherdataapp.dto.BatchWeatherItem;
+import com.demo.weatherdataapp.dto.BatchWeatherResponse;
+import com.demo.weatherdataapp.dto.EncodedWeatherResponse;
+import com.demo.weatherdataapp.dto.OpenWeatherGroupResponse;
 import com.demo.weatherdataapp.dto.OpenWeatherResponse;
+import com.demo.weatherdataapp.dto.WeatherHistorySummary;
 import com.demo.weatherdataapp.dto.WeatherRequest;
 import com.demo.weatherdataapp.dto.WeatherResponse;
 import com.demo.weatherdataapp.entity.WeatherData;
 import com.demo.weatherdataapp.exception.InvalidWeatherRequestException;
+import com.demo.weatherdataapp.exception.LocationNotFoundException;
 import com.demo.weatherdataapp.exception.WeatherApiException;
+import com.demo.weatherdataapp.geo.GeoPoint;
+import com.demo.weatherdataapp.history.RecentReadingsStore;
+import com.demo.weatherdataapp.mapper.WeatherResponseEncoder;
+import com.demo.weatherdataapp.mapper.WeatherResponseMapper;
+import com.demo.weatherdataapp.metrics.WeatherMetrics;
+import com.demo.weatherdataapp.metrics.WeatherMetrics.CacheResult;
+import com.demo.weatherdataapp.push.WeatherUpdatePublisher;
+import com.demo.weatherdataapp.ratelimit.RequestPriority;
+import com.demo.weatherdataapp.ratelimit.UpstreamRateLimiter;
 import com.demo.weatherdataapp.repository.WeatherDataRepository;
 import com.demo.weatherdataapp.service.WeatherCacheService;
 import com.demo.weatherdataapp.service.WeatherService;
+import com.demo.weatherdataapp.tracking.DemandTier;
+import com.demo.weatherdataapp.tracking.LocationDemandTracker;
+import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -28,55 +64,147 @@ import java.util.Optional;
 public class WeatherServiceImpl implements WeatherService {
     private static final String DEFAULT_UNITS = "metric";
     private static final String DEFAULT_COUNTRY = "US";
+    private static final String BACKGROUND_FLIGHT_SUFFIX = "#background";
 
     private final WeatherApiClient weatherApiClient;
     private final WeatherApiConfig weatherApiConfig;
     private final WeatherCacheService cacheService;
     private final WeatherDataRepository weatherDataRepository;
+    private final RequestCoalescer requestCoalescer;
+    private final LocationResolver locationResolver;
+    private final NegativeLookupCache negativeLookupCache;
+    private final BackgroundRefreshExecutor backgroundRefreshExecutor;
+    private final RecentReadingsStore recentReadingsStore;
+    private final LocationDemandTracker demandTracker;
+    private final WeatherMetrics metrics;
+    private final CircuitBreaker weatherApiCircuitBreaker;
+    private final UpstreamRateLimiter rateLimiter;
+    private final WeatherResponseEncoder responseEncoder;
+    private final WeatherUpdatePublisher updatePublisher;
+
+    @Value("${weather.batch.max-concurrency:8}")
+    private int batchMaxConcurrency;
 
     @Override
-    @Transactional
     public WeatherResponse getWeather(WeatherRequest request) {
+        return serveWeather(request).toResponse();
+    }
+
+    @Override
+    public EncodedWeatherResponse getEncodedWeather(WeatherRequest request) {
+        ServedWeather served = serveWeather(request);
+        if (served.stale()) {
+            return responseEncoder.encode(served.toResponse(), served.data().getLastUpdated());
+        }
+
+        return cacheService.getEncodedResponse(served.data());
+    }
+
+    private ServedWeather serveWeather(WeatherRequest request) {
         log.info("Getting weather data for request: {}", request);
 
         validateRequest(request);
 
+        Optional<WeatherData> nearbyData = findNearbyWeatherData(request);
+        if (nearbyData.isPresent()) {
+            log.info("Returning nearby cached weather data from {} for: {}", nearbyData.get().getLocationKey(),
+                    getRequestIdentifier(request));
+            demandTracker.recordRequest(nearbyData.get().getLocationKey());
+            metrics.recordCacheRequest(CacheResult.HIT);
+
+            return ServedWeather.fresh(nearbyData.get());
+        }
+
+        demandTracker.recordRequest(locationResolver.resolve(request));
+
         Optional<WeatherData> cachedData = cacheService.getCachedWeatherData(request);
         if (cachedData.isPresent() && cacheService.isCacheValid(cachedData.get())) {
             log.info("Returning cached weather data for: {}", getRequestIdentifier(request));
+            metrics.recordCacheRequest(CacheResult.HIT);
 
-            return mapToResponse(cachedData.get());
+            return ServedWeather.fresh(cachedData.get());
         }
 
-        WeatherData freshData = fetchAndSaveWeatherData(request);
+        if (cachedData.isPresent() && cacheService.isServableStale(cachedData.get())) {
+            log.info("Returning stale weather data for: {} while refreshing in background", getRequestIdentifier(request));
+            metrics.recordCacheRequest(CacheResult.STALE);
+            refreshInBackground(request);
+
+            return new ServedWeather(cachedData.get(), true, false);
+        }
+
+        metrics.recordCacheRequest(CacheResult.MISS);
+        try {
+            return ServedWeather.fresh(fetchAndSaveWeatherData(request));
+        } catch (WeatherApiException e) {
+            if (cachedData.isEmpty()) {
+                throw e;
+            }
+
+            log.warn("OpenWeather unavailable, returning last known weather data for: {}", getRequestIdentifier(request), e);
+            metrics.recordDegradedResponse();
 
-        return mapToResponse(freshData);
+            return new ServedWeather(cachedData.get(), true, true);
+        }
     }
 
     @Override
     public OpenWeatherResponse fetchWeatherData(WeatherRequest request) {
+        return fetchWeatherData(request, RequestPriority.INTERACTIVE);
+    }
+
+    @Override
+    public WeatherData fetchAndSaveWeatherData(WeatherRequest request) {
+        return fetchAndSaveWeatherData(request, RequestPriority.INTERACTIVE);
+    }
+
+    private OpenWeatherResponse fetchWeatherData(WeatherRequest request, RequestPriority priority) {
         validateRequest(request);
 
+        String locationKey = locationResolver.resolve(request);
+        Optional<String> notFound = negativeLookupCache.get(locationKey);
+        if (notFound.isPresent()) {
+            log.debug("Skipping OpenWeather call for recently unknown location: {}", locationKey);
+
+            throw new LocationNotFoundException(notFound.get());
+        }
+
         try {
             if (StringUtils.hasText(request.getCity())) {
-                return fetchByCityName(request.getCity());
+                return fetchByCityName(request.getCity(), priority);
             }
 
-            return fetchByZipCode(request.getZipCode(), request.getCountry());
+            if (StringUtils.hasText(request.getZipCode())) {
+                return fetchByZipCode(request.getZipCode(), request.getCountry(), priority);
+            }
+
+            return fetchByCoordinates(request.getLatitude(), request.getLongitude(), priority);
+        } catch (FeignException.NotFound e) {
+            String error = "Location not found: " + getRequestIdentifier(request);
+            negativeLookupCache.put(locationKey, error);
+
+            throw new LocationNotFoundException(error, e);
         } catch (Exception e) {
             throw new WeatherApiException("Failed to fetch weather data for: " + request, e);
         }
     }
 
-    @Override
-    @Transactional
-    public WeatherData fetchAndSaveWeatherData(WeatherRequest request) {
-        log.info("Fetching fresh weather data for: {}", getRequestIdentifier(request));
+    private WeatherData fetchAndSaveWeatherData(WeatherRequest request, RequestPriority priority) {
+        validateRequest(request);
+
+        String queryKey = LocationKey.of(request);
+
+        return requestCoalescer.execute(flightKey(locationResolver.resolve(queryKey), priority), () -> {
+            log.info("Fetching fresh weather data for: {}", getRequestIdentifier(request));
 
-        OpenWeatherResponse apiResponse = fetchWeatherData(request);
-        WeatherData weatherData = mapFromApiResponse(apiResponse, request.getZipCode());
+            OpenWeatherResponse apiResponse = fetchWeatherData(request, priority);
+            WeatherData weatherData = WeatherResponseMapper.fromApiResponse(apiResponse, request.getZipCode());
+            String locationKey = locationResolver.canonicalize(queryKey, weatherData);
+            weatherData.setLocationKey(locationKey);
+            demandTracker.merge(queryKey, locationKey);
 
-        return cacheService.saveToCache(weatherData);
+            return cacheService.saveToCache(weatherData);
+        });
     }
 
     @Override
@@ -96,13 +224,98 @@ public class WeatherServiceImpl implements WeatherService {
         return getWeather(request);
     }
 
+    @Override
+    public WeatherResponse getWeatherByCoordinates(double latitude, double longitude) {
+        WeatherRequest request = new WeatherRequest();
+        request.setLatitude(latitude);
+        request.setLongitude(longitude);
+
+        return getWeather(request);
+    }
+
+    @Override
+    public BatchWeatherResponse getWeatherBatch(List<WeatherRequest> requests) {
+        log.info("Getting weather data for batch of {} locations", requests.size());
+
+        List<String> itemKeys = new ArrayList<>(requests.size());
+        Map<Integer, BatchOutcome> invalidItems = new HashMap<>();
+        Map<String, WeatherRequest> uniqueRequests = new LinkedHashMap<>();
+        Map<String, BatchOutcome> outcomes = new HashMap<>();
+        for (WeatherRequest request : requests) {
+            try {
+                validateRequest(request);
+            } catch (InvalidWeatherRequestException e) {
+                invalidItems.put(itemKeys.size(), new BatchOutcome(BatchItemStatus.INVALID, null, e.getMessage()));
+                itemKeys.add(null);
+                continue;
+            }
+
+            String locationKey = locationResolver.resolve(request);
+            demandTracker.recordRequest(locationKey);
+            itemKeys.add(locationKey);
+            uniqueRequests.putIfAbsent(locationKey, request);
+        }
+
+        Map<String, WeatherData> cachedData = cacheService.getCachedWeatherDataByKeys(uniqueRequests.keySet());
+        List<String> misses = new ArrayList<>();
+        for (Map.Entry<String, WeatherRequest> entry : uniqueRequests.entrySet()) {
+            WeatherData data = cachedData.get(entry.getKey());
+            if (data != null && cacheService.isCacheValid(data)) {
+                metrics.recordCacheRequest(CacheResult.HIT);
+                outcomes.put(entry.getKey(), BatchOutcome.ok(WeatherResponseMapper.toResponse(data)));
+            } else if (data != null && cacheService.isServableStale(data)) {
+                metrics.recordCacheRequest(CacheResult.STALE);
+                refreshInBackground(entry.getValue());
+
+                WeatherResponse response = WeatherResponseMapper.toResponse(data);
+                response.setStale(true);
+                outcomes.put(entry.getKey(), BatchOutcome.ok(response));
+            } else {
+                Optional<WeatherData> nearbyData = findNearbyWeatherData(entry.getValue());
+                if (nearbyData.isPresent()) {
+                    metrics.recordCacheRequest(CacheResult.HIT);
+                    outcomes.put(entry.getKey(), BatchOutcome.ok(WeatherResponseMapper.toResponse(nearbyData.get())));
+                } else {
+                    metrics.recordCacheRequest(CacheResult.MISS);
+                    misses.add(entry.getKey());
+                }
+            }
+        }
+        int fromCache = outcomes.size();
+
+        outcomes.putAll(fetchConcurrently(misses, uniqueRequests, cachedData));
+
+        List<BatchWeatherItem> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String locationKey = itemKeys.get(i);
+            BatchOutcome outcome = locationKey != null ? outcomes.get(locationKey) : invalidItems.get(i);
+            results.add(outcome.toItem(requests.get(i)));
+        }
+
+        return BatchWeatherResponse.builder()
+                .requested(requests.size())
+                .unique(uniqueRequests.size())
+                .fromCache(fromCache)
+                .fetched(misses.size())
+                .failed((int) outcomes.values().stream().filter(outcome -> outcome.status() == BatchItemStatus.FAILED).count())
+                .results(results)
+                .build();
+    }
+
+    @Override
+    public WeatherHistorySummary getRecentHistory(WeatherRequest request, int hours) {
+        validateRequest(request);
+
+        return recentReadingsStore.summarize(locationResolver.resolve(request), hours);
+    }
+
     @Override
     public WeatherResponse refreshWeatherByCity(String cityName) {
         WeatherRequest request = new WeatherRequest();
         request.setCity(cityName);
         WeatherData freshData = fetchAndSaveWeatherData(request);
 
-        return mapToResponse(freshData);
+        return WeatherResponseMapper.toResponse(freshData);
     }
 
     @Override
@@ -112,7 +325,7 @@ public class WeatherServiceImpl implements WeatherService {
         request.setCountry(country);
         WeatherData freshData = fetchAndSaveWeatherData(request);
 
-        return mapToResponse(freshData);
+        return WeatherResponseMapper.toResponse(freshData);
     }
 
     @Override
@@ -128,25 +341,178 @@ public class WeatherServiceImpl implements WeatherService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public List<Long> getAllTrackedUpstreamIds() {
+        return weatherDataRepository.findDistinctUpstreamIds();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> getTrackedCitiesWithoutUpstreamId() {
+        return weatherDataRepository.findDistinctCitiesWithoutUpstreamId();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> getTrackedZipCodesWithoutUpstreamId() {
+        return weatherDataRepository.findDistinctZipCodesWithoutUpstreamId();
+    }
+
+    @Override
     public void refreshWeatherDataForCity(String city) {
         WeatherRequest request = new WeatherRequest();
         request.setCity(city);
-        fetchAndSaveWeatherData(request);
+        fetchAndSaveWeatherData(request, RequestPriority.BACKGROUND);
 
         log.info("Refreshed weather data for city: {}", city);
     }
 
     @Override
-    @Transactional
     public void refreshWeatherDataForZipCode(String zipCode) {
         WeatherRequest request = new WeatherRequest();
         request.setZipCode(zipCode);
-        fetchAndSaveWeatherData(request);
+        fetchAndSaveWeatherData(request, RequestPriority.BACKGROUND);
 
         log.info("Refreshed weather data for zip code: {}", zipCode);
     }
 
+    private Map<String, BatchOutcome> fetchConcurrently(List<String> locationKeys, Map<String, WeatherRequest> requests,
+                                                        Map<String, WeatherData> cachedData) {
+        Map<String, BatchOutcome> outcomes = new ConcurrentHashMap<>();
+        if (locationKeys.isEmpty()) {
+            return outcomes;
+        }
+
+        Semaphore permits = new Semaphore(Math.max(1, batchMaxConcurrency));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String locationKey : locationKeys) {
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        WeatherData freshData = fetchAndSaveWeatherData(requests.get(locationKey));
+                        outcomes.put(locationKey, BatchOutcome.ok(WeatherResponseMapper.toResponse(freshData)));
+                    } catch (LocationNotFoundException e) {
+                        outcomes.put(locationKey, new BatchOutcome(BatchItemStatus.NOT_FOUND, null, e.getMessage()));
+                    } catch (WeatherApiException e) {
+                        WeatherData lastKnown = cachedData.get(locationKey);
+                        if (lastKnown != null) {
+                            log.warn("OpenWeather unavailable, returning last known weather data for: {}", locationKey, e);
+                            outcomes.put(locationKey, BatchOutcome.ok(degradedResponse(lastKnown)));
+                        } else {
+                            log.warn("Batch fetch failed for: {}", locationKey, e);
+                            outcomes.put(locationKey, new BatchOutcome(BatchItemStatus.FAILED, null, e.getMessage()));
+                        }
+                    } catch (Exception e) {
+                        log.warn("Batch fetch failed for: {}", locationKey, e);
+                        outcomes.put(locationKey, new BatchOutcome(BatchItemStatus.FAILED, null, e.getMessage()));
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        return outcomes;
+    }
+
+    private Optional<WeatherData> findNearbyWeatherData(WeatherRequest request) {
+        if (!isCoordinateRequest(request)) {
+            return Optional.empty();
+        }
+
+        return cacheService.findNearestValidWeatherData(new GeoPoint(request.getLatitude(), request.getLongitude()));
+    }
+
+    private WeatherResponse degradedResponse(WeatherData lastKnown) {
+        metrics.recordDegradedResponse();
+
+        return new ServedWeather(lastKnown, true, true).toResponse();
+    }
+
+    private void refreshInBackground(WeatherRequest request) {
+        String locationKey = locationResolver.resolve(request);
+        if (requestCoalescer.isInFlight(flightKey(locationKey, RequestPriority.INTERACTIVE))
+                || requestCoalescer.isInFlight(flightKey(locationKey, RequestPriority.BACKGROUND))) {
+            return;
+        }
+
+        backgroundRefreshExecutor.execute(() -> {
+            try {
+                fetchAndSaveWeatherData(request, RequestPriority.BACKGROUND);
+            } catch (Exception e) {
+                log.warn("Background refresh failed for: {}", locationKey, e);
+            }
+        });
+    }
+
+    @Override
+    public List<Long> refreshWeatherDataForUpstreamIds(List<Long> upstreamIds) {
+        if (upstreamIds.isEmpty()) {
+            return List.of();
+        }
+
+        OpenWeatherGroupResponse groupResponse = fetchByUpstreamIds(upstreamIds);
+        Map<Long, List<WeatherData>> trackedLocations = weatherDataRepository.findByUpstreamIdIn(upstreamIds).stream()
+                .collect(Collectors.groupingBy(WeatherData::getUpstreamId));
+
+        int refreshed = 0;
+        Set<Long> returnedIds = new HashSet<>();
+        List<OpenWeatherResponse> responses = groupResponse.getList() != null ? groupResponse.getList() : List.of();
+        for (OpenWeatherResponse apiResponse : responses) {
+            returnedIds.add(apiResponse.getId());
+            for (WeatherData current : trackedLocations.getOrDefault(apiResponse.getId(), List.of())) {
+                WeatherData weatherData = WeatherResponseMapper.fromApiResponse(apiResponse, current.getZipCode());
+                weatherData.setLocationKey(current.getLocationKey());
+                cacheService.saveToCache(weatherData);
+                refreshed++;
+            }
+        }
+
+        List<Long> missingIds = upstreamIds.stream()
+                .filter(upstreamId -> !returnedIds.contains(upstreamId))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            log.warn("Group response for {} upstream ids did not include: {}", upstreamIds.size(), missingIds);
+        }
+
+        log.info("Refreshed {} locations from group request for {} upstream ids", refreshed, upstreamIds.size());
+
+        return missingIds;
+    }
+
+    @Override
+    public void refreshWeatherDataForLocationKey(String locationKey) {
+        Long upstreamId = LocationKey.upstreamIdOf(locationKey);
+        if (upstreamId != null) {
+            if (!refreshWeatherDataForUpstreamIds(List.of(upstreamId)).isEmpty()) {
+                throw new WeatherApiException("No weather data returned for: " + locationKey);
+            }
+        } else {
+            fetchAndSaveWeatherData(LocationKey.toRequest(locationKey), RequestPriority.BACKGROUND);
+        }
+
+        log.info("Refreshed weather data for location: {}", locationKey);
+    }
+
+    @Override
+    @Transactional
+    public int untrackInactiveLocations() {
+        List<String> inactive = weatherDataRepository.findAllLocationKeys().stream()
+                .filter(locationKey -> demandTracker.tierOf(locationKey) == DemandTier.COLD)
+                .filter(locationKey -> !updatePublisher.hasSubscribers(locationKey, locationResolver.aliasesOf(locationKey)))
+                .toList();
+        int pruned = demandTracker.prune();
+
+        if (inactive.isEmpty()) {
+            return 0;
+        }
+
+        log.info("Dropping {} locations without recent demand from tracking (pruned {} demand counters)",
+                inactive.size(), pruned);
+
+        return cacheService.evict(inactive);
+    }
+
     private void validateRequest(WeatherRequest request) {
         if (request == null) {
             throw new InvalidWeatherRequestException("Weather request cannot be null");
@@ -154,23 +520,66 @@ public class WeatherServiceImpl implements WeatherService {
 
         boolean hasCityName = StringUtils.hasText(request.getCity());
         boolean hasZipCode = StringUtils.hasText(request.getZipCode());
+        boolean hasCoordinates = request.getLatitude() != null && request.getLongitude() != null;
+
+        if (!hasCityName && !hasZipCode && !hasCoordinates) {
+            throw new InvalidWeatherRequestException("Either city name, zip code or coordinates must be provided");
+        }
 
-        if (!hasCityName && !hasZipCode) {
-            throw new InvalidWeatherRequestException("Either city name or zip code must be provided");
+        if (hasCoordinates && (Math.abs(request.getLatitude()) > 90 || Math.abs(request.getLongitude()) > 180)) {
+            throw new InvalidWeatherRequestException("Latitude must be between -90 and 90 and longitude between -180 and 180");
         }
     }
 
-    private OpenWeatherResponse fetchByCityName(String cityName) {
+    private boolean isCoordinateRequest(WeatherRequest request) {
+        return !StringUtils.hasText(request.getCity()) && !StringUtils.hasText(request.getZipCode())
+                && request.getLatitude() != null && request.getLongitude() != null;
+    }
+
+    private OpenWeatherResponse fetchByCityName(String cityName, RequestPriority priority) {
         log.info("Fetching weather data from API for city: {}", cityName);
 
-        return weatherApiClient.getWeatherByCity(cityName.trim(), weatherApiConfig.getApiKey(), DEFAULT_UNITS);
+        return callUpstream("city", priority,
+                () -> weatherApiClient.getWeatherByCity(cityName.trim(), weatherApiConfig.getApiKey(), DEFAULT_UNITS));
     }
 
-    private OpenWeatherResponse fetchByZipCode(String zipCode, String country) {
+    private OpenWeatherResponse fetchByZipCode(String zipCode, String country, RequestPriority priority) {
         String zipQuery = formatZipCode(zipCode, country);
         log.info("Fetching weather data from API for zip code: {}", zipQuery);
 
-        return weatherApiClient.getWeatherByZipCode(zipQuery, weatherApiConfig.getApiKey(), DEFAULT_UNITS);
+        return callUpstream("zip", priority,
+                () -> weatherApiClient.getWeatherByZipCode(zipQuery, weatherApiConfig.getApiKey(), DEFAULT_UNITS));
+    }
+
+    private OpenWeatherResponse fetchByCoordinates(double latitude, double longitude, RequestPriority priority) {
+        log.info("Fetching weather data from API for coordinates: {}, {}", latitude, longitude);
+
+        return callUpstream("coordinates", priority,
+                () -> weatherApiClient.getWeatherByCoordinates(latitude, longitude, weatherApiConfig.getApiKey(), DEFAULT_UNITS));
+    }
+
+    private OpenWeatherGroupResponse fetchByUpstreamIds(List<Long> upstreamIds) {
+        String cityIds = upstreamIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        log.info("Fetching weather data from API for {} city ids", upstreamIds.size());
+
+        try {
+            return callUpstream("group", RequestPriority.BACKGROUND,
+                    () -> weatherApiClient.getWeatherByCityIds(cityIds, weatherApiConfig.getApiKey(), DEFAULT_UNITS));
+        } catch (Exception e) {
+            throw new WeatherApiException("Failed to fetch weather data for city ids: " + cityIds, e);
+        }
+    }
+
+    private static String flightKey(String locationKey, RequestPriority priority) {
+        return priority == RequestPriority.BACKGROUND ? locationKey + BACKGROUND_FLIGHT_SUFFIX : locationKey;
+    }
+
+    private <T> T callUpstream(String operation, RequestPriority priority, Supplier<T> call) {
+        rateLimiter.acquire(priority);
+
+        return weatherApiCircuitBreaker.executeSupplier(() -> metrics.timeUpstreamCall(operation, call));
     }
 
     private String formatZipCode(String zipCode, String country) {
@@ -184,42 +593,44 @@ public class WeatherServiceImpl implements WeatherService {
         return String.format(cleanZipCode, targetCountry);
     }
 
-    private WeatherData mapFromApiResponse(OpenWeatherResponse response, String originalZipCode) {
-        return WeatherData.builder()
-                .city(response.getName())
-                .country(response.getSys().getCountry())
-                .zipCode(originalZipCode)
-                .temperature(response.getMain().getTemp())
-                .feelsLike(response.getMain().getFeelsLike())
-                .humidity(response.getMain().getHumidity())
-                .pressure(response.getMain().getPressure())
-                .description(!response.getWeather().isEmpty() ? response.getWeather().getFirst().getDescription() : null)
-                .mainWeather(!response.getWeather().isEmpty() ? response.getWeather().getFirst().getMain() : null)
-                .windSpeed(response.getWind() != null ? response.getWind().getSpeed() : null)
-                .windDirection(response.getWind() != null ? response.getWind().getDeg() : null)
-                .timestamp(LocalDateTime.now())
-                .lastUpdated(LocalDateTime.now())
-                .build();
+    private String getRequestIdentifier(WeatherRequest request) {
+        if (StringUtils.hasText(request.getCity())) {
+            return request.getCity();
+        }
+
+        return StringUtils.hasText(request.getZipCode()) ? request.getZipCode() : LocationKey.of(request);
     }
 
-    private WeatherResponse mapToResponse(WeatherData data) {
-        return WeatherResponse.builder()
-                .city(data.getCity())
-                .country(data.getCountry())
-                .zipCode(data.getZipCode())
-                .temperature(data.getTemperature())
-                .feelsLike(data.getFeelsLike())
-                .humidity(data.getHumidity())
-                .pressure(data.getPressure())
-                .description(data.getDescription())
-                .mainWeather(data.getMainWeather())
-                .windSpeed(data.getWindSpeed())
-                .windDirection(data.getWindDirection())
-                .lastUpdated(data.getLastUpdated().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
-                .build();
+    private record ServedWeather(WeatherData data, boolean stale, boolean degraded) {
+        static ServedWeather fresh(WeatherData data) {
+            return new ServedWeather(data, false, false);
+        }
+
+        WeatherResponse toResponse() {
+            WeatherResponse response = WeatherResponseMapper.toResponse(data);
+            response.setStale(stale);
+            response.setDegraded(degraded);
+
+            return response;
+        }
     }
 
-    private String getRequestIdentifier(WeatherRequest request) {
-        return StringUtils.hasText(request.getCity()) ? request.getCity() : request.getZipCode();
+    private record BatchOutcome(BatchItemStatus status, WeatherResponse weather, String error) {
+        static BatchOutcome ok(WeatherResponse weather) {
+            return new BatchOutcome(BatchItemStatus.OK, weather, null);
+        }
+
+        BatchWeatherItem toItem(WeatherRequest request) {
+            return BatchWeatherItem.builder()
+                    .city(request != null ? request.getCity() : null)
+                    .zipCode(request != null ? request.getZipCode() : null)
+                    .country(request != null ? request.getCountry() : null)
+                    .latitude(request != null ? request.getLatitude() : null)
+                    .longitude(request != null ? request.getLongitude() : null)
+                    .status(status)
+                    .weather(weather)
+                    .error(error)
+                    .build();
+        }
     }
 }
@@ -0,0 +1,4 @@
+package com.demo.weatherdataapp.tracking;
+
+public record DemandSnapshot(String locationKey, double score, long updatedAtMillis, long lastRequestedAtMillis) {
+}
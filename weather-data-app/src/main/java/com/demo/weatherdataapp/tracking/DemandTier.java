@@ -0,0 +1,7 @@
+package com.demo.weatherdataapp.tracking;
+
+public enum DemandTier {
+    HOT,
+    WARM,
+    COLD
+}
@@ -0,0 +1,161 @@
+package com.demo.weatherdataapp.tracking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+@Component
+public class LocationDemandTracker {
+    private final Map<String, DemandCounter> counters = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final long startedAtMillis;
+    private final double halfLifeMillis;
+    private final double hotThreshold;
+    private final long inactiveAfterMillis;
+
+    @Autowired
+    public LocationDemandTracker(@Value("${weather.tracking.half-life-minutes:60}") int halfLifeMinutes,
+                                 @Value("${weather.tracking.hot-threshold:10}") double hotThreshold,
+                                 @Value("${weather.tracking.inactive-after-hours:72}") int inactiveAfterHours) {
+        this(halfLifeMinutes, hotThreshold, inactiveAfterHours, System::currentTimeMillis);
+    }
+
+    LocationDemandTracker(int halfLifeMinutes, double hotThreshold, int inactiveAfterHours, LongSupplier clock) {
+        this.clock = clock;
+        this.startedAtMillis = clock.getAsLong();
+        this.halfLifeMillis = TimeUnit.MINUTES.toMillis(Math.max(1, halfLifeMinutes));
+        this.hotThreshold = hotThreshold;
+        this.inactiveAfterMillis = TimeUnit.HOURS.toMillis(inactiveAfterHours);
+    }
+
+    public void recordRequest(String locationKey) {
+        if (locationKey == null) {
+            return;
+        }
+
+        long now = clock.getAsLong();
+        counters.computeIfAbsent(locationKey, key -> new DemandCounter()).record(now, halfLifeMillis);
+    }
+
+    public void merge(String fromKey, String intoKey) {
+        if (fromKey == null || intoKey == null || fromKey.equals(intoKey)) {
+            return;
+        }
+
+        DemandCounter from = counters.remove(fromKey);
+        if (from != null) {
+            counters.computeIfAbsent(intoKey, key -> new DemandCounter()).merge(from, clock.getAsLong(), halfLifeMillis);
+        }
+    }
+
+    public double score(String locationKey) {
+        DemandCounter counter = counters.get(locationKey);
+
+        return counter != null ? counter.score(clock.getAsLong(), halfLifeMillis) : 0.0;
+    }
+
+    public DemandTier tierOf(String locationKey) {
+        long now = clock.getAsLong();
+        DemandCounter counter = counters.get(locationKey);
+        if (counter == null) {
+            return now - startedAtMillis < inactiveAfterMillis ? DemandTier.WARM : DemandTier.COLD;
+        }
+
+        if (now - counter.lastRequestedAt() >= inactiveAfterMillis) {
+            return DemandTier.COLD;
+        }
+
+        return counter.score(now, halfLifeMillis) >= hotThreshold ? DemandTier.HOT : DemandTier.WARM;
+    }
+
+    public List<String> hotLocationKeys() {
+        List<String> hot = new ArrayList<>();
+        for (String locationKey : counters.keySet()) {
+            if (tierOf(locationKey) == DemandTier.HOT) {
+                hot.add(locationKey);
+            }
+        }
+
+        return hot;
+    }
+
+    public int prune() {
+        long now = clock.getAsLong();
+        int before = counters.size();
+        counters.values().removeIf(counter -> now - counter.lastRequestedAt() >= inactiveAfterMillis);
+
+        return before - counters.size();
+    }
+
+    public List<DemandSnapshot> snapshot() {
+        List<DemandSnapshot> snapshot = new ArrayList<>(counters.size());
+        counters.forEach((locationKey, counter) -> snapshot.add(counter.snapshot(locationKey)));
+
+        return snapshot;
+    }
+
+    public void restore(DemandSnapshot snapshot) {
+        if (snapshot.locationKey() == null || clock.getAsLong() - snapshot.lastRequestedAtMillis() >= inactiveAfterMillis) {
+            return;
+        }
+
+        counters.computeIfAbsent(snapshot.locationKey(), key -> new DemandCounter()).restore(snapshot);
+    }
+
+    private static final class DemandCounter {
+        private double score;
+        private long updatedAt;
+        private long lastRequestedAt;
+
+        synchronized void record(long now, double halfLifeMillis) {
+            score = decayed(now, halfLifeMillis) + 1.0;
+            updatedAt = now;
+            lastRequestedAt = now;
+        }
+
+        void merge(DemandCounter other, long now, double halfLifeMillis) {
+            double otherScore = other.score(now, halfLifeMillis);
+            long otherLastRequestedAt = other.lastRequestedAt();
+            synchronized (this) {
+                score = decayed(now, halfLifeMillis) + otherScore;
+                updatedAt = now;
+                lastRequestedAt = Math.max(lastRequestedAt, otherLastRequestedAt);
+            }
+        }
+
+        synchronized double score(long now, double halfLifeMillis) {
+            return decayed(now, halfLifeMillis);
+        }
+
+        synchronized long lastRequestedAt() {
+            return lastRequestedAt;
+        }
+
+        synchronized DemandSnapshot snapshot(String locationKey) {
+            return new DemandSnapshot(locationKey, score, updatedAt, lastRequestedAt);
+        }
+
+        synchronized void restore(DemandSnapshot snapshot) {
+            if (snapshot.lastRequestedAtMillis() <= lastRequestedAt) {
+                return;
+            }
+
+            score = snapshot.score();
+            updatedAt = snapshot.updatedAtMillis();
+            lastRequestedAt = snapshot.lastRequestedAtMillis();
+        }
+
+        private double decayed(long now, double halfLifeMillis) {
+            long elapsed = Math.max(0, now - updatedAt);
+
+            return score * Math.pow(0.5, elapsed / halfLifeMillis);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.demo.weatherdataapp.warmstart;
+
+import com.demo.weatherdataapp.cache.LocationResolver;
+import com.demo.weatherdataapp.entity.WeatherData;
+import com.demo.weatherdataapp.service.WeatherCacheService;
+import com.demo.weatherdataapp.tracking.DemandSnapshot;
+import com.demo.weatherdataapp.tracking.LocationDemandTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "weather.warm-start.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmStartRunner implements ApplicationRunner {
+    private final WeatherSnapshotStore snapshotStore;
+    private final WeatherCacheService cacheService;
+    private final LocationDemandTracker demandTracker;
+    private final LocationResolver locationResolver;
+
+    @Value("${weather.warm-start.max-age-hours:24}")
+    private int maxAgeHours;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        restore();
+    }
+
+    public int restore() {
+        WeatherSnapshot snapshot = snapshotStore.read().orElse(null);
+        if (snapshot == null) {
+            log.info("No weather snapshot found at {}, starting with a cold cache", snapshotStore.file());
+
+            return 0;
+        }
+
+        long ageMillis = System.currentTimeMillis() - snapshot.createdAtMillis();
+        if (ageMillis > TimeUnit.HOURS.toMillis(maxAgeHours)) {
+            log.info("Weather snapshot is {} minutes old, starting with a cold cache", TimeUnit.MILLISECONDS.toMinutes(ageMillis));
+
+            return 0;
+        }
+
+        try {
+            List<DemandSnapshot> demand = snapshot.demand() != null ? snapshot.demand() : List.of();
+            demand.forEach(demandTracker::restore);
+            int restored = cacheService.warmUp(snapshot.readings() != null ? snapshot.readings() : List.of(),
+                    snapshot.aliases() != null ? snapshot.aliases() : Map.of());
+
+            log.info("Restored {} locations and {} demand counters from weather snapshot", restored, demand.size());
+
+            return restored;
+        } catch (Exception e) {
+            log.error("Error restoring weather snapshot, starting with a cold cache", e);
+
+            return 0;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${weather.warm-start.snapshot-interval-ms:300000}",
+            initialDelayString = "${weather.warm-start.snapshot-interval-ms:300000}")
+    public void snapshotPeriodically() {
+        save();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void snapshotOnShutdown() {
+        save();
+    }
+
+    public void save() {
+        try {
+            List<WeatherData> readings = cacheService.getAllCachedWeatherData();
+            snapshotStore.write(new WeatherSnapshot(WeatherSnapshot.CURRENT_VERSION, System.currentTimeMillis(),
+                    readings, demandTracker.snapshot(), locationResolver.snapshot()));
+
+            log.debug("Wrote weather snapshot with {} locations to {}", readings.size(), snapshotStore.file());
+        } catch (Exception e) {
+            log.error("Error writing weather snapshot to {}", snapshotStore.file(), e);
+        }
+    }
+}
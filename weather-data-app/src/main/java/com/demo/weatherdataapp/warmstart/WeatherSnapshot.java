@@ -0,0 +1,12 @@
+package com.demo.weatherdataapp.warmstart;
+
+import com.demo.weatherdataapp.entity.WeatherData;
+import com.demo.weatherdataapp.tracking.DemandSnapshot;
+
+import java.util.List;
+import java.util.Map;
+
+public record WeatherSnapshot(int version, long createdAtMillis, List<WeatherData> readings, List<DemandSnapshot> demand,
+                              Map<String, String> aliases) {
+    public static final int CURRENT_VERSION = 1;
+}
@@ -0,0 +1,66 @@
+package com.demo.weatherdataapp.warmstart;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+@Slf4j
+@Component
+public class WeatherSnapshotStore {
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    public WeatherSnapshotStore(ObjectMapper objectMapper,
+                                @Value("${weather.warm-start.file:./data/weather-snapshot.json}") String file) {
+        this.objectMapper = objectMapper;
+        this.file = Path.of(file).toAbsolutePath();
+    }
+
+    public void write(WeatherSnapshot snapshot) throws IOException {
+        Path directory = file.getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                objectMapper.writeValue(out, snapshot);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Optional<WeatherSnapshot> read() {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        try (InputStream in = Files.newInputStream(file)) {
+            WeatherSnapshot snapshot = objectMapper.readValue(in, WeatherSnapshot.class);
+            if (snapshot.version() != WeatherSnapshot.CURRENT_VERSION) {
+                log.warn("Ignoring weather snapshot {} with unsupported version {}", file, snapshot.version());
+
+                return Optional.empty();
+            }
+
+            return Optional.of(snapshot);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable weather snapshot {}", file, e);
+
+            return Optional.empty();
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+}
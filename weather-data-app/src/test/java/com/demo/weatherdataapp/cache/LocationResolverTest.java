@@ -0,0 +1,91 @@
+package com.demo.weatherdataapp.cache;
+
+import com.demo.weatherdataapp.dto.WeatherRequest;
+import com.demo.weatherdataapp.entity.WeatherData;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LocationResolverTest {
+    private final LocationResolver resolver = new LocationResolver(100);
+
+    @Test
+    void testGivenUpstreamId_whenCanonicalize_thenAliasQueryAndNameFormsToUpstreamIdKey() {
+        String canonicalKey = resolver.canonicalize("zip:SW1A,GB", london());
+
+        assertEquals("id:2643743", canonicalKey);
+        assertEquals("id:2643743", resolver.resolve("zip:SW1A,GB"));
+        assertEquals("id:2643743", resolver.resolve("city:london,gb"));
+        assertEquals(Set.of("zip:SW1A,GB", "city:london,gb"), resolver.aliasesOf("id:2643743"));
+
+        WeatherRequest request = new WeatherRequest();
+        request.setCity(" London,GB ");
+        assertEquals("id:2643743", resolver.resolve(request));
+    }
+
+    @Test
+    void testGivenNoUpstreamId_whenCanonicalize_thenKeepQueryKey() {
+        WeatherData data = london();
+        data.setUpstreamId(null);
+
+        assertEquals("city:london", resolver.canonicalize("city:london", data));
+        assertEquals("city:unknown", resolver.resolve("city:unknown"));
+    }
+
+    @Test
+    void testGivenAliasPointingElsewhere_whenCanonicalizeAgain_thenMoveAliasToNewLocation() {
+        resolver.canonicalize("city:springfield", london());
+        WeatherData other = london();
+        other.setUpstreamId(4409896L);
+        other.setCity("Springfield");
+        other.setCountry("US");
+
+        resolver.canonicalize("city:springfield", other);
+
+        assertEquals("id:4409896", resolver.resolve("city:springfield"));
+        assertEquals(Set.of("city:london,gb"), resolver.aliasesOf("id:2643743"));
+    }
+
+    @Test
+    void testGivenRemovedLocation_whenResolve_thenAliasesNoLongerApply() {
+        resolver.canonicalize("city:london", london());
+
+        resolver.remove("id:2643743");
+
+        assertEquals("city:london", resolver.resolve("city:london"));
+        assertEquals(0, resolver.size());
+    }
+
+    @Test
+    void testGivenFullIndex_whenCanonicalize_thenStopAddingAliases() {
+        LocationResolver small = new LocationResolver(1);
+
+        small.canonicalize("city:london", london());
+
+        assertEquals(1, small.size());
+        assertEquals("id:2643743", small.resolve("city:london"));
+        assertEquals("city:london,gb", small.resolve("city:london,gb"));
+    }
+
+    @Test
+    void testGivenFullIndex_whenCanonicalizeNewQueryForm_thenKeepQueryKeySoLaterLookupsStillHit() {
+        LocationResolver small = new LocationResolver(1);
+        small.canonicalize("city:london", london());
+
+        String storageKey = small.canonicalize("zip:EC1A,GB", london());
+
+        assertEquals("zip:EC1A,GB", storageKey);
+        assertEquals(storageKey, small.resolve("zip:EC1A,GB"));
+        assertEquals(Set.of("city:london"), small.aliasesOf("id:2643743"));
+    }
+
+    private WeatherData london() {
+        return WeatherData.builder()
+                .upstreamId(2643743L)
+                .city("London")
+                .country("GB")
+                .build();
+    }
+}
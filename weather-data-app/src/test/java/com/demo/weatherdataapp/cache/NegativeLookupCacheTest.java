@@ -0,0 +1,53 @@
+package com.demo.weatherdataapp.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NegativeLookupCacheTest {
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testGivenRecordedMiss_whenGetWithinTtl_thenReturnCachedErrorUntilExpiry() {
+        NegativeLookupCache cache = new NegativeLookupCache(10, 60, clock::get);
+        cache.put("city:lodnon", "Location not found: Lodnon");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        assertEquals(Optional.of("Location not found: Lodnon"), cache.get("city:lodnon"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(cache.get("city:lodnon").isEmpty());
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void testGivenMoreMissesThanCapacity_whenPut_thenEvictLeastRecentlyUsed() {
+        NegativeLookupCache cache = new NegativeLookupCache(2, 60, clock::get);
+        cache.put("city:a", "a");
+        cache.put("city:b", "b");
+        cache.get("city:a");
+
+        cache.put("city:c", "c");
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.get("city:b").isEmpty());
+        assertEquals(Optional.of("a"), cache.get("city:a"));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void testGivenZeroTtl_whenPut_thenNeverCache() {
+        NegativeLookupCache cache = new NegativeLookupCache(10, 0, clock::get);
+
+        cache.put("city:lodnon", "Location not found: Lodnon");
+
+        assertTrue(cache.get("city:lodnon").isEmpty());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,103 @@
+package com.demo.weatherdataapp.cache;
+
+import com.demo.weatherdataapp.exception.WeatherApiException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+    private final RequestCoalescer coalescer = new RequestCoalescer(10000);
+
+    @Test
+    void testGivenConcurrentCallsForSameKey_whenExecute_thenRunLoaderOnce() throws Exception {
+        int callers = 8;
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> coalescer.execute("city:london", () -> {
+                loaderCalls.incrementAndGet();
+                loaderStarted.countDown();
+                awaitQuietly(release);
+
+                return "London";
+            })));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> coalescer.execute("city:london", () -> {
+                    loaderCalls.incrementAndGet();
+
+                    return "Other";
+                })));
+            }
+            while (coalescer.stats().coalesced() < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("London", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, loaderCalls.get());
+        assertEquals(1, coalescer.stats().executions());
+        assertEquals(callers - 1, coalescer.stats().coalesced());
+        assertFalse(coalescer.isInFlight("city:london"));
+    }
+
+    @Test
+    void testGivenFailingLoader_whenExecute_thenPropagateExceptionAndClearFlight() {
+        assertThrows(IllegalStateException.class, () -> coalescer.execute("city:unknown", () -> {
+            throw new IllegalStateException("Upstream error");
+        }));
+
+        assertFalse(coalescer.isInFlight("city:unknown"));
+        assertEquals("Paris", coalescer.execute("city:unknown", () -> "Paris"));
+    }
+
+    @Test
+    void testGivenSlowInFlightLoader_whenJoinOutlastsMaxWait_thenFailJoinerAndKeepLeaderRunning() throws Exception {
+        RequestCoalescer impatient = new RequestCoalescer(50);
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> impatient.execute("city:london", () -> {
+                loaderStarted.countDown();
+                awaitQuietly(release);
+
+                return "London";
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            assertThrows(WeatherApiException.class, () -> impatient.execute("city:london", () -> "Other"));
+
+            release.countDown();
+            assertEquals("London", leader.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
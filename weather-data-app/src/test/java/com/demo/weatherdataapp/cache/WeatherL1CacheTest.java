@@ -0,0 +1,124 @@
+package com.demo.weatherdataapp.cache;
+
+import com.demo.weatherdataapp.dto.EncodedWeatherResponse;
+import com.demo.weatherdataapp.entity.WeatherData;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeatherL1CacheTest {
+    @Test
+    void testGivenFreshEntry_whenGet_thenReturnEntryAndCountHit() {
+        WeatherL1Cache cache = new WeatherL1Cache(10, 30);
+        WeatherData data = createWeatherData("London", LocalDateTime.now());
+
+        cache.put("city:london", data);
+        Optional<WeatherData> actual = cache.get("city:london");
+
+        assertTrue(actual.isPresent());
+        assertEquals("London", actual.get().getCity());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(0, cache.stats().misses());
+    }
+
+    @Test
+    void testGivenUnknownKey_whenGet_thenCountMiss() {
+        WeatherL1Cache cache = new WeatherL1Cache(10, 30);
+
+        Optional<WeatherData> actual = cache.get("city:paris");
+
+        assertTrue(actual.isEmpty());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void testGivenExpiredData_whenPut_thenEntryIsNotStored() {
+        WeatherL1Cache cache = new WeatherL1Cache(10, 30);
+
+        cache.put("city:london", createWeatherData("London", LocalDateTime.now().minusMinutes(45)));
+
+        assertEquals(0, cache.size());
+        assertTrue(cache.get("city:london").isEmpty());
+    }
+
+    @Test
+    void testGivenFullCache_whenPut_thenEvictLeastRecentlyUsedEntry() {
+        WeatherL1Cache cache = new WeatherL1Cache(2, 30);
+
+        cache.put("city:london", createWeatherData("London", LocalDateTime.now()));
+        cache.put("city:paris", createWeatherData("Paris", LocalDateTime.now()));
+        cache.get("city:london");
+        cache.put("city:berlin", createWeatherData("Berlin", LocalDateTime.now()));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().evictions());
+        assertTrue(cache.get("city:london").isPresent());
+        assertTrue(cache.get("city:paris").isEmpty());
+    }
+
+    @Test
+    void testGivenCachedEntry_whenGetEncodedTwice_thenEncodeOnceUntilNextPut() {
+        WeatherL1Cache cache = new WeatherL1Cache(10, 30);
+        AtomicInteger encodings = new AtomicInteger();
+        WeatherData data = createWeatherData("London", LocalDateTime.now());
+        cache.put("city:london", data);
+
+        EncodedWeatherResponse first = cache.getEncoded("city:london", data, cached -> encode(cached, encodings));
+        EncodedWeatherResponse second = cache.getEncoded("city:london", data, cached -> encode(cached, encodings));
+
+        assertSame(first, second);
+        assertEquals(1, encodings.get());
+        assertEquals(1, cache.stats().encodedHits());
+
+        WeatherData refreshed = createWeatherData("London", LocalDateTime.now());
+        cache.put("city:london", refreshed);
+        EncodedWeatherResponse afterPut = cache.getEncoded("city:london", refreshed, cached -> encode(cached, encodings));
+
+        assertNotSame(first, afterPut);
+        assertEquals(2, encodings.get());
+    }
+
+    @Test
+    void testGivenDataNotHeldByEntry_whenGetEncoded_thenEncodeWithoutMemoizing() {
+        WeatherL1Cache cache = new WeatherL1Cache(10, 30);
+        AtomicInteger encodings = new AtomicInteger();
+        cache.put("city:london", createWeatherData("London", LocalDateTime.now()));
+        WeatherData other = createWeatherData("London", LocalDateTime.now());
+
+        cache.getEncoded("city:london", other, cached -> encode(cached, encodings));
+        cache.getEncoded("city:london", other, cached -> encode(cached, encodings));
+        cache.getEncoded("city:paris", other, cached -> encode(cached, encodings));
+
+        assertEquals(3, encodings.get());
+        assertEquals(0, cache.stats().encodedHits());
+        assertEquals(3, cache.stats().encodings());
+    }
+
+    @Test
+    void testGivenCityAndZipRequests_whenBuildLocationKey_thenNormalizeInput() {
+        assertEquals("city:new york", LocationKey.forCity("  New   York "));
+        assertEquals("zip:94040,US", LocationKey.forZipCode("94040", null));
+        assertEquals("zip:SW1A 1AA,GB", LocationKey.forZipCode("sw1a 1aa", "gb"));
+    }
+
+    private EncodedWeatherResponse encode(WeatherData data, AtomicInteger encodings) {
+        encodings.incrementAndGet();
+
+        return new EncodedWeatherResponse(data.getCity().getBytes(), "\"" + encodings.get() + "\"", data.getLastUpdated());
+    }
+
+    private WeatherData createWeatherData(String city, LocalDateTime lastUpdated) {
+        return WeatherData.builder()
+                .city(city)
+                .temperature(20.0)
+                .lastUpdated(lastUpdated)
+                .build();
+    }
+}
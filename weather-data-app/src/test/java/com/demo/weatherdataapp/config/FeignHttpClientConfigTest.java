@@ -0,0 +1,120 @@
+package com.demo.weatherdataapp.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+
+import javax.net.ssl.SSLHandshakeException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FeignHttpClientConfigTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FeignHttpClientConfig config = new FeignHttpClientConfig();
+    private HttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testGivenPoolProperties_whenCreateConnectionManager_thenApplyPoolLimits() {
+        FeignHttpClientProperties properties = new FeignHttpClientProperties();
+        properties.setMaxConnections(50);
+        properties.setMaxConnectionsPerRoute(5);
+
+        try (PoolingHttpClientConnectionManager manager = config.feignConnectionManager(properties, registry, 2000)) {
+            assertEquals(50, manager.getMaxTotal());
+            assertEquals(5, manager.getDefaultMaxPerRoute());
+        }
+    }
+
+    @Test
+    void testGivenConnectionManager_whenBindPoolMetrics_thenExposeLeasedPendingAndAvailable() {
+        try (PoolingHttpClientConnectionManager manager =
+                     config.feignConnectionManager(new FeignHttpClientProperties(), registry, 2000)) {
+            config.feignConnectionPoolMetrics(manager).bindTo(registry);
+
+            assertEquals(0.0, registry.get("httpcomponents.httpclient.pool.total.connections")
+                    .tags("httpclient", "feign", "state", "leased").gauge().value());
+            assertEquals(0.0, registry.get("httpcomponents.httpclient.pool.total.connections")
+                    .tags("httpclient", "feign", "state", "available").gauge().value());
+            assertEquals(0.0, registry.get("httpcomponents.httpclient.pool.total.pending")
+                    .tag("httpclient", "feign").gauge().value());
+        }
+    }
+
+    @Test
+    void testGivenKeepAliveServer_whenSendTwoRequests_thenReuseSingleConnection() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/weather", exchange -> {
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        String uri = "http://localhost:" + server.getAddress().getPort() + "/weather";
+
+        try (PoolingHttpClientConnectionManager manager =
+                     config.feignConnectionManager(new FeignHttpClientProperties(), registry, 2000);
+             CloseableHttpClient client = HttpClients.custom().setConnectionManager(manager).build()) {
+            assertEquals(200, client.execute(new HttpGet(uri), HttpResponse::getCode));
+            assertEquals(200, client.execute(new HttpGet(uri), HttpResponse::getCode));
+
+            assertEquals(1.0, registry.get(FeignHttpClientConfig.CONNECTIONS_CREATED).counter().count());
+            assertEquals(1, manager.getTotalStats().getAvailable());
+        }
+    }
+
+    @Test
+    void testGivenAdvertisedKeepAlive_whenGetKeepAliveDuration_thenCapAtConfiguredMaximum() {
+        ConnectionKeepAliveStrategy strategy = FeignHttpClientConfig.cappedKeepAliveStrategy(TimeValue.ofSeconds(60));
+        BasicHttpResponse longKeepAlive = new BasicHttpResponse(200);
+        longKeepAlive.addHeader("Keep-Alive", "timeout=300");
+        BasicHttpResponse shortKeepAlive = new BasicHttpResponse(200);
+        shortKeepAlive.addHeader("Keep-Alive", "timeout=5");
+
+        assertEquals(TimeValue.ofSeconds(60), strategy.getKeepAliveDuration(longKeepAlive, HttpClientContext.create()));
+        assertEquals(TimeValue.ofSeconds(5), strategy.getKeepAliveDuration(shortKeepAlive, HttpClientContext.create()));
+    }
+
+    @Test
+    void testGivenFailingHandshake_whenUpgrade_thenRecordFailureTimerAndRethrow() throws IOException {
+        TlsSocketStrategy delegate = mock(TlsSocketStrategy.class);
+        when(delegate.upgrade(any(), eq("api.example.com"), anyInt(), any(), any()))
+                .thenThrow(new SSLHandshakeException("handshake failed"));
+        InstrumentedTlsSocketStrategy strategy = new InstrumentedTlsSocketStrategy(delegate, registry);
+
+        assertThrows(SSLHandshakeException.class,
+                () -> strategy.upgrade(new Socket(), "api.example.com", 443, null, HttpClientContext.create()));
+
+        assertEquals(1, registry.get(InstrumentedTlsSocketStrategy.TLS_HANDSHAKES)
+                .tags("host", "api.example.com", "outcome", "failure").timer().count());
+    }
+}
@@ -0,0 +1,90 @@
+package com.demo.weatherdataapp.config;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WeatherCircuitBreakerConfigTest {
+    private final WeatherCircuitBreakerConfig config = new WeatherCircuitBreakerConfig();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(config, "failureRateThreshold", 50f);
+        ReflectionTestUtils.setField(config, "slowCallRateThreshold", 50f);
+        ReflectionTestUtils.setField(config, "slowCallDurationMs", 3000L);
+        ReflectionTestUtils.setField(config, "slidingWindowSize", 4);
+        ReflectionTestUtils.setField(config, "minimumNumberOfCalls", 4);
+        ReflectionTestUtils.setField(config, "waitInOpenStateMs", 60000L);
+        ReflectionTestUtils.setField(config, "permittedCallsInHalfOpenState", 1);
+        circuitBreaker = config.weatherApiCircuitBreaker(config.circuitBreakerRegistry());
+    }
+
+    @Test
+    void testGivenClientErrors_whenCalled_thenKeepCircuitClosed() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(FeignException.class, () -> circuitBreaker.executeSupplier(() -> {
+                throw feignError(404);
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testGivenServerErrorsAboveThreshold_whenCalled_thenOpenCircuitAndRejectCalls() {
+        tripWithServerErrors();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CallNotPermittedException.class, () -> circuitBreaker.executeSupplier(() -> "ok"));
+    }
+
+    @Test
+    void testGivenOpenCircuit_whenHalfOpenProbeSucceeds_thenCloseCircuit() {
+        tripWithServerErrors();
+        circuitBreaker.transitionToHalfOpenState();
+
+        assertEquals("ok", circuitBreaker.executeSupplier(() -> "ok"));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testGivenOpenCircuit_whenHalfOpenProbeFails_thenReopenCircuit() {
+        tripWithServerErrors();
+        circuitBreaker.transitionToHalfOpenState();
+
+        assertThrows(FeignException.class, () -> circuitBreaker.executeSupplier(() -> {
+            throw feignError(503);
+        }));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void tripWithServerErrors() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(FeignException.class, () -> circuitBreaker.executeSupplier(() -> {
+                throw feignError(503);
+            }));
+        }
+    }
+
+    private FeignException feignError(int status) {
+        Request request = Request.create(Request.HttpMethod.GET, "/weather", Map.of(), null, StandardCharsets.UTF_8, null);
+
+        return FeignException.errorStatus("getWeatherByCity", Response.builder()
+                .status(status)
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+}
@@ -1,16 +1,29 @@
 package com.demo.weatherdataapp.controller;
 
+import com.demo.weatherdataapp.dto.BatchItemStatus;
+import com.demo.weatherdataapp.dto.BatchWeatherItem;
+import com.demo.weatherdataapp.dto.BatchWeatherRequest;
+import com.demo.weatherdataapp.dto.BatchWeatherResponse;
+import com.demo.weatherdataapp.dto.EncodedWeatherResponse;
+import com.demo.weatherdataapp.dto.MetricSummary;
+import com.demo.weatherdataapp.dto.WeatherHistorySummary;
 import com.demo.weatherdataapp.dto.WeatherRequest;
 import com.demo.weatherdataapp.dto.WeatherResponse;
+import com.demo.weatherdataapp.exception.LocationNotFoundException;
+import com.demo.weatherdataapp.mapper.WeatherResponseEncoder;
 import com.demo.weatherdataapp.service.WeatherService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
+import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -19,12 +32,18 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,7 +62,7 @@ class WeatherControllerTest {
         String cityName = "London";
         WeatherResponse mockResponse = createWeatherResponse(cityName);
 
-        when(weatherService.getWeatherByCity(cityName)).thenReturn(mockResponse);
+        when(weatherService.getEncodedWeather(cityRequest(cityName))).thenReturn(encoded(mockResponse));
 
         mockMvc.perform(get("/api/weather/city/{cityName}", cityName))
                 .andExpect(status().isOk())
@@ -52,7 +71,83 @@ class WeatherControllerTest {
                 .andExpect(jsonPath("$.temperature").value(20.5))
                 .andExpect(jsonPath("$.humidity").value(65));
 
-        verify(weatherService).getWeatherByCity(cityName);
+        verify(weatherService).getEncodedWeather(cityRequest(cityName));
+    }
+
+    @Test
+    void testGetWeatherByCity_whenLocationNotFound_thenReturnNotFound() throws Exception {
+        when(weatherService.getEncodedWeather(cityRequest("Lodnon")))
+                .thenThrow(new LocationNotFoundException("Location not found: Lodnon"));
+
+        mockMvc.perform(get("/api/weather/city/{cityName}", "Lodnon"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetWeatherByCity_whenFreshReading_thenSendValidatorsAndRemainingMaxAge() throws Exception {
+        WeatherResponse mockResponse = createWeatherResponse("London");
+        mockResponse.setLastUpdated(LocalDateTime.now().minusMinutes(10).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+
+        when(weatherService.getEncodedWeather(cityRequest("London"))).thenReturn(encoded(mockResponse));
+
+        MvcResult result = mockMvc.perform(get("/api/weather/city/{cityName}", "London"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+
+        String cacheControl = result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL);
+        long maxAge = Long.parseLong(cacheControl.substring("max-age=".length()));
+        assertTrue(maxAge > 1150 && maxAge <= 1200, cacheControl);
+    }
+
+    @Test
+    void testGetWeatherByCity_whenIfNoneMatchesCurrentETag_thenReturnNotModified() throws Exception {
+        when(weatherService.getEncodedWeather(cityRequest("London"))).thenReturn(encoded(createWeatherResponse("London")));
+
+        String eTag = mockMvc.perform(get("/api/weather/city/{cityName}", "London"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/weather/city/{cityName}", "London")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetWeatherByZipCode_whenNotModifiedSinceLastUpdate_thenReturnNotModified() throws Exception {
+        when(weatherService.getEncodedWeather(zipRequest("94040", null))).thenReturn(encoded(createWeatherResponse("Mountain View")));
+
+        String lastModified = mockMvc.perform(get("/api/weather/zip/{zipCode}", "94040"))
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get("/api/weather/zip/{zipCode}", "94040")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetWeatherByCity_whenStaleReading_thenRequireRevalidationAndChangeETag() throws Exception {
+        WeatherResponse fresh = createWeatherResponse("London");
+        WeatherResponse stale = createWeatherResponse("London");
+        stale.setLastUpdated(fresh.getLastUpdated());
+        stale.setStale(true);
+
+        when(weatherService.getEncodedWeather(cityRequest("London"))).thenReturn(encoded(fresh), encoded(stale));
+
+        String freshETag = mockMvc.perform(get("/api/weather/city/{cityName}", "London"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/weather/city/{cityName}", "London")
+                        .header(HttpHeaders.IF_NONE_MATCH, freshETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stale").value(true));
+
+        stale.setLastUpdated(LocalDateTime.now().minusMinutes(45).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        when(weatherService.getEncodedWeather(cityRequest("London"))).thenReturn(encoded(stale));
+
+        mockMvc.perform(get("/api/weather/city/{cityName}", "London"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0"));
     }
 
     @Test
@@ -61,7 +156,7 @@ class WeatherControllerTest {
         String country = "US";
         WeatherResponse mockResponse = createWeatherResponse("Mountain View");
 
-        when(weatherService.getWeatherByZipCode(zipCode, country)).thenReturn(mockResponse);
+        when(weatherService.getEncodedWeather(zipRequest(zipCode, country))).thenReturn(encoded(mockResponse));
 
         mockMvc.perform(get("/api/weather/zip/{zipCode}", zipCode)
                         .param("country", country))
@@ -69,7 +164,7 @@ class WeatherControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.city").value("Mountain View"));
 
-        verify(weatherService).getWeatherByZipCode(zipCode, country);
+        verify(weatherService).getEncodedWeather(zipRequest(zipCode, country));
     }
 
     @Test
@@ -77,13 +172,42 @@ class WeatherControllerTest {
         String zipCode = "94040";
         WeatherResponse mockResponse = createWeatherResponse("Mountain View");
 
-        when(weatherService.getWeatherByZipCode(zipCode, null)).thenReturn(mockResponse);
+        when(weatherService.getEncodedWeather(zipRequest(zipCode, null))).thenReturn(encoded(mockResponse));
 
         mockMvc.perform(get("/api/weather/zip/{zipCode}", zipCode))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.city").value("Mountain View"));
 
-        verify(weatherService).getWeatherByZipCode(zipCode, null);
+        verify(weatherService).getEncodedWeather(zipRequest(zipCode, null));
+    }
+
+    @Test
+    void testGetWeatherByCoordinates_whenValidCoordinates_thenReturnWeatherResponse() throws Exception {
+        WeatherResponse mockResponse = createWeatherResponse("London");
+        mockResponse.setLatitude(51.5085);
+        mockResponse.setLongitude(-0.1257);
+
+        when(weatherService.getEncodedWeather(coordinatesRequest(51.52, -0.1))).thenReturn(encoded(mockResponse));
+
+        mockMvc.perform(get("/api/weather/coordinates")
+                        .param("lat", "51.52")
+                        .param("lon", "-0.1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.city").value("London"))
+                .andExpect(jsonPath("$.latitude").value(51.5085));
+
+        verify(weatherService).getEncodedWeather(coordinatesRequest(51.52, -0.1));
+    }
+
+    @Test
+    void testGetWeatherByCoordinates_whenLatitudeOutOfRange_thenRejectWithoutCallingService() {
+        ServletException exception = assertThrows(ServletException.class,
+                () -> mockMvc.perform(get("/api/weather/coordinates")
+                        .param("lat", "95")
+                        .param("lon", "0")));
+
+        assertInstanceOf(ConstraintViolationException.class, exception.getCause());
+        verifyNoInteractions(weatherService);
     }
 
     @Test
@@ -129,6 +253,65 @@ class WeatherControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void testGetWeatherBatch_whenValidRequest_thenReturnBatchResponse() throws Exception {
+        WeatherRequest london = new WeatherRequest();
+        london.setCity("London");
+        BatchWeatherRequest request = new BatchWeatherRequest();
+        request.setLocations(List.of(london));
+        BatchWeatherResponse mockResponse = BatchWeatherResponse.builder()
+                .requested(1)
+                .unique(1)
+                .fromCache(1)
+                .results(List.of(BatchWeatherItem.builder()
+                        .city("London")
+                        .status(BatchItemStatus.OK)
+                        .weather(createWeatherResponse("London"))
+                        .build()))
+                .build();
+
+        when(weatherService.getWeatherBatch(any())).thenReturn(mockResponse);
+
+        mockMvc.perform(post("/api/weather/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(1))
+                .andExpect(jsonPath("$.results", hasSize(1)))
+                .andExpect(jsonPath("$.results[0].status").value("OK"))
+                .andExpect(jsonPath("$.results[0].weather.city").value("London"));
+    }
+
+    @Test
+    void testGetWeatherBatch_whenEmptyLocations_thenBadRequest() throws Exception {
+        BatchWeatherRequest request = new BatchWeatherRequest();
+        request.setLocations(List.of());
+
+        mockMvc.perform(post("/api/weather/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetCityHistory_whenReadingsExist_thenReturnSummary() throws Exception {
+        WeatherHistorySummary summary = WeatherHistorySummary.builder()
+                .locationKey("city:london")
+                .hours(6)
+                .samples(3)
+                .temperature(new MetricSummary(10.0, 20.0, 15.0, 3))
+                .build();
+
+        when(weatherService.getRecentHistory(any(WeatherRequest.class), eq(6))).thenReturn(summary);
+
+        mockMvc.perform(get("/api/weather/history/city/{cityName}", "London")
+                        .param("hours", "6"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.samples").value(3))
+                .andExpect(jsonPath("$.temperature.max").value(20.0))
+                .andExpect(jsonPath("$.temperature.avg").value(15.0));
+    }
+
     @Test
     void testRefreshZipCodeWeather_whenValidZipCode_thenReturnUpdatedWeather() throws Exception {
         String zipCode = "94040";
@@ -195,6 +378,35 @@ class WeatherControllerTest {
                 .andExpect(content().string("Weather service is running"));
     }
 
+    private WeatherRequest cityRequest(String cityName) {
+        WeatherRequest request = new WeatherRequest();
+        request.setCity(cityName);
+
+        return request;
+    }
+
+    private WeatherRequest zipRequest(String zipCode, String country) {
+        WeatherRequest request = new WeatherRequest();
+        request.setZipCode(zipCode);
+        request.setCountry(country);
+
+        return request;
+    }
+
+    private WeatherRequest coordinatesRequest(double latitude, double longitude) {
+        WeatherRequest request = new WeatherRequest();
+        request.setLatitude(latitude);
+        request.setLongitude(longitude);
+
+        return request;
+    }
+
+    private EncodedWeatherResponse encoded(WeatherResponse response) {
+        LocalDateTime lastUpdated = response.getLastUpdated() != null ? LocalDateTime.parse(response.getLastUpdated()) : null;
+
+        return new WeatherResponseEncoder(objectMapper).encode(response, lastUpdated);
+    }
+
     private WeatherResponse createWeatherResponse(String cityName) {
         return WeatherResponse.builder()
                 .city(cityName)
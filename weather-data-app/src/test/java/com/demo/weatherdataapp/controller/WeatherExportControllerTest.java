@@ -0,0 +1,80 @@
+package com.demo.weatherdataapp.controller;
+
+import com.demo.weatherdataapp.dto.ExportFormat;
+import com.demo.weatherdataapp.dto.HistoryExportQuery;
+import com.demo.weatherdataapp.service.WeatherExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(WeatherExportController.class)
+@AutoConfigureMockMvc
+class WeatherExportControllerTest {
+    private static final String NDJSON = "{\"id\":1,\"city\":\"London\"}\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private WeatherExportService exportService;
+
+    @Test
+    void testExportHistory_whenNdjsonRequested_thenStreamRows() throws Exception {
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write(NDJSON.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(exportService).exportHistory(eq(new HistoryExportQuery(null, "GB", null, null)), eq(ExportFormat.NDJSON), any());
+
+        MvcResult result = mockMvc.perform(get("/api/weather/export/history").param("country", "GB"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"weather-history.ndjson\""))
+                .andExpect(content().string(NDJSON));
+    }
+
+    @Test
+    void testExportHistory_whenGzipRequested_thenCompressStream() throws Exception {
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write(NDJSON.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(exportService).exportHistory(any(HistoryExportQuery.class), eq(ExportFormat.CSV), any());
+
+        MvcResult result = mockMvc.perform(get("/api/weather/export/history")
+                        .param("format", "CSV")
+                        .param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(NDJSON, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
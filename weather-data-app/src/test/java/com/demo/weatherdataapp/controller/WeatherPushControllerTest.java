@@ -0,0 +1,43 @@
+package com.demo.weatherdataapp.controller;
+
+import com.demo.weatherdataapp.push.WeatherUpdatePublisher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(WeatherPushController.class)
+@AutoConfigureMockMvc
+class WeatherPushControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private WeatherUpdatePublisher updatePublisher;
+
+    @Test
+    void testSubscribeToCity_whenSubscriptionAccepted_thenStartEventStream() throws Exception {
+        when(updatePublisher.subscribe("city:new york")).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/weather/subscribe/city/{cityName}", " New  York"))
+                .andExpect(request().asyncStarted());
+
+        verify(updatePublisher).subscribe("city:new york");
+    }
+
+    @Test
+    void testSubscribeToZipCode_whenSubscriberLimitReached_thenServiceUnavailable() throws Exception {
+        when(updatePublisher.subscribe("zip:94040,US")).thenReturn(null);
+
+        mockMvc.perform(get("/api/weather/subscribe/zip/{zipCode}", "94040"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
@@ -0,0 +1,68 @@
+package com.demo.weatherdataapp.controller;
+
+import com.demo.weatherdataapp.dto.MetricSummary;
+import com.demo.weatherdataapp.dto.WeatherRequest;
+import com.demo.weatherdataapp.dto.WeatherRollupResponse;
+import com.demo.weatherdataapp.entity.RollupGranularity;
+import com.demo.weatherdataapp.service.WeatherRollupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(WeatherRollupController.class)
+@AutoConfigureMockMvc
+class WeatherRollupControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private WeatherRollupService rollupService;
+
+    @Test
+    void testGetCityRollups_whenDailyRangeRequested_thenReturnBuckets() throws Exception {
+        WeatherRollupResponse rollup = WeatherRollupResponse.builder()
+                .locationKey("city:london")
+                .city("London")
+                .granularity(RollupGranularity.DAILY)
+                .bucketStart("2025-08-25T00:00:00")
+                .samples(48)
+                .temperature(new MetricSummary(11.0, 21.0, 16.0, 48))
+                .build();
+
+        when(rollupService.getRollups(any(WeatherRequest.class), eq(RollupGranularity.DAILY),
+                eq(LocalDateTime.of(2025, 8, 20, 0, 0)), isNull())).thenReturn(List.of(rollup));
+
+        mockMvc.perform(get("/api/weather/rollups/city/{cityName}", "London")
+                        .param("granularity", "DAILY")
+                        .param("from", "2025-08-20T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].granularity").value("DAILY"))
+                .andExpect(jsonPath("$[0].samples").value(48))
+                .andExpect(jsonPath("$[0].temperature.avg").value(16.0));
+    }
+
+    @Test
+    void testGetZipCodeRollups_whenNoParameters_thenDefaultToHourly() throws Exception {
+        when(rollupService.getRollups(any(WeatherRequest.class), eq(RollupGranularity.HOURLY), isNull(), isNull()))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/api/weather/rollups/zip/{zipCode}", "94040"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
@@ -0,0 +1,62 @@
+package com.demo.weatherdataapp.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoordinateIndexTest {
+    private static final GeoPoint LONDON = new GeoPoint(51.5085, -0.1257);
+    private static final GeoPoint PARIS = new GeoPoint(48.8534, 2.3488);
+
+    @Test
+    void testGivenKnownCities_whenDistanceKm_thenMatchGreatCircleDistance() {
+        assertEquals(343.5, LONDON.distanceKm(PARIS), 1.0);
+        assertEquals(0.0, LONDON.distanceKm(LONDON), 1e-9);
+    }
+
+    @Test
+    void testGivenIndexedLocations_whenWithin_thenReturnOnlyPointsInsideRadiusNearestFirst() {
+        CoordinateIndex index = new CoordinateIndex(10);
+        index.put("city:london", LONDON);
+        index.put("coord:51.55,-0.10", new GeoPoint(51.55, -0.10));
+        index.put("city:paris", PARIS);
+
+        List<CoordinateIndex.Neighbour> actual = index.within(new GeoPoint(51.54, -0.10));
+
+        assertEquals(List.of("coord:51.55,-0.10", "city:london"),
+                actual.stream().map(CoordinateIndex.Neighbour::locationKey).toList());
+        assertTrue(actual.get(0).distanceKm() < actual.get(1).distanceKm());
+    }
+
+    @Test
+    void testGivenMovedAndRemovedLocations_whenWithin_thenReflectLatestPositions() {
+        CoordinateIndex index = new CoordinateIndex(10);
+        index.put("city:london", LONDON);
+        index.put("city:london", PARIS);
+
+        assertTrue(index.within(LONDON).isEmpty());
+        assertEquals(1, index.within(PARIS).size());
+
+        index.remove("city:london");
+
+        assertTrue(index.within(PARIS).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testGivenPointsAcrossAntimeridian_whenWithin_thenFindNeighbourOnOtherSide() {
+        CoordinateIndex index = new CoordinateIndex(25);
+        for (int i = 0; i < 50; i++) {
+            index.put("coord:filler" + i, new GeoPoint(-40 + i, 100));
+        }
+        index.put("coord:-16.50,-179.95", new GeoPoint(-16.5, -179.95));
+
+        List<CoordinateIndex.Neighbour> actual = index.within(new GeoPoint(-16.5, 179.95));
+
+        assertEquals(1, actual.size());
+        assertEquals("coord:-16.50,-179.95", actual.getFirst().locationKey());
+    }
+}
@@ -0,0 +1,76 @@
+package com.demo.weatherdataapp.history;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecentReadingsBufferTest {
+    @Test
+    void testGivenReadingsWithinWindow_whenSummarize_thenReturnMinMaxAvg() {
+        RecentReadingsBuffer buffer = new RecentReadingsBuffer(4);
+
+        buffer.append(1_000L, 10.0, 60, 1010, 2.0);
+        buffer.append(2_000L, 20.0, 70, 1020, 4.0);
+        buffer.append(3_000L, 30.0, 80, 1030, 6.0);
+
+        RecentReadingsBuffer.Window actual = buffer.summarize(0L);
+
+        assertEquals(3, actual.samples());
+        assertEquals(1_000L, actual.oldestEpochMillis());
+        assertEquals(3_000L, actual.newestEpochMillis());
+        assertEquals(10.0, actual.temperature().min());
+        assertEquals(30.0, actual.temperature().max());
+        assertEquals(20.0, actual.temperature().avg());
+        assertEquals(70.0, actual.humidity().avg());
+        assertEquals(1030.0, actual.pressure().max());
+        assertEquals(4.0, actual.windSpeed().avg());
+    }
+
+    @Test
+    void testGivenFullBuffer_whenAppend_thenOverwriteOldestReading() {
+        RecentReadingsBuffer buffer = new RecentReadingsBuffer(2);
+
+        buffer.append(1_000L, 10.0, 60, 1010, 2.0);
+        buffer.append(2_000L, 20.0, 70, 1020, 4.0);
+        buffer.append(3_000L, 30.0, 80, 1030, 6.0);
+
+        RecentReadingsBuffer.Window actual = buffer.summarize(0L);
+
+        assertEquals(2, buffer.size());
+        assertEquals(2, actual.samples());
+        assertEquals(2_000L, actual.oldestEpochMillis());
+        assertEquals(20.0, actual.temperature().min());
+    }
+
+    @Test
+    void testGivenReadingsOutsideWindow_whenSummarize_thenIgnoreOlderReadings() {
+        RecentReadingsBuffer buffer = new RecentReadingsBuffer(4);
+
+        buffer.append(1_000L, 10.0, 60, 1010, 2.0);
+        buffer.append(5_000L, 20.0, null, null, null);
+
+        RecentReadingsBuffer.Window actual = buffer.summarize(4_000L);
+
+        assertEquals(1, actual.samples());
+        assertEquals(20.0, actual.temperature().avg());
+        assertEquals(0, actual.humidity().samples());
+        assertNull(actual.humidity().avg());
+        assertNull(actual.windSpeed().min());
+    }
+
+    @Test
+    void testGivenWrappedBufferNewerThanWindowStart_whenSummarize_thenFlagTruncated() {
+        RecentReadingsBuffer buffer = new RecentReadingsBuffer(2);
+
+        buffer.append(1_000L, 10.0, 60, 1010, 2.0);
+        buffer.append(2_000L, 20.0, 70, 1020, 4.0);
+        buffer.append(3_000L, 30.0, 80, 1030, 6.0);
+
+        assertTrue(buffer.summarize(0L).truncated());
+        assertFalse(buffer.summarize(2_500L).truncated());
+        assertFalse(new RecentReadingsBuffer(4).summarize(0L).truncated());
+    }
+}
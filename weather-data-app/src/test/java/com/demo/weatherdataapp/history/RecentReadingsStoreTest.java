@@ -0,0 +1,53 @@
+package com.demo.weatherdataapp.history;
+
+import com.demo.weatherdataapp.entity.WeatherData;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecentReadingsStoreTest {
+    @Test
+    void testGivenFullStore_whenRecordNewLocation_thenDropLeastRecentlyUsedBuffer() {
+        RecentReadingsStore store = new RecentReadingsStore(8, 2);
+        store.record(reading("city:london"));
+        store.record(reading("city:paris"));
+        store.summarize("city:london", 1);
+
+        store.record(reading("city:berlin"));
+
+        assertEquals(2, store.trackedLocations());
+        assertEquals(1, store.summarize("city:london", 1).getSamples());
+        assertEquals(0, store.summarize("city:paris", 1).getSamples());
+        assertEquals(1, store.summarize("city:berlin", 1).getSamples());
+    }
+
+    @Test
+    void testGivenRemovedLocation_whenSummarize_thenReturnEmptySummaryAndFreeSlot() {
+        RecentReadingsStore store = new RecentReadingsStore(8, 1);
+        store.record(reading("city:london"));
+
+        store.remove("city:london");
+        store.record(reading("city:paris"));
+
+        assertEquals(0, store.summarize("city:london", 1).getSamples());
+        assertEquals(1, store.summarize("city:paris", 1).getSamples());
+    }
+
+    @Test
+    void testGivenWindowAndHotRefreshInterval_whenCreate_thenSizeBuffersToCoverWindow() {
+        assertEquals(288, new RecentReadingsStore(48, 600_000L, 100).capacity());
+        assertEquals(96, RecentReadingsStore.capacityFor(48, 1_800_000L));
+        assertEquals(1, RecentReadingsStore.capacityFor(1, 7_200_000L));
+    }
+
+    private WeatherData reading(String locationKey) {
+        return WeatherData.builder()
+                .locationKey(locationKey)
+                .city(locationKey)
+                .temperature(20.0)
+                .lastUpdated(LocalDateTime.now())
+                .build();
+    }
+}
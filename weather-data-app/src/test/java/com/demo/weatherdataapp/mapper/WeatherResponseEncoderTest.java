@@ -0,0 +1,44 @@
+package com.demo.weatherdataapp.mapper;
+
+import com.demo.weatherdataapp.dto.EncodedWeatherResponse;
+import com.demo.weatherdataapp.dto.WeatherResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class WeatherResponseEncoderTest {
+    private static final LocalDateTime LAST_UPDATED = LocalDateTime.of(2025, 8, 25, 12, 0);
+
+    private final WeatherResponseEncoder encoder = new WeatherResponseEncoder(new ObjectMapper());
+
+    @Test
+    void testGivenSameBody_whenEncode_thenReturnSameETagAndPassLastUpdatedThrough() {
+        EncodedWeatherResponse first = encoder.encode(response(20.5), LAST_UPDATED);
+        EncodedWeatherResponse second = encoder.encode(response(20.5), LAST_UPDATED);
+
+        assertEquals(first.eTag(), second.eTag());
+        assertEquals(26, first.eTag().length());
+        assertEquals(LAST_UPDATED, first.lastUpdated());
+    }
+
+    @Test
+    void testGivenChangedReadingWithSameTimestamp_whenEncode_thenReturnDifferentETag() {
+        EncodedWeatherResponse before = encoder.encode(response(20.5), LAST_UPDATED);
+        EncodedWeatherResponse after = encoder.encode(response(21.0), LAST_UPDATED);
+
+        assertNotEquals(before.eTag(), after.eTag());
+    }
+
+    private WeatherResponse response(double temperature) {
+        return WeatherResponse.builder()
+                .city("London")
+                .country("GB")
+                .temperature(temperature)
+                .lastUpdated(LAST_UPDATED.toString())
+                .build();
+    }
+}
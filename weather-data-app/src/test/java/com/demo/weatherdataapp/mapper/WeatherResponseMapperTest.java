@@ -0,0 +1,90 @@
+package com.demo.weatherdataapp.mapper;
+
+import com.demo.weatherdataapp.dto.OpenWeatherResponse;
+import com.demo.weatherdataapp.dto.WeatherResponse;
+import com.demo.weatherdataapp.entity.WeatherData;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WeatherResponseMapperTest {
+    @Test
+    void testConvertToWeatherResponse_whenValidWeatherData_thenReturnWeatherResponse() {
+        WeatherData weatherData = WeatherData.builder()
+                .id(1L)
+                .city("London")
+                .country("GB")
+                .temperature(20.5)
+                .feelsLike(18.3)
+                .humidity(65)
+                .pressure(1013)
+                .description("Clear sky")
+                .mainWeather("Clear")
+                .windSpeed(3.2)
+                .windDirection(180)
+                .timestamp(LocalDateTime.now())
+                .lastUpdated(LocalDateTime.of(2025, 8, 25, 12, 0))
+                .build();
+
+        WeatherResponse actual = WeatherResponseMapper.toResponse(weatherData);
+
+        assertNotNull(actual);
+        assertEquals("London", actual.getCity());
+        assertEquals("GB", actual.getCountry());
+        assertEquals(20.5, actual.getTemperature());
+        assertEquals(18.3, actual.getFeelsLike());
+        assertEquals(65, actual.getHumidity());
+        assertEquals(1013, actual.getPressure());
+        assertEquals("Clear sky", actual.getDescription());
+        assertEquals("Clear", actual.getMainWeather());
+        assertEquals(3.2, actual.getWindSpeed());
+        assertEquals(180, actual.getWindDirection());
+        assertEquals("2025-08-25T12:00:00", actual.getLastUpdated());
+        assertFalse(actual.isStale());
+    }
+
+    @Test
+    void testConvertToWeatherData_whenValidApiResponse_thenReturnWeatherData() {
+        OpenWeatherResponse apiResponse = new OpenWeatherResponse();
+        apiResponse.setName("London");
+        OpenWeatherResponse.Main main = new OpenWeatherResponse.Main();
+        main.setTemp(20.5);
+        main.setFeelsLike(18.3);
+        main.setHumidity(65);
+        main.setPressure(1013);
+        apiResponse.setMain(main);
+        OpenWeatherResponse.Sys sys = new OpenWeatherResponse.Sys();
+        sys.setCountry("GB");
+        apiResponse.setSys(sys);
+        OpenWeatherResponse.Weather weather = new OpenWeatherResponse.Weather();
+        weather.setDescription("Clear sky");
+        weather.setMain("Clear");
+        apiResponse.setWeather(List.of(weather));
+        OpenWeatherResponse.Wind wind = new OpenWeatherResponse.Wind();
+        wind.setSpeed(3.2);
+        wind.setDeg(180);
+        apiResponse.setWind(wind);
+
+        WeatherData actual = WeatherResponseMapper.fromApiResponse(apiResponse, "12345");
+
+        assertNotNull(actual);
+        assertNull(actual.getUpstreamId());
+        assertEquals("London", actual.getCity());
+        assertEquals("GB", actual.getCountry());
+        assertEquals("12345", actual.getZipCode());
+        assertEquals(20.5, actual.getTemperature());
+        assertEquals(18.3, actual.getFeelsLike());
+        assertEquals(65, actual.getHumidity());
+        assertEquals(1013, actual.getPressure());
+        assertEquals("Clear sky", actual.getDescription());
+        assertEquals("Clear", actual.getMainWeather());
+        assertEquals(3.2, actual.getWindSpeed());
+        assertEquals(180, actual.getWindDirection());
+    }
+}
@@ -0,0 +1,50 @@
+package com.demo.weatherdataapp.metrics;
+
+import com.demo.weatherdataapp.metrics.WeatherMetrics.CacheSource;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WeatherMetricsTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final WeatherMetrics metrics = new WeatherMetrics(registry);
+
+    @Test
+    void testGivenSuccessfulCall_whenTimeUpstreamCall_thenRecordSuccessTimerAndReturnResult() {
+        String actual = metrics.timeUpstreamCall("city", () -> "ok");
+
+        assertEquals("ok", actual);
+        assertEquals(1, registry.get(WeatherMetrics.UPSTREAM_REQUESTS).tags("operation", "city", "outcome", "success").timer().count());
+        assertNull(registry.find(WeatherMetrics.UPSTREAM_ERRORS).counter());
+    }
+
+    @Test
+    void testGivenFeignError_whenTimeUpstreamCall_thenRecordErrorWithHttpStatusAndRethrow() {
+        Request request = Request.create(Request.HttpMethod.GET, "/weather", Map.of(), null, StandardCharsets.UTF_8, null);
+        FeignException notFound = new FeignException.NotFound("city not found", request, null, Map.of());
+
+        assertThrows(FeignException.class, () -> metrics.timeUpstreamCall("zip", () -> {
+            throw notFound;
+        }));
+
+        assertEquals(1, registry.get(WeatherMetrics.UPSTREAM_REQUESTS).tags("operation", "zip", "outcome", "error").timer().count());
+        assertEquals(1.0, registry.get(WeatherMetrics.UPSTREAM_ERRORS).tags("operation", "zip", "status", "404").counter().count());
+    }
+
+    @Test
+    void testGivenZeroCount_whenRecordCacheLookups_thenRegisterNothing() {
+        metrics.recordCacheLookups(CacheSource.DATABASE, 0);
+        metrics.recordCacheLookups(CacheSource.L1, 3);
+
+        assertNull(registry.find(WeatherMetrics.CACHE_LOOKUPS).tag("source", "database").counter());
+        assertEquals(3.0, registry.get(WeatherMetrics.CACHE_LOOKUPS).tag("source", "l1").counter().count());
+    }
+}
@@ -0,0 +1,154 @@
+package com.demo.weatherdataapp.push;
+
+import com.demo.weatherdataapp.dto.WeatherResponse;
+import com.demo.weatherdataapp.entity.WeatherData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeatherUpdatePublisherTest {
+    private final WeatherUpdatePublisher publisher = new WeatherUpdatePublisher(2, 10);
+
+    @AfterEach
+    void tearDown() {
+        publisher.destroy();
+    }
+
+    @Test
+    void testGivenSubscriber_whenWeatherDataSaved_thenPushUpdateToSubscriber() throws InterruptedException {
+        RecordingEmitter london = new RecordingEmitter();
+        RecordingEmitter paris = new RecordingEmitter();
+        publisher.register("city:london", london);
+        publisher.register("city:paris", paris);
+
+        publisher.onWeatherDataSaved(new WeatherDataSavedEvent(createWeatherData("city:london")));
+
+        assertTrue(london.sent.tryAcquire(5, TimeUnit.SECONDS));
+        assertEquals(0, paris.sent.availablePermits());
+        assertEquals(1, publisher.stats().published());
+    }
+
+    @Test
+    void testGivenSubscriberOnAlias_whenCanonicalLocationSaved_thenPushUpdateToAliasSubscriber() throws InterruptedException {
+        RecordingEmitter byName = new RecordingEmitter();
+        publisher.register("city:london", byName);
+
+        publisher.onWeatherDataSaved(new WeatherDataSavedEvent(createWeatherData("id:2643743"),
+                Set.of("city:london", "zip:sw1a,gb")));
+
+        assertTrue(byName.sent.tryAcquire(5, TimeUnit.SECONDS));
+        assertEquals(1, publisher.stats().published());
+    }
+
+    @Test
+    void testGivenSubscriberOnAlias_whenHasSubscribers_thenTrueUntilConnectionBreaks() throws Exception {
+        RecordingEmitter byName = new RecordingEmitter();
+        publisher.register("city:london", byName);
+
+        assertTrue(publisher.hasSubscribers("id:2643743", Set.of("city:london")));
+        assertFalse(publisher.hasSubscribers("id:2988507", Set.of("city:paris")));
+
+        byName.failure = new IOException("Broken pipe");
+        publisher.publish("city:london", WeatherResponse.builder().city("London").build());
+        assertTrue(byName.completedWithError.await(5, TimeUnit.SECONDS));
+
+        assertFalse(publisher.hasSubscribers("id:2643743", Set.of("city:london")));
+    }
+
+    @Test
+    void testGivenSlowSubscriber_whenPublishBurst_thenBufferStaysBoundedAndOldestUpdatesAreDropped() throws Exception {
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.release = new CountDownLatch(1);
+        publisher.register("city:london", slow);
+
+        publisher.publish("city:london", WeatherResponse.builder().city("London").build());
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            publisher.publish("city:london", WeatherResponse.builder().city("London").build());
+        }
+        slow.release.countDown();
+
+        assertEquals(8, publisher.stats().dropped());
+        assertTrue(slow.sent.tryAcquire(3, 5, TimeUnit.SECONDS));
+        assertEquals(3, slow.attempts.get());
+    }
+
+    @Test
+    void testGivenBrokenConnection_whenPublish_thenRemoveSubscriber() throws Exception {
+        RecordingEmitter broken = new RecordingEmitter();
+        broken.failure = new IOException("Broken pipe");
+        publisher.register("city:london", broken);
+
+        publisher.publish("city:london", WeatherResponse.builder().city("London").build());
+
+        assertTrue(broken.completedWithError.await(5, TimeUnit.SECONDS));
+        assertEquals(0, publisher.stats().subscribers());
+        assertEquals(0, publisher.stats().locations());
+    }
+
+    @Test
+    void testGivenSubscriberLimitReached_whenSubscribe_thenRejectSubscription() {
+        WeatherUpdatePublisher limited = new WeatherUpdatePublisher(2, 1);
+        try {
+            assertNotNull(limited.subscribe("city:london"));
+            assertNull(limited.subscribe("city:paris"));
+            assertEquals(1, limited.stats().subscribers());
+        } finally {
+            limited.destroy();
+        }
+    }
+
+    private WeatherData createWeatherData(String locationKey) {
+        return WeatherData.builder()
+                .locationKey(locationKey)
+                .city("London")
+                .temperature(15.0)
+                .lastUpdated(LocalDateTime.now())
+                .build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final Semaphore sent = new Semaphore(0);
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completedWithError = new CountDownLatch(1);
+        private volatile CountDownLatch release;
+        private volatile IOException failure;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            attempts.incrementAndGet();
+            sending.countDown();
+            if (failure != null) {
+                throw failure;
+            }
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.release();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            completedWithError.countDown();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.demo.weatherdataapp.ratelimit;
+
+import com.demo.weatherdataapp.exception.RateLimitExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UpstreamRateLimiterTest {
+    private static final long ONE_TOKEN_AT_6000_PER_MINUTE = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testGivenExhaustedBucket_whenAcquireInteractiveWithoutWait_thenRejectAndReportFullUtilization() {
+        UpstreamRateLimiter limiter = new UpstreamRateLimiter(60, 3, 0, 0, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(RequestPriority.INTERACTIVE);
+        }
+
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(RequestPriority.INTERACTIVE));
+        assertEquals(1.0, limiter.stats().utilization());
+        assertEquals(3, limiter.stats().interactiveGranted());
+        assertEquals(1, limiter.stats().rejected());
+    }
+
+    @Test
+    void testGivenElapsedTime_whenAcquire_thenRefillAtConfiguredRate() {
+        UpstreamRateLimiter limiter = new UpstreamRateLimiter(60, 1, 0, 0, clock::get);
+        limiter.acquire(RequestPriority.INTERACTIVE);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(RequestPriority.INTERACTIVE));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertDoesNotThrow(() -> limiter.acquire(RequestPriority.INTERACTIVE));
+    }
+
+    @Test
+    void testGivenBackgroundBurst_whenBucketDrainsToReserve_thenDeferBackgroundButServeInteractive() throws Exception {
+        UpstreamRateLimiter limiter = new UpstreamRateLimiter(6000, 3, 1, 0, clock::get);
+        limiter.acquire(RequestPriority.BACKGROUND);
+        limiter.acquire(RequestPriority.BACKGROUND);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> deferred = executor.submit(() -> limiter.acquire(RequestPriority.BACKGROUND));
+            while (limiter.stats().backgroundWaiting() < 1) {
+                Thread.onSpinWait();
+            }
+
+            assertDoesNotThrow(() -> limiter.acquire(RequestPriority.INTERACTIVE));
+            assertFalse(deferred.isDone());
+
+            clock.addAndGet(3 * ONE_TOKEN_AT_6000_PER_MINUTE);
+            deferred.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(3, limiter.stats().backgroundGranted());
+        assertEquals(1, limiter.stats().waited());
+        assertEquals(0, limiter.stats().rejected());
+    }
+
+    @Test
+    void testGivenInteractiveAndBackgroundWaiting_whenTokenArrives_thenServeInteractiveFirst() throws Exception {
+        UpstreamRateLimiter limiter = new UpstreamRateLimiter(6000, 1, 0, 5000, clock::get);
+        limiter.acquire(RequestPriority.BACKGROUND);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> background = executor.submit(() -> limiter.acquire(RequestPriority.BACKGROUND));
+            Future<?> interactive = executor.submit(() -> limiter.acquire(RequestPriority.INTERACTIVE));
+            while (limiter.stats().backgroundWaiting() < 1 || limiter.stats().interactiveWaiting() < 1) {
+                Thread.onSpinWait();
+            }
+
+            clock.addAndGet(ONE_TOKEN_AT_6000_PER_MINUTE * 3 / 2);
+            interactive.get(5, TimeUnit.SECONDS);
+            assertFalse(background.isDone());
+
+            clock.addAndGet(ONE_TOKEN_AT_6000_PER_MINUTE);
+            background.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, limiter.stats().interactiveGranted());
+        assertEquals(2, limiter.stats().backgroundGranted());
+    }
+
+    @Test
+    void testGivenNoQuota_whenAcquire_thenNeverBlock() {
+        UpstreamRateLimiter limiter = new UpstreamRateLimiter(0, 0, 0, 0, clock::get);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire(RequestPriority.BACKGROUND);
+        }
+
+        assertEquals(100, limiter.stats().backgroundGranted());
+        assertEquals(0.0, limiter.stats().utilization());
+    }
+}
@@ -0,0 +1,127 @@
+package com.demo.weatherdataapp.repository;
+
+import com.demo.weatherdataapp.entity.WeatherDataHistory;
+import com.demo.weatherdataapp.repository.WeatherDataHistoryRepository.RetentionCutoff;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WeatherDataHistoryRepositoryTest {
+    @Autowired
+    private WeatherDataHistoryRepository repository;
+
+    @Test
+    void testGivenOldReadings_whenDeleteRecordedBefore_thenDeleteAtMostLimitRows() {
+        repository.deleteAll();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        repository.saveAll(List.of(
+                createHistory("city:london", now.minusDays(5)),
+                createHistory("city:london", now.minusDays(4)),
+                createHistory("city:london", now.minusDays(3)),
+                createHistory("city:london", now)
+        ));
+
+        int firstChunk = repository.deleteRecordedBefore(now.minusDays(1), 2);
+        int secondChunk = repository.deleteRecordedBefore(now.minusDays(1), 2);
+
+        assertEquals(2, firstChunk);
+        assertEquals(1, secondChunk);
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void testGivenManyReadingsPerLocation_whenDeleteOlderThanRetentionCutoffs_thenKeepLatestPerLocation() {
+        repository.deleteAll();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        repository.saveAll(List.of(
+                createHistory("city:london", now.minusHours(4)),
+                createHistory("city:london", now.minusHours(3)),
+                createHistory("city:london", now.minusHours(2)),
+                createHistory("city:london", now.minusHours(1)),
+                createHistory("city:paris", now.minusHours(2)),
+                createHistory("city:paris", now.minusHours(1))
+        ));
+
+        List<RetentionCutoff> cutoffs = repository.findRetentionCutoffs(2);
+
+        assertEquals(1, cutoffs.size());
+        RetentionCutoff london = cutoffs.getFirst();
+        assertEquals("city:london", london.getLocationKey());
+        assertEquals(now.minusHours(2), london.getRecordedAt());
+
+        int firstChunk = repository.deleteOlderThanCutoff(london.getLocationKey(), london.getRecordedAt(), london.getId(), 1);
+        int secondChunk = repository.deleteOlderThanCutoff(london.getLocationKey(), london.getRecordedAt(), london.getId(), 1);
+        int thirdChunk = repository.deleteOlderThanCutoff(london.getLocationKey(), london.getRecordedAt(), london.getId(), 1);
+
+        assertEquals(List.of(1, 1, 0), List.of(firstChunk, secondChunk, thirdChunk));
+        assertEquals(List.of(now.minusHours(1), now.minusHours(2)), recordedAtOf("city:london"));
+        assertEquals(2, recordedAtOf("city:paris").size());
+    }
+
+    @Test
+    void testGivenWatermark_whenFindByIdGreaterThan_thenReturnNextReadingsInIdOrder() {
+        repository.deleteAll();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<WeatherDataHistory> saved = repository.saveAll(List.of(
+                createHistory("city:london", now.minusHours(3)),
+                createHistory("city:paris", now.minusHours(2)),
+                createHistory("city:london", now.minusHours(1))
+        ));
+
+        List<WeatherDataHistory> actual = repository.findByIdGreaterThanOrderByIdAsc(saved.getFirst().getId(), Limit.of(1));
+
+        assertEquals(1, actual.size());
+        assertEquals(saved.get(1).getId(), actual.getFirst().getId());
+    }
+
+    @Test
+    @Transactional
+    void testGivenFilters_whenStreamForExport_thenStreamMatchingRowsInIdOrder() {
+        repository.deleteAll();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        WeatherDataHistory londonOld = createHistory("city:london", now.minusHours(3));
+        WeatherDataHistory londonRecent = createHistory("city:london", now.minusHours(1));
+        WeatherDataHistory paris = createHistory("city:paris", now.minusHours(1));
+        londonOld.setCountry("GB");
+        londonRecent.setCountry("GB");
+        paris.setCountry("FR");
+        repository.saveAll(List.of(londonOld, londonRecent, paris));
+
+        try (Stream<WeatherDataHistory> all = repository.streamForExport(null, null, null, null);
+             Stream<WeatherDataHistory> recentGb = repository.streamForExport("LONDON", "GB", now.minusHours(2), null)) {
+            assertEquals(3, all.count());
+            assertEquals(List.of(now.minusHours(1)), recentGb.map(WeatherDataHistory::getRecordedAt).toList());
+        }
+    }
+
+    private List<LocalDateTime> recordedAtOf(String locationKey) {
+        return repository.findAll().stream()
+                .filter(history -> history.getLocationKey().equals(locationKey))
+                .map(WeatherDataHistory::getRecordedAt)
+                .sorted(Comparator.reverseOrder())
+                .toList();
+    }
+
+    private WeatherDataHistory createHistory(String locationKey, LocalDateTime recordedAt) {
+        return WeatherDataHistory.builder()
+                .locationKey(locationKey)
+                .city(locationKey.substring(5))
+                .temperature(20.0)
+                .timestamp(recordedAt)
+                .recordedAt(recordedAt)
+                .build();
+    }
+}
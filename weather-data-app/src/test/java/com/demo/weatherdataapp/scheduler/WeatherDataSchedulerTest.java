@@ -1,19 +1,34 @@
 package com.demo.weatherdataapp.scheduler;
 
+import com.demo.weatherdataapp.dto.PurgeResult;
+import com.demo.weatherdataapp.dto.RollupResult;
+import com.demo.weatherdataapp.metrics.WeatherMetrics;
+import com.demo.weatherdataapp.service.WeatherCacheService;
+import com.demo.weatherdataapp.service.WeatherRollupService;
 import com.demo.weatherdataapp.service.WeatherService;
+import com.demo.weatherdataapp.tracking.LocationDemandTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -22,21 +37,41 @@ import static org.mockito.Mockito.when;
 class WeatherDataSchedulerTest {
     @Mock
     private WeatherService weatherService;
+    @Mock
+    private WeatherCacheService cacheService;
+    @Spy
+    private WeatherRefreshExecutor refreshExecutor = new WeatherRefreshExecutor(4);
+    @Mock
+    private WeatherRollupService rollupService;
+    @Mock
+    private LocationDemandTracker demandTracker;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private WeatherMetrics metrics = new WeatherMetrics(meterRegistry);
     @InjectMocks
     private WeatherDataScheduler scheduler;
 
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+
+            return true;
+        }).when(refreshExecutor).launch(anyString(), any());
+    }
+
     @Test
     void testRefreshAllWeatherData_whenCitiesAndZipCodesExist_thenRefreshAll() {
         List<String> cities = Arrays.asList("London", "Paris", "New York");
         List<String> zipCodes = Arrays.asList("94040", "10001", "75001");
 
-        when(weatherService.getAllTrackedCities()).thenReturn(cities);
-        when(weatherService.getAllTrackedZipCodes()).thenReturn(zipCodes);
+        when(weatherService.getTrackedCitiesWithoutUpstreamId()).thenReturn(cities);
+        when(weatherService.getTrackedZipCodesWithoutUpstreamId()).thenReturn(zipCodes);
 
         scheduler.refreshAllWeatherData();
 
-        verify(weatherService).getAllTrackedCities();
-        verify(weatherService).getAllTrackedZipCodes();
+        verify(weatherService).getTrackedCitiesWithoutUpstreamId();
+        verify(weatherService).getTrackedZipCodesWithoutUpstreamId();
         verify(weatherService).refreshWeatherDataForCity("London");
         verify(weatherService).refreshWeatherDataForCity("Paris");
         verify(weatherService).refreshWeatherDataForCity("New York");
@@ -47,25 +82,25 @@ class WeatherDataSchedulerTest {
 
     @Test
     void testRefreshAllWeatherData_whenNoCitiesOrZipCodes_thenNoRefresh() {
-        when(weatherService.getAllTrackedCities()).thenReturn(Collections.emptyList());
-        when(weatherService.getAllTrackedZipCodes()).thenReturn(Collections.emptyList());
+        when(weatherService.getTrackedCitiesWithoutUpstreamId()).thenReturn(Collections.emptyList());
+        when(weatherService.getTrackedZipCodesWithoutUpstreamId()).thenReturn(Collections.emptyList());
 
         scheduler.refreshAllWeatherData();
 
-        verify(weatherService).getAllTrackedCities();
-        verify(weatherService).getAllTrackedZipCodes();
+        verify(weatherService).getTrackedCitiesWithoutUpstreamId();
+        verify(weatherService).getTrackedZipCodesWithoutUpstreamId();
         verify(weatherService, never()).refreshWeatherDataForCity(anyString());
         verify(weatherService, never()).refreshWeatherDataForZipCode(anyString());
     }
 
     @Test
     void testRefreshAllWeatherData_whenExceptionInGettingCities_thenHandleGracefully() {
-        when(weatherService.getAllTrackedCities()).thenThrow(new RuntimeException("Database error"));
+        when(weatherService.getTrackedCitiesWithoutUpstreamId()).thenThrow(new RuntimeException("Database error"));
 
         assertDoesNotThrow(() -> scheduler.refreshAllWeatherData());
 
-        verify(weatherService).getAllTrackedCities();
-        verify(weatherService, never()).getAllTrackedZipCodes();
+        verify(weatherService).getTrackedCitiesWithoutUpstreamId();
+        verify(weatherService, never()).getTrackedZipCodesWithoutUpstreamId();
         verify(weatherService, never()).refreshWeatherDataForCity(anyString());
         verify(weatherService, never()).refreshWeatherDataForZipCode(anyString());
     }
@@ -75,8 +110,8 @@ class WeatherDataSchedulerTest {
         List<String> cities = Arrays.asList("London", "Paris", "Berlin");
         List<String> zipCodes = Collections.emptyList();
 
-        when(weatherService.getAllTrackedCities()).thenReturn(cities);
-        when(weatherService.getAllTrackedZipCodes()).thenReturn(zipCodes);
+        when(weatherService.getTrackedCitiesWithoutUpstreamId()).thenReturn(cities);
+        when(weatherService.getTrackedZipCodesWithoutUpstreamId()).thenReturn(zipCodes);
         doThrow(new RuntimeException("API error")).when(weatherService).refreshWeatherDataForCity("Paris");
 
         scheduler.refreshAllWeatherData();
@@ -86,13 +121,26 @@ class WeatherDataSchedulerTest {
         verify(weatherService).refreshWeatherDataForCity("Berlin");
     }
 
+    @Test
+    void testRefreshAllWeatherData_whenCityRefreshFails_thenRecordRunDurationAndLocationFailures() {
+        when(weatherService.getTrackedCitiesWithoutUpstreamId()).thenReturn(List.of("London", "Paris", "Berlin"));
+        when(weatherService.getTrackedZipCodesWithoutUpstreamId()).thenReturn(Collections.emptyList());
+        lenient().doThrow(new RuntimeException("API error")).when(weatherService).refreshWeatherDataForCity("Paris");
+
+        scheduler.refreshAllWeatherData();
+
+        assertEquals(1, meterRegistry.get(WeatherMetrics.SCHEDULER_RUNS).tags("job", "refresh", "outcome", "success").timer().count());
+        assertEquals(2.0, meterRegistry.get(WeatherMetrics.REFRESH_LOCATIONS).tags("run", "cities", "outcome", "success").counter().count());
+        assertEquals(1.0, meterRegistry.get(WeatherMetrics.REFRESH_LOCATIONS).tags("run", "cities", "outcome", "failure").counter().count());
+    }
+
     @Test
     void testRefreshAllWeatherData_whenExceptionInRefreshingZipCode_thenContinueWithOthers() {
         List<String> cities = Collections.emptyList();
         List<String> zipCodes = Arrays.asList("94040", "10001", "75001");
 
-        when(weatherService.getAllTrackedCities()).thenReturn(cities);
-        when(weatherService.getAllTrackedZipCodes()).thenReturn(zipCodes);
+        when(weatherService.getTrackedCitiesWithoutUpstreamId()).thenReturn(cities);
+        when(weatherService.getTrackedZipCodesWithoutUpstreamId()).thenReturn(zipCodes);
         doThrow(new RuntimeException("API error")).when(weatherService).refreshWeatherDataForZipCode("10001");
 
         scheduler.refreshAllWeatherData();
@@ -102,6 +150,122 @@ class WeatherDataSchedulerTest {
         verify(weatherService).refreshWeatherDataForZipCode("75001");
     }
 
+    @Test
+    void testRefreshAllWeatherData_whenUpstreamIdsTracked_thenRefreshInGroupsOfConfiguredSize() {
+        ReflectionTestUtils.setField(scheduler, "groupSize", 20);
+        List<Long> upstreamIds = LongStream.rangeClosed(1, 45).boxed().toList();
+
+        when(weatherService.getAllTrackedUpstreamIds()).thenReturn(upstreamIds);
+
+        scheduler.refreshAllWeatherData();
+
+        verify(weatherService).refreshWeatherDataForUpstreamIds(upstreamIds.subList(0, 20));
+        verify(weatherService).refreshWeatherDataForUpstreamIds(upstreamIds.subList(20, 40));
+        verify(weatherService).refreshWeatherDataForUpstreamIds(upstreamIds.subList(40, 45));
+        verify(weatherService, never()).refreshWeatherDataForCity(anyString());
+    }
+
+    @Test
+    void testRefreshAllWeatherData_whenGroupResponseMissesIds_thenCountMissingIdsAsFailures() {
+        ReflectionTestUtils.setField(scheduler, "groupSize", 20);
+        List<Long> upstreamIds = List.of(1L, 2L, 3L);
+
+        when(weatherService.getAllTrackedUpstreamIds()).thenReturn(upstreamIds);
+        when(weatherService.refreshWeatherDataForUpstreamIds(upstreamIds)).thenReturn(List.of(2L));
+
+        scheduler.refreshAllWeatherData();
+
+        assertEquals(2, meterRegistry.get(WeatherMetrics.REFRESH_LOCATIONS)
+                .tags("run", "upstream id groups", "outcome", "success").counter().count());
+        assertEquals(1, meterRegistry.get(WeatherMetrics.REFRESH_LOCATIONS)
+                .tags("run", "upstream id groups", "outcome", "failure").counter().count());
+    }
+
+    @Test
+    void testRefreshAllWeatherData_whenInactiveLocationsExist_thenUntrackBeforeRefresh() {
+        when(weatherService.untrackInactiveLocations()).thenReturn(2);
+        when(weatherService.getTrackedCitiesWithoutUpstreamId()).thenReturn(List.of("London"));
+        when(weatherService.getTrackedZipCodesWithoutUpstreamId()).thenReturn(Collections.emptyList());
+
+        scheduler.refreshAllWeatherData();
+
+        verify(weatherService).untrackInactiveLocations();
+        verify(weatherService).refreshWeatherDataForCity("London");
+    }
+
+    @Test
+    void testRefreshHotLocations_whenHotLocationsExist_thenRefreshEachByLocationKey() {
+        when(demandTracker.hotLocationKeys()).thenReturn(List.of("city:london", "zip:94040,US"));
+
+        scheduler.refreshHotLocations();
+
+        verify(weatherService).refreshWeatherDataForLocationKey("city:london");
+        verify(weatherService).refreshWeatherDataForLocationKey("zip:94040,US");
+    }
+
+    @Test
+    void testRefreshHotLocations_whenHotUpstreamIdsExist_thenRefreshThemInGroups() {
+        ReflectionTestUtils.setField(scheduler, "groupSize", 2);
+        when(demandTracker.hotLocationKeys()).thenReturn(List.of("id:1", "city:london", "id:2", "id:3"));
+
+        scheduler.refreshHotLocations();
+
+        verify(weatherService).refreshWeatherDataForUpstreamIds(List.of(1L, 2L));
+        verify(weatherService).refreshWeatherDataForUpstreamIds(List.of(3L));
+        verify(weatherService).refreshWeatherDataForLocationKey("city:london");
+        verify(weatherService, never()).refreshWeatherDataForLocationKey("id:1");
+    }
+
+    @Test
+    void testRefreshAllWeatherData_whenCalledFromScheduler_thenLaunchRunOffSchedulerThread() {
+        scheduler.refreshAllWeatherData();
+        scheduler.refreshHotLocations();
+
+        verify(refreshExecutor).launch(eq("refresh"), any());
+        verify(refreshExecutor).launch(eq("hot-refresh"), any());
+    }
+
+    @Test
+    void testRefreshHotLocations_whenNoHotLocations_thenNoRefresh() {
+        when(demandTracker.hotLocationKeys()).thenReturn(Collections.emptyList());
+
+        scheduler.refreshHotLocations();
+
+        verify(weatherService, never()).refreshWeatherDataForLocationKey(anyString());
+    }
+
+    @Test
+    void testPurgeExpiredData_whenCalled_thenCleanupExpiredCache() {
+        when(cacheService.cleanupExpiredCache()).thenReturn(new PurgeResult(10, 2, 3, 5, true));
+
+        scheduler.purgeExpiredData();
+
+        verify(cacheService).cleanupExpiredCache();
+    }
+
+    @Test
+    void testPurgeExpiredData_whenException_thenHandleGracefully() {
+        when(cacheService.cleanupExpiredCache()).thenThrow(new RuntimeException("Database error"));
+
+        assertDoesNotThrow(() -> scheduler.purgeExpiredData());
+    }
+
+    @Test
+    void testRollupHistory_whenCalled_thenRollupNewReadings() {
+        when(rollupService.rollupNewReadings()).thenReturn(new RollupResult(12, 4, 42L, true));
+
+        scheduler.rollupHistory();
+
+        verify(rollupService).rollupNewReadings();
+    }
+
+    @Test
+    void testRollupHistory_whenException_thenHandleGracefully() {
+        when(rollupService.rollupNewReadings()).thenThrow(new RuntimeException("Database error"));
+
+        assertDoesNotThrow(() -> scheduler.rollupHistory());
+    }
+
     @Test
     void testSystemHealthCheck_whenSuccessful_thenLogCitiesCount() {
         List<String> cities = Arrays.asList("London", "Paris");
@@ -0,0 +1,117 @@
+package com.demo.weatherdataapp.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeatherRefreshExecutorTest {
+    @Test
+    void testGivenLocations_whenRefresh_thenReportSuccessesAndFailures() {
+        WeatherRefreshExecutor executor = new WeatherRefreshExecutor(4);
+        List<String> cities = List.of("London", "Paris", "Berlin", "Madrid");
+
+        RefreshRunStats stats = executor.refresh("cities", cities, city -> {
+            if ("Paris".equals(city)) {
+                throw new IllegalStateException("API error");
+            }
+        });
+
+        assertEquals("cities", stats.runName());
+        assertEquals(4, stats.total());
+        assertEquals(3, stats.successes());
+        assertEquals(1, stats.failures());
+        assertTrue(stats.p99Latency().compareTo(stats.p50Latency()) >= 0);
+    }
+
+    @Test
+    void testGivenGroups_whenRefreshGroups_thenCountEachMemberAndFailMissingOrFailedMembers() {
+        WeatherRefreshExecutor executor = new WeatherRefreshExecutor(4);
+        List<List<Long>> groups = List.of(List.of(1L, 2L, 3L), List.of(4L, 5L), List.of(6L));
+
+        RefreshRunStats stats = executor.refreshGroups("upstream id groups", groups, group -> {
+            if (group.contains(6L)) {
+                throw new IllegalStateException("API error");
+            }
+
+            return group.contains(1L) ? 1 : 0;
+        });
+
+        assertEquals(6, stats.total());
+        assertEquals(4, stats.successes());
+        assertEquals(2, stats.failures());
+    }
+
+    @Test
+    void testGivenBlockedRun_whenLaunch_thenReturnImmediatelyAndSkipOverlappingRun() throws Exception {
+        WeatherRefreshExecutor executor = new WeatherRefreshExecutor(4);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(executor.launch("refresh", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            awaitQuietly(release);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertFalse(executor.launch("refresh", runs::incrementAndGet));
+        assertTrue(executor.isRunning("refresh"));
+
+        release.countDown();
+        while (executor.isRunning("refresh")) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void testGivenMaxConcurrency_whenRefresh_thenNeverExceedLimit() {
+        WeatherRefreshExecutor executor = new WeatherRefreshExecutor(2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        List<String> cities = IntStream.range(0, 20).mapToObj(i -> "City" + i).toList();
+
+        RefreshRunStats stats = executor.refresh("cities", cities, city -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            sleep(10);
+            active.decrementAndGet();
+        });
+
+        assertEquals(20, stats.successes());
+        assertTrue(maxActive.get() <= 2);
+    }
+
+    @Test
+    void testGivenSortedLatencies_whenPercentile_thenUseNearestRank() {
+        long[] latencies = IntStream.rangeClosed(1, 100).asLongStream().toArray();
+
+        assertEquals(50, WeatherRefreshExecutor.percentile(latencies, 50));
+        assertEquals(99, WeatherRefreshExecutor.percentile(latencies, 99));
+        assertEquals(0, WeatherRefreshExecutor.percentile(new long[0], 99));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
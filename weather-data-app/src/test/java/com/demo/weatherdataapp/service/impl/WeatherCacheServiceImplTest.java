@@ -1,28 +1,57 @@
 package com.demo.weatherdataapp.service.impl;
 
+import com.demo.weatherdataapp.cache.LocationResolver;
+import com.demo.weatherdataapp.cache.WeatherL1Cache;
+import com.demo.weatherdataapp.dto.EncodedWeatherResponse;
+import com.demo.weatherdataapp.dto.PurgeResult;
 import com.demo.weatherdataapp.dto.WeatherRequest;
 import com.demo.weatherdataapp.entity.WeatherData;
+import com.demo.weatherdataapp.entity.WeatherDataHistory;
+import com.demo.weatherdataapp.geo.CoordinateIndex;
+import com.demo.weatherdataapp.geo.GeoPoint;
+import com.demo.weatherdataapp.history.RecentReadingsStore;
+import com.demo.weatherdataapp.mapper.WeatherResponseEncoder;
+import com.demo.weatherdataapp.metrics.WeatherMetrics;
+import com.demo.weatherdataapp.push.WeatherDataSavedEvent;
+import com.demo.weatherdataapp.repository.WeatherDataHistoryRepository;
+import com.demo.weatherdataapp.repository.WeatherDataHistoryRepository.RetentionCutoff;
 import com.demo.weatherdataapp.repository.WeatherDataRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -32,12 +61,36 @@ import static org.mockito.Mockito.when;
 class WeatherCacheServiceImplTest {
     @Mock
     private WeatherDataRepository weatherDataRepository;
+    @Mock
+    private WeatherDataHistoryRepository weatherDataHistoryRepository;
+    @Spy
+    private WeatherL1Cache l1Cache = new WeatherL1Cache(100, 30);
+    @Spy
+    private CoordinateIndex coordinateIndex = new CoordinateIndex(10);
+    @Spy
+    private LocationResolver locationResolver = new LocationResolver(100);
+    @Spy
+    private WeatherResponseEncoder responseEncoder = new WeatherResponseEncoder(new ObjectMapper());
+    @Spy
+    private RecentReadingsStore recentReadingsStore = new RecentReadingsStore(8, 100);
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private WeatherMetrics metrics = new WeatherMetrics(new SimpleMeterRegistry());
     @InjectMocks
     private WeatherCacheServiceImpl service;
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
         ReflectionTestUtils.setField(service, "cacheValidityMinutes", 30);
+        ReflectionTestUtils.setField(service, "historyRetentionHours", 48);
+        ReflectionTestUtils.setField(service, "keepPerLocation", 3);
+        ReflectionTestUtils.setField(service, "purgeChunkSize", 2);
+        ReflectionTestUtils.setField(service, "purgeTimeBudgetMillis", 5000L);
     }
 
     @Test
@@ -50,13 +103,102 @@ class WeatherCacheServiceImplTest {
                 .lastUpdated(LocalDateTime.now())
                 .build();
 
-        when(weatherDataRepository.findLatestByCityIgnoreCase(city)).thenReturn(Optional.of(mockWeatherData));
+        when(weatherDataRepository.findByLocationKey("city:london")).thenReturn(Optional.of(mockWeatherData));
+
+        Optional<WeatherData> actual = service.getCachedWeatherData(request);
+
+        assertTrue(actual.isPresent());
+        assertEquals(city, actual.get().getCity());
+        verify(weatherDataRepository, times(1)).findByLocationKey("city:london");
+    }
+
+    @Test
+    void testGivenCachedCity_whenGetCachedWeatherDataTwice_thenQueryDatabaseOnce() {
+        String city = "London";
+        WeatherRequest request = new WeatherRequest();
+        request.setCity(city);
+        WeatherData mockWeatherData = WeatherData.builder()
+                .city(city)
+                .lastUpdated(LocalDateTime.now())
+                .build();
+
+        when(weatherDataRepository.findByLocationKey("city:london")).thenReturn(Optional.of(mockWeatherData));
 
+        service.getCachedWeatherData(request);
+        request.setCity(" london ");
         Optional<WeatherData> actual = service.getCachedWeatherData(request);
 
         assertTrue(actual.isPresent());
         assertEquals(city, actual.get().getCity());
-        verify(weatherDataRepository, times(1)).findLatestByCityIgnoreCase(city);
+        verify(weatherDataRepository, times(1)).findByLocationKey(anyString());
+        assertEquals(1, l1Cache.stats().hits());
+    }
+
+    @Test
+    void testGivenSavedWeatherData_whenGetEncodedResponse_thenReuseBytesUntilNextSave() {
+        WeatherData paris = WeatherData.builder()
+                .city("Paris")
+                .temperature(18.0)
+                .build();
+
+        when(weatherDataRepository.save(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        WeatherData saved = service.saveToCache(paris);
+        EncodedWeatherResponse first = service.getEncodedResponse(saved);
+        WeatherData fromL1 = service.getCachedWeatherDataByKeys(List.of("city:paris")).get("city:paris");
+        EncodedWeatherResponse second = service.getEncodedResponse(fromL1);
+
+        assertSame(first, second);
+        assertTrue(new String(first.json(), StandardCharsets.UTF_8).contains("\"temperature\":18.0"));
+        verify(responseEncoder, times(1)).encode(any(), any());
+
+        WeatherData updated = WeatherData.builder()
+                .city("Paris")
+                .temperature(21.0)
+                .build();
+        EncodedWeatherResponse afterSave = service.getEncodedResponse(service.saveToCache(updated));
+
+        assertNotSame(first, afterSave);
+        assertTrue(new String(afterSave.json(), StandardCharsets.UTF_8).contains("\"temperature\":21.0"));
+    }
+
+    @Test
+    void testGivenSavedWeatherData_whenGetCachedWeatherData_thenServeFromL1Cache() {
+        WeatherData inputWeatherData = WeatherData.builder()
+                .locationKey("city:paris")
+                .city("Paris")
+                .build();
+
+        when(weatherDataRepository.save(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.saveToCache(inputWeatherData);
+
+        WeatherRequest request = new WeatherRequest();
+        request.setCity("Paris");
+        Optional<WeatherData> actual = service.getCachedWeatherData(request);
+
+        assertTrue(actual.isPresent());
+        assertEquals("Paris", actual.get().getCity());
+        verify(weatherDataRepository, times(1)).findByLocationKey(anyString());
+    }
+
+    @Test
+    void testGivenLocationKeys_whenGetCachedWeatherDataByKeys_thenQueryOnlyL1MissesInOneCall() {
+        l1Cache.put("city:london", WeatherData.builder().city("London").lastUpdated(LocalDateTime.now()).build());
+        WeatherData paris = WeatherData.builder()
+                .locationKey("city:paris")
+                .city("Paris")
+                .lastUpdated(LocalDateTime.now())
+                .build();
+
+        when(weatherDataRepository.findByLocationKeyIn(List.of("city:paris", "city:berlin"))).thenReturn(List.of(paris));
+
+        Map<String, WeatherData> actual = service.getCachedWeatherDataByKeys(List.of("city:london", "city:paris", "city:berlin"));
+
+        assertEquals(2, actual.size());
+        assertEquals("London", actual.get("city:london").getCity());
+        assertEquals("Paris", actual.get("city:paris").getCity());
+        verify(weatherDataRepository, times(1)).findByLocationKeyIn(List.of("city:paris", "city:berlin"));
     }
 
     @Test
@@ -74,13 +216,13 @@ class WeatherCacheServiceImplTest {
                 .lastUpdated(LocalDateTime.now())
                 .build();
 
-        when(weatherDataRepository.findLatestByZipCode(expectedZipQuery)).thenReturn(Optional.of(mockWeatherData));
+        when(weatherDataRepository.findByLocationKey("zip:" + expectedZipQuery)).thenReturn(Optional.of(mockWeatherData));
 
         Optional<WeatherData> actual = service.getCachedWeatherData(request);
 
         assertTrue(actual.isPresent());
         assertEquals(expectedZipQuery, actual.get().getZipCode());
-        verify(weatherDataRepository, times(1)).findLatestByZipCode(expectedZipQuery);
+        verify(weatherDataRepository, times(1)).findByLocationKey("zip:" + expectedZipQuery);
     }
 
     @Test
@@ -93,12 +235,12 @@ class WeatherCacheServiceImplTest {
                 .zipCode(expectedZipQuery)
                 .build();
 
-        when(weatherDataRepository.findLatestByZipCode(expectedZipQuery)).thenReturn(Optional.of(mockWeatherData));
+        when(weatherDataRepository.findByLocationKey("zip:" + expectedZipQuery)).thenReturn(Optional.of(mockWeatherData));
 
         Optional<WeatherData> actual = service.getCachedWeatherData(request);
 
         assertTrue(actual.isPresent());
-        verify(weatherDataRepository, times(1)).findLatestByZipCode(expectedZipQuery);
+        verify(weatherDataRepository, times(1)).findByLocationKey("zip:" + expectedZipQuery);
     }
 
     @Test
@@ -108,8 +250,7 @@ class WeatherCacheServiceImplTest {
         Optional<WeatherData> actual = service.getCachedWeatherData(request);
 
         assertTrue(actual.isEmpty());
-        verify(weatherDataRepository, never()).findLatestByCityIgnoreCase(anyString());
-        verify(weatherDataRepository, never()).findLatestByZipCode(anyString());
+        verify(weatherDataRepository, never()).findByLocationKey(anyString());
     }
 
     @Test
@@ -134,6 +275,37 @@ class WeatherCacheServiceImplTest {
         assertFalse(isValid);
     }
 
+    @Test
+    void testGivenStaleWhileRevalidateEnabledAndRecentlyExpiredData_whenIsServableStale_thenReturnTrue() {
+        ReflectionTestUtils.setField(service, "staleWhileRevalidateEnabled", true);
+        ReflectionTestUtils.setField(service, "maxStaleFactor", 2);
+        WeatherData weatherData = WeatherData.builder()
+                .lastUpdated(LocalDateTime.now().minusMinutes(45))
+                .build();
+
+        assertTrue(service.isServableStale(weatherData));
+    }
+
+    @Test
+    void testGivenStaleWhileRevalidateEnabledAndTooOldData_whenIsServableStale_thenReturnFalse() {
+        ReflectionTestUtils.setField(service, "staleWhileRevalidateEnabled", true);
+        ReflectionTestUtils.setField(service, "maxStaleFactor", 2);
+        WeatherData weatherData = WeatherData.builder()
+                .lastUpdated(LocalDateTime.now().minusMinutes(75))
+                .build();
+
+        assertFalse(service.isServableStale(weatherData));
+    }
+
+    @Test
+    void testGivenStaleWhileRevalidateDisabled_whenIsServableStale_thenReturnFalse() {
+        WeatherData weatherData = WeatherData.builder()
+                .lastUpdated(LocalDateTime.now().minusMinutes(45))
+                .build();
+
+        assertFalse(service.isServableStale(weatherData));
+    }
+
     @Test
     void testGivenWeatherDataWithNullLastUpdated_whenIsCacheValid_thenReturnFalse() {
         WeatherData weatherData = WeatherData.builder()
@@ -174,30 +346,267 @@ class WeatherCacheServiceImplTest {
         assertEquals("London", actual.getCity());
         assertNotNull(inputWeatherData.getLastUpdated());
         verify(weatherDataRepository, times(1)).save(any(WeatherData.class));
+        verify(weatherDataHistoryRepository, times(1)).save(any(WeatherDataHistory.class));
+    }
+
+    @Test
+    void testGivenConcurrentFirstInsert_whenSaveToCache_thenRetryAsUpdateOfWinningRow() {
+        WeatherData winner = WeatherData.builder()
+                .id(9L)
+                .locationKey("city:london")
+                .city("London")
+                .lastUpdated(LocalDateTime.now())
+                .build();
+        WeatherData inputWeatherData = WeatherData.builder()
+                .locationKey("city:london")
+                .city("London")
+                .temperature(18.0)
+                .build();
+
+        when(weatherDataRepository.findByLocationKey("city:london")).thenReturn(Optional.empty(), Optional.of(winner));
+        when(weatherDataRepository.save(any(WeatherData.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate location_key"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        WeatherData actual = service.saveToCache(inputWeatherData);
+
+        assertEquals(9L, actual.getId());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(weatherDataHistoryRepository, times(1)).save(any(WeatherDataHistory.class));
+        verify(eventPublisher, times(1)).publishEvent(any(WeatherDataSavedEvent.class));
+        assertEquals(Optional.of(actual), l1Cache.get("city:london"));
+    }
+
+    @Test
+    void testGivenExistingLocation_whenSaveToCache_thenUpsertCurrentRowAndAppendHistory() {
+        WeatherData existing = WeatherData.builder()
+                .id(7L)
+                .locationKey("city:london")
+                .city("London")
+                .lastUpdated(LocalDateTime.now().minusMinutes(40))
+                .build();
+        WeatherData inputWeatherData = WeatherData.builder()
+                .locationKey("city:london")
+                .city("London")
+                .temperature(18.0)
+                .build();
+        ArgumentCaptor<WeatherDataHistory> historyCaptor = ArgumentCaptor.forClass(WeatherDataHistory.class);
+
+        when(weatherDataRepository.findByLocationKey("city:london")).thenReturn(Optional.of(existing));
+        when(weatherDataRepository.save(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        WeatherData actual = service.saveToCache(inputWeatherData);
+
+        assertEquals(7L, actual.getId());
+        verify(weatherDataHistoryRepository).save(historyCaptor.capture());
+        assertEquals("city:london", historyCaptor.getValue().getLocationKey());
+        assertEquals(18.0, historyCaptor.getValue().getTemperature());
+        assertEquals(actual.getLastUpdated(), historyCaptor.getValue().getRecordedAt());
+        assertEquals(1, recentReadingsStore.summarize("city:london", 1).getSamples());
+        verify(eventPublisher).publishEvent(new WeatherDataSavedEvent(actual));
     }
 
     @Test
-    void testGivenExpiredCache_whenCleanupExpiredCache_thenDeleteExpiredData() {
-        List<WeatherData> expiredData = Arrays.asList(
-                WeatherData.builder().id(1L).city("Old City 1").build(),
-                WeatherData.builder().id(2L).city("Old City 2").build()
-        );
+    void testGivenSnapshot_whenWarmUp_thenInsertMissingLocationsWithoutHistoryAndFillL1() {
+        LocalDateTime now = LocalDateTime.now();
+        WeatherData existing = WeatherData.builder().id(1L).locationKey("city:london").city("London").lastUpdated(now).build();
+        WeatherData londonSnapshot = WeatherData.builder().id(7L).city("London").lastUpdated(now.minusMinutes(5)).build();
+        WeatherData parisSnapshot = WeatherData.builder().id(8L).city("Paris").lastUpdated(now.minusMinutes(5)).build();
+
+        when(weatherDataRepository.findByLocationKeyIn(any())).thenReturn(List.of(existing));
+        when(weatherDataRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        int actual = service.warmUp(List.of(londonSnapshot, parisSnapshot), Map.of());
+
+        assertEquals(1, actual);
+        ArgumentCaptor<List<WeatherData>> captor = ArgumentCaptor.forClass(List.class);
+        verify(weatherDataRepository).saveAll(captor.capture());
+        assertEquals(List.of(parisSnapshot), captor.getValue());
+        assertNull(parisSnapshot.getId());
+        assertEquals("city:paris", parisSnapshot.getLocationKey());
+        assertEquals(Optional.of(existing), l1Cache.get("city:london"));
+        assertEquals(Optional.of(parisSnapshot), l1Cache.get("city:paris"));
+        verify(weatherDataHistoryRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testGivenLocationKeys_whenEvict_thenDeleteCurrentRowsAndInvalidateL1AndRecentReadings() {
+        WeatherData london = WeatherData.builder().locationKey("city:london").city("London").lastUpdated(LocalDateTime.now()).build();
+        l1Cache.put("city:london", london);
+        recentReadingsStore.record(london);
 
-        when(weatherDataRepository.findDataOlderThan(any(LocalDateTime.class))).thenReturn(expiredData);
+        when(weatherDataRepository.deleteByLocationKeyIn(List.of("city:london", "city:londn"))).thenReturn(2);
 
-        service.cleanupExpiredCache();
+        int actual = service.evict(List.of("city:london", "city:londn"));
 
-        verify(weatherDataRepository, times(1)).findDataOlderThan(any(LocalDateTime.class));
-        verify(weatherDataRepository, times(1)).deleteAll(expiredData);
+        assertEquals(2, actual);
+        assertEquals(0, l1Cache.size());
+        assertEquals(0, recentReadingsStore.trackedLocations());
     }
 
     @Test
-    void testGivenNoExpiredCache_whenCleanupExpiredCache_thenDoNothing() {
-        when(weatherDataRepository.findDataOlderThan(any(LocalDateTime.class))).thenReturn(List.of());
+    void testGivenSavedReadingWithCoordinates_whenFindNearestValidWeatherData_thenReturnItUntilEvicted() {
+        WeatherData london = WeatherData.builder()
+                .locationKey("city:london")
+                .city("London")
+                .latitude(51.5085)
+                .longitude(-0.1257)
+                .build();
 
-        service.cleanupExpiredCache();
+        when(weatherDataRepository.save(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(weatherDataRepository.deleteByLocationKeyIn(List.of("city:london"))).thenReturn(1);
+
+        service.saveToCache(london);
+
+        assertEquals(Optional.of(london), service.findNearestValidWeatherData(new GeoPoint(51.52, -0.1)));
+        assertTrue(service.findNearestValidWeatherData(new GeoPoint(48.8534, 2.3488)).isEmpty());
+
+        service.evict(List.of("city:london"));
+
+        assertTrue(service.findNearestValidWeatherData(new GeoPoint(51.52, -0.1)).isEmpty());
+        assertEquals(0, coordinateIndex.size());
+    }
 
-        verify(weatherDataRepository, times(1)).findDataOlderThan(any(LocalDateTime.class));
+    @Test
+    void testGivenExpiredNearestReading_whenFindNearestValidWeatherData_thenFallBackToNextFreshReading() {
+        LocalDateTime now = LocalDateTime.now();
+        WeatherData expired = WeatherData.builder().locationKey("coord:51.52,-0.10").city("London")
+                .latitude(51.52).longitude(-0.10).lastUpdated(now.minusMinutes(45)).build();
+        WeatherData fresh = WeatherData.builder().locationKey("city:london").city("London")
+                .latitude(51.5085).longitude(-0.1257).lastUpdated(now).build();
+        coordinateIndex.put("coord:51.52,-0.10", new GeoPoint(51.52, -0.10));
+        coordinateIndex.put("city:london", new GeoPoint(51.5085, -0.1257));
+
+        when(weatherDataRepository.findByLocationKeyIn(List.of("coord:51.52,-0.10", "city:london")))
+                .thenReturn(List.of(expired, fresh));
+
+        Optional<WeatherData> actual = service.findNearestValidWeatherData(new GeoPoint(51.52, -0.10));
+
+        assertEquals(Optional.of(fresh), actual);
+    }
+
+    @Test
+    void testGivenAliasedZipCode_whenGetCachedWeatherData_thenReadCanonicalRow() {
+        WeatherData london = WeatherData.builder()
+                .locationKey("id:2643743")
+                .upstreamId(2643743L)
+                .city("London")
+                .country("GB")
+                .lastUpdated(LocalDateTime.now())
+                .build();
+        locationResolver.canonicalize("zip:EC1A,GB", london);
+        WeatherRequest request = new WeatherRequest();
+        request.setZipCode("EC1A");
+        request.setCountry("GB");
+
+        when(weatherDataRepository.findByLocationKey("id:2643743")).thenReturn(Optional.of(london));
+
+        assertEquals(Optional.of(london), service.getCachedWeatherData(request));
+    }
+
+    @Test
+    void testGivenLegacySnapshotRowsWithUpstreamId_whenWarmUp_thenRekeyToCanonicalLocationAndAliasOldKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        WeatherData byCity = WeatherData.builder().locationKey("city:london").upstreamId(2643743L)
+                .city("London").country("GB").lastUpdated(now.minusMinutes(10)).build();
+        WeatherData byZip = WeatherData.builder().locationKey("zip:EC1A,GB").upstreamId(2643743L)
+                .city("London").country("GB").zipCode("EC1A").lastUpdated(now.minusMinutes(5)).build();
+
+        when(weatherDataRepository.findByLocationKeyIn(any())).thenReturn(List.of());
+        when(weatherDataRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        int actual = service.warmUp(List.of(byCity, byZip), Map.of());
+
+        assertEquals(1, actual);
+        assertEquals(Optional.of(byZip), l1Cache.get("id:2643743"));
+        assertEquals("id:2643743", locationResolver.resolve("city:london"));
+        assertEquals("id:2643743", locationResolver.resolve("zip:EC1A,GB"));
+    }
+
+    @Test
+    void testGivenSnapshotAliases_whenWarmUp_thenRestoreAliasesOfWarmedLocationsOnly() {
+        WeatherData london = WeatherData.builder().locationKey("id:2643743").upstreamId(2643743L)
+                .city("London").country("GB").lastUpdated(LocalDateTime.now()).build();
+
+        when(weatherDataRepository.findByLocationKeyIn(any())).thenReturn(List.of());
+        when(weatherDataRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.warmUp(List.of(london), Map.of("city:london", "id:2643743", "city:paris", "id:2988507"));
+
+        assertEquals("id:2643743", locationResolver.resolve("city:london"));
+        assertEquals("city:paris", locationResolver.resolve("city:paris"));
+    }
+
+    @Test
+    void testGivenAliasedLocation_whenSaveToCache_thenPublishEventWithAliases() {
+        WeatherData london = WeatherData.builder().upstreamId(2643743L).city("London").country("GB").build();
+        london.setLocationKey(locationResolver.canonicalize("city:london", london));
+
+        when(weatherDataRepository.save(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.saveToCache(london);
+
+        verify(eventPublisher).publishEvent(new WeatherDataSavedEvent(london, Set.of("city:london", "city:london,gb")));
+    }
+
+    @Test
+    void testGivenExpiredHistory_whenCleanupExpiredCache_thenDeleteInChunksUntilDrained() {
+        when(weatherDataHistoryRepository.deleteRecordedBefore(any(LocalDateTime.class), eq(2))).thenReturn(2, 2, 1);
+        when(weatherDataHistoryRepository.findRetentionCutoffs(3)).thenReturn(List.of());
+
+        PurgeResult actual = service.cleanupExpiredCache();
+
+        assertEquals(5, actual.expiredRowsDeleted());
+        assertEquals(0, actual.excessRowsDeleted());
+        assertEquals(3, actual.chunks());
+        assertTrue(actual.completed());
+        verify(weatherDataHistoryRepository, times(3)).deleteRecordedBefore(any(LocalDateTime.class), eq(2));
+        verify(weatherDataHistoryRepository, times(1)).findRetentionCutoffs(3);
+        verify(weatherDataHistoryRepository, never()).findAll();
+    }
+
+    @Test
+    void testGivenLocationsOverKeepLimit_whenCleanupExpiredCache_thenRankOnceAndDeleteEachLocationInChunks() {
+        LocalDateTime londonCutoff = LocalDateTime.now().minusHours(1);
+        LocalDateTime parisCutoff = LocalDateTime.now().minusHours(2);
+        when(weatherDataHistoryRepository.deleteRecordedBefore(any(LocalDateTime.class), eq(2))).thenReturn(0);
+        when(weatherDataHistoryRepository.findRetentionCutoffs(3)).thenReturn(List.of(
+                cutoff("city:london", londonCutoff, 40L), cutoff("city:paris", parisCutoff, 30L)));
+        when(weatherDataHistoryRepository.deleteOlderThanCutoff("city:london", londonCutoff, 40L, 2)).thenReturn(2, 1);
+        when(weatherDataHistoryRepository.deleteOlderThanCutoff("city:paris", parisCutoff, 30L, 2)).thenReturn(1);
+
+        PurgeResult actual = service.cleanupExpiredCache();
+
+        assertEquals(4, actual.excessRowsDeleted());
+        assertEquals(4, actual.chunks());
+        assertTrue(actual.completed());
+        verify(weatherDataHistoryRepository, times(1)).findRetentionCutoffs(3);
+        verify(weatherDataHistoryRepository, times(2)).deleteOlderThanCutoff("city:london", londonCutoff, 40L, 2);
+    }
+
+    @Test
+    void testGivenExhaustedTimeBudget_whenCleanupExpiredCache_thenStopAndReportIncomplete() {
+        ReflectionTestUtils.setField(service, "purgeTimeBudgetMillis", 0L);
+        when(weatherDataHistoryRepository.deleteRecordedBefore(any(LocalDateTime.class), eq(2))).thenReturn(2);
+
+        PurgeResult actual = service.cleanupExpiredCache();
+
+        assertEquals(2, actual.rowsDeleted());
+        assertFalse(actual.completed());
+        verify(weatherDataHistoryRepository, times(1)).deleteRecordedBefore(any(LocalDateTime.class), eq(2));
+        verify(weatherDataHistoryRepository, never()).findRetentionCutoffs(anyInt());
+    }
+
+    @Test
+    void testGivenNoExpiredHistory_whenCleanupExpiredCache_thenDeleteNothing() {
+        when(weatherDataHistoryRepository.deleteRecordedBefore(any(LocalDateTime.class), eq(2))).thenReturn(0);
+        when(weatherDataHistoryRepository.findRetentionCutoffs(3)).thenReturn(List.of());
+
+        PurgeResult actual = service.cleanupExpiredCache();
+
+        assertEquals(0, actual.rowsDeleted());
+        assertTrue(actual.completed());
         verify(weatherDataRepository, never()).deleteAll(anyList());
     }
 
@@ -207,12 +616,12 @@ class WeatherCacheServiceImplTest {
         WeatherRequest request = new WeatherRequest();
         request.setCity(city);
 
-        when(weatherDataRepository.findLatestByCityIgnoreCase(city)).thenThrow(new RuntimeException("Database error"));
+        when(weatherDataRepository.findByLocationKey("city:london")).thenThrow(new RuntimeException("Database error"));
 
         Optional<WeatherData> actual = service.getCachedWeatherData(request);
 
         assertTrue(actual.isEmpty());
-        verify(weatherDataRepository, times(1)).findLatestByCityIgnoreCase(city);
+        verify(weatherDataRepository, times(1)).findByLocationKey("city:london");
     }
 
     @Test
@@ -223,11 +632,30 @@ class WeatherCacheServiceImplTest {
         request.setZipCode(zipCode);
         request.setCountry(country);
 
-        when(weatherDataRepository.findLatestByZipCode(zipCode + "," + country)).thenThrow(new RuntimeException("Database error"));
+        when(weatherDataRepository.findByLocationKey("zip:" + zipCode + "," + country)).thenThrow(new RuntimeException("Database error"));
 
         Optional<WeatherData> actual = service.getCachedWeatherData(request);
 
         assertTrue(actual.isEmpty());
-        verify(weatherDataRepository, times(1)).findLatestByZipCode(zipCode + "," + country);
+        verify(weatherDataRepository, times(1)).findByLocationKey("zip:" + zipCode + "," + country);
+    }
+
+    private RetentionCutoff cutoff(String locationKey, LocalDateTime recordedAt, long id) {
+        return new RetentionCutoff() {
+            @Override
+            public String getLocationKey() {
+                return locationKey;
+            }
+
+            @Override
+            public LocalDateTime getRecordedAt() {
+                return recordedAt;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+        };
     }
-}
\ No newline at end of file
+}
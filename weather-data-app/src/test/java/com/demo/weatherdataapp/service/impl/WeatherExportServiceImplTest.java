@@ -0,0 +1,88 @@
+package com.demo.weatherdataapp.service.impl;
+
+import com.demo.weatherdataapp.dto.ExportFormat;
+import com.demo.weatherdataapp.dto.HistoryExportQuery;
+import com.demo.weatherdataapp.entity.WeatherDataHistory;
+import com.demo.weatherdataapp.repository.WeatherDataHistoryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WeatherExportServiceImplTest {
+    private static final LocalDateTime RECORDED_AT = LocalDateTime.of(2025, 8, 25, 12, 0);
+
+    @Mock
+    private WeatherDataHistoryRepository weatherDataHistoryRepository;
+    @Mock
+    private EntityManager entityManager;
+    @InjectMocks
+    private WeatherExportServiceImpl service;
+
+    @Test
+    void testGivenRows_whenExportHistoryAsNdjson_thenWriteOneJsonObjectPerLineAndDetachRows() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        when(weatherDataHistoryRepository.streamForExport(null, "GB", null, null))
+                .thenReturn(Stream.of(createHistory(1L, "London", "scattered clouds"), createHistory(2L, "Leeds", null)));
+
+        long actual = service.exportHistory(new HistoryExportQuery(null, " gb", null, null), ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, actual);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"locationKey\":\"city:london\",\"city\":\"London\""));
+        assertTrue(lines[0].contains("\"temperature\":15.5"));
+        assertTrue(lines[0].contains("\"recordedAt\":\"2025-08-25T12:00:00\""));
+        assertTrue(lines[1].contains("\"description\":null"));
+        verify(entityManager, times(2)).detach(any(WeatherDataHistory.class));
+    }
+
+    @Test
+    void testGivenRows_whenExportHistoryAsCsv_thenWriteHeaderAndQuoteSpecialCharacters() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        when(weatherDataHistoryRepository.streamForExport("London", null, null, null))
+                .thenReturn(Stream.of(createHistory(1L, "London", "rain, \"heavy\"")));
+
+        long actual = service.exportHistory(new HistoryExportQuery("London", null, null, null), ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, actual);
+        assertEquals("id,locationKey,city,country,zipCode,temperature,feelsLike,humidity,pressure,"
+                + "description,mainWeather,windSpeed,windDirection,timestamp,recordedAt", lines[0]);
+        assertEquals("1,city:london,London,GB,,15.5,,70,1012,\"rain, \"\"heavy\"\"\",,,,"
+                + "2025-08-25T12:00:00,2025-08-25T12:00:00", lines[1]);
+    }
+
+    private WeatherDataHistory createHistory(Long id, String city, String description) {
+        return WeatherDataHistory.builder()
+                .id(id)
+                .locationKey("city:" + city.toLowerCase())
+                .city(city)
+                .country("GB")
+                .temperature(15.5)
+                .humidity(70)
+                .pressure(1012)
+                .description(description)
+                .timestamp(RECORDED_AT)
+                .recordedAt(RECORDED_AT)
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.demo.weatherdataapp.service.impl;
+
+import com.demo.weatherdataapp.cache.LocationResolver;
+import com.demo.weatherdataapp.dto.RollupResult;
+import com.demo.weatherdataapp.entity.RollupGranularity;
+import com.demo.weatherdataapp.entity.WeatherDataHistory;
+import com.demo.weatherdataapp.repository.RollupGapRepository;
+import com.demo.weatherdataapp.repository.WeatherDataHistoryRepository;
+import com.demo.weatherdataapp.repository.WeatherRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({WeatherRollupServiceImpl.class, LocationResolver.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WeatherRollupCommitOrderTest {
+    @Autowired
+    private WeatherRollupServiceImpl service;
+    @Autowired
+    private WeatherDataHistoryRepository weatherDataHistoryRepository;
+    @Autowired
+    private WeatherRollupRepository weatherRollupRepository;
+    @Autowired
+    private RollupGapRepository rollupGapRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testGivenLowerIdCommittedAfterHigherIdWasRolledUp_whenRollupNewReadings_thenFoldLateReadingOnNextRun()
+            throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Long> slowWriter = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    long id = weatherDataHistoryRepository.saveAndFlush(reading()).getId();
+                    inserted.countDown();
+                    await(commit);
+                    return id;
+                }));
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+        long fastId = weatherDataHistoryRepository.save(reading()).getId();
+
+        RollupResult first = service.rollupNewReadings();
+
+        assertEquals(1, first.readingsProcessed());
+        assertEquals(fastId, first.lastHistoryId());
+        assertEquals(1, hourlySamples());
+
+        commit.countDown();
+        long slowId = slowWriter.get(5, TimeUnit.SECONDS);
+        assertTrue(slowId < fastId);
+
+        RollupResult second = service.rollupNewReadings();
+
+        assertEquals(1, second.readingsProcessed());
+        assertEquals(fastId, second.lastHistoryId());
+        assertEquals(2, hourlySamples());
+        assertEquals(0, rollupGapRepository.count());
+        assertEquals(0, service.rollupNewReadings().readingsProcessed());
+    }
+
+    private int hourlySamples() {
+        return weatherRollupRepository.findAll().stream()
+                .filter(rollup -> rollup.getGranularity() == RollupGranularity.HOURLY)
+                .findFirst()
+                .orElseThrow()
+                .getSamples();
+    }
+
+    private WeatherDataHistory reading() {
+        LocalDateTime now = LocalDateTime.now();
+
+        return WeatherDataHistory.builder()
+                .locationKey("city:london")
+                .city("London")
+                .temperature(20.0)
+                .timestamp(now)
+                .recordedAt(now)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.demo.weatherdataapp.service.impl;
+
+import com.demo.weatherdataapp.cache.LocationResolver;
+import com.demo.weatherdataapp.dto.RollupResult;
+import com.demo.weatherdataapp.dto.WeatherRequest;
+import com.demo.weatherdataapp.dto.WeatherRollupResponse;
+import com.demo.weatherdataapp.entity.RollupGap;
+import com.demo.weatherdataapp.entity.RollupGranularity;
+import com.demo.weatherdataapp.entity.RollupWatermark;
+import com.demo.weatherdataapp.entity.WeatherDataHistory;
+import com.demo.weatherdataapp.entity.WeatherRollup;
+import com.demo.weatherdataapp.exception.InvalidWeatherRequestException;
+import com.demo.weatherdataapp.repository.RollupGapRepository;
+import com.demo.weatherdataapp.repository.RollupWatermarkRepository;
+import com.demo.weatherdataapp.repository.WeatherDataHistoryRepository;
+import com.demo.weatherdataapp.repository.WeatherRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WeatherRollupServiceImplTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 8, 25, 10, 0);
+
+    @Mock
+    private WeatherDataHistoryRepository weatherDataHistoryRepository;
+    @Mock
+    private WeatherRollupRepository weatherRollupRepository;
+    @Mock
+    private RollupWatermarkRepository rollupWatermarkRepository;
+    @Mock
+    private RollupGapRepository rollupGapRepository;
+    @Spy
+    private LocationResolver locationResolver = new LocationResolver(100);
+    @InjectMocks
+    private WeatherRollupServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "batchSize", 3);
+        ReflectionTestUtils.setField(service, "lateCommitWindowMinutes", 60L);
+        ReflectionTestUtils.setField(service, "maxPendingGaps", 2);
+    }
+
+    @Test
+    void testGivenNoNewReadings_whenRollupNewReadings_thenKeepWatermark() {
+        when(rollupWatermarkRepository.findById("weather_data_history"))
+                .thenReturn(Optional.of(watermark(42L)));
+        when(weatherDataHistoryRepository.findByIdGreaterThanOrderByIdAsc(42L, Limit.of(3))).thenReturn(List.of());
+
+        RollupResult actual = service.rollupNewReadings();
+
+        assertEquals(0, actual.readingsProcessed());
+        assertEquals(42L, actual.lastHistoryId());
+        assertTrue(actual.drained());
+        verifyNoInteractions(weatherRollupRepository);
+        verify(rollupWatermarkRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGivenNewReadings_whenRollupNewReadings_thenFoldIntoExistingBucketsAndAdvanceWatermark() {
+        WeatherRollup existingHourly = WeatherRollup.builder()
+                .locationKey("city:london")
+                .granularity(RollupGranularity.HOURLY)
+                .bucketStart(BASE)
+                .samples(1)
+                .temperatureMin(12.0)
+                .temperatureMax(12.0)
+                .temperatureSum(12.0)
+                .temperatureCount(1)
+                .build();
+        List<WeatherDataHistory> readings = List.of(
+                reading(11L, "city:london", BASE.plusMinutes(20), 10.0),
+                reading(12L, "city:london", BASE.plusMinutes(50), 20.0),
+                reading(13L, "city:paris", BASE.plusHours(1), 25.0));
+        ArgumentCaptor<Collection<WeatherRollup>> saved = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<RollupWatermark> watermark = ArgumentCaptor.forClass(RollupWatermark.class);
+
+        when(rollupWatermarkRepository.findById("weather_data_history")).thenReturn(Optional.empty());
+        when(weatherDataHistoryRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(readings);
+        when(weatherRollupRepository.findByGranularityAndLocationKeyInAndBucketStartIn(
+                eq(RollupGranularity.HOURLY), anyCollection(), anyCollection())).thenReturn(List.of(existingHourly));
+        when(weatherRollupRepository.findByGranularityAndLocationKeyInAndBucketStartIn(
+                eq(RollupGranularity.DAILY), anyCollection(), anyCollection())).thenReturn(List.of());
+
+        RollupResult actual = service.rollupNewReadings();
+
+        assertEquals(3, actual.readingsProcessed());
+        assertEquals(4, actual.bucketsUpdated());
+        assertEquals(13L, actual.lastHistoryId());
+        assertFalse(actual.drained());
+        assertEquals(3, existingHourly.getSamples());
+        assertEquals(10.0, existingHourly.getTemperatureMin());
+        assertEquals(20.0, existingHourly.getTemperatureMax());
+        assertEquals(42.0, existingHourly.getTemperatureSum());
+
+        verify(weatherRollupRepository, times(2)).saveAll(saved.capture());
+        List<WeatherRollup> daily = new ArrayList<>(saved.getAllValues().get(1));
+        assertEquals(2, daily.size());
+        assertEquals(BASE.toLocalDate().atStartOfDay(), daily.getFirst().getBucketStart());
+        assertEquals(2, daily.getFirst().getSamples());
+
+        verify(rollupWatermarkRepository).save(watermark.capture());
+        assertEquals(13L, watermark.getValue().getLastHistoryId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGivenIdMissingBelowNewReadings_whenRollupNewReadings_thenAdvanceWatermarkAndRecordGap() {
+        List<WeatherDataHistory> readings = List.of(
+                reading(43L, "city:london", BASE, 10.0),
+                reading(45L, "city:london", BASE.plusMinutes(5), 20.0));
+        ArgumentCaptor<Iterable<RollupGap>> gaps = ArgumentCaptor.forClass(Iterable.class);
+
+        when(rollupWatermarkRepository.findById("weather_data_history")).thenReturn(Optional.of(watermark(42L)));
+        when(rollupGapRepository.findAll()).thenReturn(List.of());
+        when(weatherDataHistoryRepository.findByIdGreaterThanOrderByIdAsc(42L, Limit.of(3))).thenReturn(readings);
+
+        RollupResult actual = service.rollupNewReadings();
+
+        assertEquals(2, actual.readingsProcessed());
+        assertEquals(45L, actual.lastHistoryId());
+        assertTrue(actual.drained());
+        verify(rollupGapRepository).saveAll(gaps.capture());
+        assertEquals(List.of(44L), historyIds(gaps.getValue()));
+        verify(rollupGapRepository).deleteDetectedBefore(any(LocalDateTime.class));
+    }
+
+    @Test
+    void testGivenPendingGapThatCommitted_whenRollupNewReadings_thenFoldLateReadingAndClearGap() {
+        WeatherRollup existingHourly = WeatherRollup.builder()
+                .locationKey("city:london")
+                .granularity(RollupGranularity.HOURLY)
+                .bucketStart(BASE)
+                .samples(2)
+                .temperatureSum(30.0)
+                .temperatureCount(2)
+                .build();
+
+        when(rollupWatermarkRepository.findById("weather_data_history")).thenReturn(Optional.of(watermark(45L)));
+        when(rollupGapRepository.findAll()).thenReturn(List.of(gap(44L)));
+        when(weatherDataHistoryRepository.findAllById(List.of(44L)))
+                .thenReturn(List.of(reading(44L, "city:london", BASE.plusMinutes(2), 15.0)));
+        when(weatherDataHistoryRepository.findByIdGreaterThanOrderByIdAsc(45L, Limit.of(3))).thenReturn(List.of());
+        when(weatherRollupRepository.findByGranularityAndLocationKeyInAndBucketStartIn(
+                eq(RollupGranularity.HOURLY), anyCollection(), anyCollection())).thenReturn(List.of(existingHourly));
+
+        RollupResult actual = service.rollupNewReadings();
+
+        assertEquals(1, actual.readingsProcessed());
+        assertEquals(45L, actual.lastHistoryId());
+        assertEquals(3, existingHourly.getSamples());
+        verify(rollupGapRepository).deleteAllByIdInBatch(List.of(44L));
+        verify(rollupWatermarkRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGivenMoreGapsThanCapacity_whenRollupNewReadings_thenTrackOnlyUpToMaxPendingGaps() {
+        List<WeatherDataHistory> readings = List.of(reading(50L, "city:london", BASE, 10.0));
+        ArgumentCaptor<Iterable<RollupGap>> gaps = ArgumentCaptor.forClass(Iterable.class);
+
+        when(rollupWatermarkRepository.findById("weather_data_history")).thenReturn(Optional.of(watermark(42L)));
+        when(rollupGapRepository.findAll()).thenReturn(List.of(gap(40L)));
+        when(weatherDataHistoryRepository.findAllById(List.of(40L))).thenReturn(List.of());
+        when(weatherDataHistoryRepository.findByIdGreaterThanOrderByIdAsc(42L, Limit.of(3))).thenReturn(readings);
+
+        service.rollupNewReadings();
+
+        verify(rollupGapRepository).saveAll(gaps.capture());
+        assertEquals(List.of(43L), historyIds(gaps.getValue()));
+    }
+
+    @Test
+    void testGivenCityRequest_whenGetRollups_thenMapAggregatesToAverages() {
+        WeatherRequest request = new WeatherRequest();
+        request.setCity("London");
+        WeatherRollup rollup = WeatherRollup.builder()
+                .locationKey("city:london")
+                .city("London")
+                .granularity(RollupGranularity.HOURLY)
+                .bucketStart(BASE)
+                .samples(2)
+                .temperatureMin(10.0)
+                .temperatureMax(20.0)
+                .temperatureSum(30.0)
+                .temperatureCount(2)
+                .build();
+
+        when(weatherRollupRepository.findRange("city:london", RollupGranularity.HOURLY, BASE, BASE.plusHours(6)))
+                .thenReturn(List.of(rollup));
+
+        List<WeatherRollupResponse> actual = service.getRollups(request, RollupGranularity.HOURLY,
+                BASE.plusMinutes(30), BASE.plusHours(6));
+
+        assertEquals(1, actual.size());
+        assertEquals(15.0, actual.getFirst().getTemperature().avg());
+        assertEquals(0, actual.getFirst().getHumidity().samples());
+        assertEquals("2025-08-25T10:00:00", actual.getFirst().getBucketStart());
+    }
+
+    @Test
+    void testGivenInvertedRange_whenGetRollups_thenThrowInvalidWeatherRequestException() {
+        WeatherRequest request = new WeatherRequest();
+        request.setCity("London");
+
+        assertThrows(InvalidWeatherRequestException.class,
+                () -> service.getRollups(request, RollupGranularity.DAILY, BASE, BASE.minusDays(1)));
+    }
+
+    private RollupGap gap(long historyId) {
+        return RollupGap.builder().historyId(historyId).detectedAt(BASE).build();
+    }
+
+    private List<Long> historyIds(Iterable<RollupGap> gaps) {
+        List<Long> ids = new ArrayList<>();
+        gaps.forEach(gap -> ids.add(gap.getHistoryId()));
+
+        return ids;
+    }
+
+    private RollupWatermark watermark(long lastHistoryId) {
+        return RollupWatermark.builder()
+                .name("weather_data_history")
+                .lastHistoryId(lastHistoryId)
+                .updatedAt(BASE)
+                .build();
+    }
+
+    private WeatherDataHistory reading(long id, String locationKey, LocalDateTime recordedAt, double temperature) {
+        return WeatherDataHistory.builder()
+                .id(id)
+                .locationKey(locationKey)
+                .city(locationKey.substring(5))
+                .temperature(temperature)
+                .humidity(60)
+                .timestamp(recordedAt)
+                .recordedAt(recordedAt)
+                .build();
+    }
+}
@@ -1,34 +1,83 @@
 package com.demo.weatherdataapp.service.impl;
 
+import com.demo.weatherdataapp.cache.BackgroundRefreshExecutor;
+import com.demo.weatherdataapp.cache.LocationResolver;
+import com.demo.weatherdataapp.cache.NegativeLookupCache;
+import com.demo.weatherdataapp.cache.RequestCoalescer;
 import com.demo.weatherdataapp.client.WeatherApiClient;
 import com.demo.weatherdataapp.config.WeatherApiConfig;
+import com.demo.weatherdataapp.dto.BatchItemStatus;
+import com.demo.weatherdataapp.dto.BatchWeatherItem;
+import com.demo.weatherdataapp.dto.BatchWeatherResponse;
+import com.demo.weatherdataapp.dto.EncodedWeatherResponse;
+import com.demo.weatherdataapp.dto.OpenWeatherGroupResponse;
 import com.demo.weatherdataapp.dto.OpenWeatherResponse;
+import com.demo.weatherdataapp.dto.WeatherHistorySummary;
 import com.demo.weatherdataapp.dto.WeatherRequest;
 import com.demo.weatherdataapp.dto.WeatherResponse;
 import com.demo.weatherdataapp.entity.WeatherData;
 import com.demo.weatherdataapp.exception.InvalidWeatherRequestException;
+import com.demo.weatherdataapp.exception.LocationNotFoundException;
+import com.demo.weatherdataapp.exception.RateLimitExceededException;
+import com.demo.weatherdataapp.exception.WeatherApiException;
+import com.demo.weatherdataapp.geo.GeoPoint;
+import com.demo.weatherdataapp.history.RecentReadingsStore;
+import com.demo.weatherdataapp.mapper.WeatherResponseEncoder;
+import com.demo.weatherdataapp.metrics.WeatherMetrics;
+import com.demo.weatherdataapp.push.WeatherUpdatePublisher;
+import com.demo.weatherdataapp.ratelimit.RequestPriority;
+import com.demo.weatherdataapp.ratelimit.UpstreamRateLimiter;
 import com.demo.weatherdataapp.repository.WeatherDataRepository;
 import com.demo.weatherdataapp.service.WeatherCacheService;
+import com.demo.weatherdataapp.tracking.DemandTier;
+import com.demo.weatherdataapp.tracking.LocationDemandTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Request;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -43,6 +92,29 @@ class WeatherServiceImplTest {
     private WeatherCacheService cacheService;
     @Mock
     private WeatherDataRepository weatherDataRepository;
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(10000);
+    @Spy
+    private LocationResolver locationResolver = new LocationResolver(100);
+    @Spy
+    private NegativeLookupCache negativeLookupCache = new NegativeLookupCache(100, 600);
+    @Mock
+    private BackgroundRefreshExecutor backgroundRefreshExecutor;
+    @Mock
+    private RecentReadingsStore recentReadingsStore;
+    @Spy
+    private LocationDemandTracker demandTracker = new LocationDemandTracker(60, 10, 72);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private WeatherMetrics metrics = new WeatherMetrics(meterRegistry);
+    @Spy
+    private CircuitBreaker weatherApiCircuitBreaker = CircuitBreaker.ofDefaults("openWeather");
+    @Spy
+    private UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(600, 100, 10, 0);
+    @Spy
+    private WeatherResponseEncoder responseEncoder = new WeatherResponseEncoder(new ObjectMapper());
+    @Mock
+    private WeatherUpdatePublisher updatePublisher;
     @InjectMocks
     private WeatherServiceImpl service;
 
@@ -60,6 +132,7 @@ class WeatherServiceImplTest {
         assertEquals("London", actual.getCity());
         verify(cacheService).getCachedWeatherData(cityRequest);
         verify(cacheService).isCacheValid(cachedData);
+        verify(demandTracker).recordRequest("city:london");
         verifyNoInteractions(weatherApiClient);
     }
 
@@ -82,6 +155,186 @@ class WeatherServiceImplTest {
         verify(cacheService).getCachedWeatherData(cityRequest);
         verify(weatherApiClient).getWeatherByCity("London", "test-api-key", "metric");
         verify(cacheService).saveToCache(any(WeatherData.class));
+        verify(rateLimiter).acquire(RequestPriority.INTERACTIVE);
+    }
+
+    @Test
+    void testGivenValidCachedData_whenGetEncodedWeather_thenServeCachedEncodingWithoutMapping() {
+        WeatherRequest cityRequest = createCityRequest();
+        WeatherData cachedData = createMockWeatherData();
+        EncodedWeatherResponse cachedEncoding = new EncodedWeatherResponse(new byte[0], "\"1\"", null);
+
+        when(cacheService.getCachedWeatherData(cityRequest)).thenReturn(Optional.of(cachedData));
+        when(cacheService.isCacheValid(cachedData)).thenReturn(true);
+        when(cacheService.getEncodedResponse(cachedData)).thenReturn(cachedEncoding);
+
+        EncodedWeatherResponse actual = service.getEncodedWeather(cityRequest);
+
+        assertSame(cachedEncoding, actual);
+        verify(demandTracker).recordRequest("city:london");
+        verifyNoInteractions(responseEncoder, weatherApiClient);
+    }
+
+    @Test
+    void testGivenStaleCachedData_whenGetEncodedWeather_thenEncodeStaleResponseOutsideCache() {
+        WeatherRequest cityRequest = createCityRequest();
+        WeatherData staleData = createMockWeatherData();
+        staleData.setLastUpdated(LocalDateTime.now().minusMinutes(45));
+
+        when(cacheService.getCachedWeatherData(cityRequest)).thenReturn(Optional.of(staleData));
+        when(cacheService.isCacheValid(staleData)).thenReturn(false);
+        when(cacheService.isServableStale(staleData)).thenReturn(true);
+
+        EncodedWeatherResponse actual = service.getEncodedWeather(cityRequest);
+
+        assertTrue(new String(actual.json(), StandardCharsets.UTF_8).contains("\"stale\":true"));
+        verify(cacheService, never()).getEncodedResponse(any());
+        verify(backgroundRefreshExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    void testGivenCityNameAndStaleCachedData_whenGetWeather_thenReturnStaleResponseAndRefreshInBackground() {
+        WeatherRequest cityRequest = createCityRequest();
+        WeatherData staleData = createMockWeatherData();
+        staleData.setLastUpdated(LocalDateTime.now().minusMinutes(45));
+        ArgumentCaptor<Runnable> refreshTask = ArgumentCaptor.forClass(Runnable.class);
+
+        when(cacheService.getCachedWeatherData(cityRequest)).thenReturn(Optional.of(staleData));
+        when(cacheService.isCacheValid(staleData)).thenReturn(false);
+        when(cacheService.isServableStale(staleData)).thenReturn(true);
+
+        WeatherResponse actual = service.getWeather(cityRequest);
+
+        assertTrue(actual.isStale());
+        assertEquals("London", actual.getCity());
+        verify(backgroundRefreshExecutor).execute(refreshTask.capture());
+        verifyNoInteractions(weatherApiClient);
+
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(weatherApiClient.getWeatherByCity("London", "test-api-key", "metric")).thenReturn(createMockApiResponse());
+        when(cacheService.saveToCache(any(WeatherData.class))).thenReturn(createMockWeatherData());
+
+        refreshTask.getValue().run();
+
+        verify(weatherApiClient).getWeatherByCity("London", "test-api-key", "metric");
+        verify(cacheService).saveToCache(any(WeatherData.class));
+    }
+
+    @Test
+    void testGivenOpenCircuitAndExpiredCachedData_whenGetWeather_thenReturnDegradedResponseWithoutCallingApi() {
+        WeatherRequest cityRequest = createCityRequest();
+        WeatherData expiredData = createMockWeatherData();
+        expiredData.setLastUpdated(LocalDateTime.now().minusHours(3));
+        weatherApiCircuitBreaker.transitionToOpenState();
+
+        when(cacheService.getCachedWeatherData(cityRequest)).thenReturn(Optional.of(expiredData));
+        when(cacheService.isCacheValid(expiredData)).thenReturn(false);
+        when(cacheService.isServableStale(expiredData)).thenReturn(false);
+
+        WeatherResponse actual = service.getWeather(cityRequest);
+
+        assertTrue(actual.isDegraded());
+        assertTrue(actual.isStale());
+        assertEquals("London", actual.getCity());
+        verifyNoInteractions(weatherApiClient);
+        verify(cacheService, never()).saveToCache(any(WeatherData.class));
+        assertEquals(1.0, meterRegistry.get(WeatherMetrics.DEGRADED_RESPONSES).counter().count());
+    }
+
+    @Test
+    void testGivenOpenCircuitAndNoCachedData_whenGetWeather_thenFailFastWithoutCallingApi() {
+        WeatherRequest cityRequest = createCityRequest();
+        weatherApiCircuitBreaker.transitionToOpenState();
+
+        when(cacheService.getCachedWeatherData(cityRequest)).thenReturn(Optional.empty());
+
+        WeatherApiException actual = assertThrows(WeatherApiException.class, () -> service.getWeather(cityRequest));
+
+        assertInstanceOf(CallNotPermittedException.class, actual.getCause());
+        verifyNoInteractions(weatherApiClient);
+    }
+
+    @Test
+    void testGivenExhaustedQuotaAndExpiredCachedData_whenGetWeather_thenReturnDegradedResponse() {
+        WeatherRequest cityRequest = createCityRequest();
+        WeatherData expiredData = createMockWeatherData();
+        expiredData.setLastUpdated(LocalDateTime.now().minusHours(3));
+
+        when(cacheService.getCachedWeatherData(cityRequest)).thenReturn(Optional.of(expiredData));
+        when(cacheService.isCacheValid(expiredData)).thenReturn(false);
+        when(cacheService.isServableStale(expiredData)).thenReturn(false);
+        doThrow(new RateLimitExceededException("quota exhausted")).when(rateLimiter).acquire(RequestPriority.INTERACTIVE);
+
+        WeatherResponse actual = service.getWeather(cityRequest);
+
+        assertTrue(actual.isDegraded());
+        verifyNoInteractions(weatherApiClient);
+    }
+
+    @Test
+    void testGivenOpenCircuit_whenGetWeatherBatch_thenServeLastKnownDataAndFailOnlyUncachedItems() {
+        WeatherRequest london = createCityRequest();
+        WeatherRequest paris = new WeatherRequest();
+        paris.setCity("Paris");
+        WeatherData expiredLondon = createMockWeatherData();
+        expiredLondon.setLastUpdated(LocalDateTime.now().minusHours(3));
+        weatherApiCircuitBreaker.transitionToOpenState();
+
+        when(cacheService.getCachedWeatherDataByKeys(any())).thenReturn(Map.of("city:london", expiredLondon));
+        when(cacheService.isCacheValid(expiredLondon)).thenReturn(false);
+        when(cacheService.isServableStale(expiredLondon)).thenReturn(false);
+
+        BatchWeatherResponse actual = service.getWeatherBatch(List.of(london, paris));
+
+        assertEquals(1, actual.getFailed());
+        assertEquals(BatchItemStatus.OK, actual.getResults().get(0).getStatus());
+        assertTrue(actual.getResults().get(0).getWeather().isDegraded());
+        assertEquals(BatchItemStatus.FAILED, actual.getResults().get(1).getStatus());
+        verifyNoInteractions(weatherApiClient);
+    }
+
+    @Test
+    void testGivenBatchWithDuplicatesAndInvalidItems_whenGetWeatherBatch_thenReturnPerItemStatus() {
+        WeatherRequest london = createCityRequest();
+        WeatherRequest londonDuplicate = new WeatherRequest();
+        londonDuplicate.setCity(" london");
+        WeatherRequest paris = new WeatherRequest();
+        paris.setCity("Paris");
+        WeatherRequest unknown = new WeatherRequest();
+        unknown.setCity("Atlantis");
+        WeatherData cachedLondon = createMockWeatherData();
+        OpenWeatherResponse parisResponse = createMockApiResponse();
+        parisResponse.setName("Paris");
+
+        when(cacheService.getCachedWeatherDataByKeys(any())).thenReturn(Map.of("city:london", cachedLondon));
+        when(cacheService.isCacheValid(cachedLondon)).thenReturn(true);
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(weatherApiClient.getWeatherByCity("Paris", "test-api-key", "metric")).thenReturn(parisResponse);
+        when(weatherApiClient.getWeatherByCity("Atlantis", "test-api-key", "metric"))
+                .thenThrow(new RuntimeException("city not found"));
+        when(cacheService.saveToCache(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BatchWeatherResponse actual = service.getWeatherBatch(
+                Arrays.asList(london, londonDuplicate, paris, createEmptyRequest(), unknown));
+
+        assertEquals(5, actual.getRequested());
+        assertEquals(3, actual.getUnique());
+        assertEquals(1, actual.getFromCache());
+        assertEquals(2, actual.getFetched());
+        assertEquals(1, actual.getFailed());
+        List<BatchWeatherItem> results = actual.getResults();
+        assertEquals(BatchItemStatus.OK, results.get(0).getStatus());
+        assertEquals("London", results.get(1).getWeather().getCity());
+        assertEquals("Paris", results.get(2).getWeather().getCity());
+        assertEquals(BatchItemStatus.INVALID, results.get(3).getStatus());
+        assertEquals(BatchItemStatus.FAILED, results.get(4).getStatus());
+        verify(cacheService).getCachedWeatherDataByKeys(Set.of("city:london", "city:paris", "city:atlantis"));
+        verify(weatherApiClient, never()).getWeatherByCity(eq("London"), any(), any());
+        assertEquals(1.0, meterRegistry.get(WeatherMetrics.CACHE_REQUESTS).tag("result", "hit").counter().count());
+        assertEquals(2.0, meterRegistry.get(WeatherMetrics.CACHE_REQUESTS).tag("result", "miss").counter().count());
+        assertEquals(2, meterRegistry.get(WeatherMetrics.UPSTREAM_REQUESTS).tag("operation", "city").timers().stream()
+                .mapToLong(timer -> timer.count()).sum());
+        assertEquals(1.0, meterRegistry.get(WeatherMetrics.UPSTREAM_ERRORS).tag("operation", "city").counter().count());
     }
 
     @Test
@@ -146,6 +399,50 @@ class WeatherServiceImplTest {
         verify(cacheService).saveToCache(any(WeatherData.class));
     }
 
+    @Test
+    void testGivenCityName_whenFetchAndSaveWeatherData_thenUseNormalizedLocationKey() {
+        OpenWeatherResponse apiResponse = createMockApiResponse();
+
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(weatherApiClient.getWeatherByCity("London", "test-api-key", "metric")).thenReturn(apiResponse);
+        when(cacheService.saveToCache(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        WeatherData actual = service.fetchAndSaveWeatherData(createCityRequest());
+
+        assertEquals("city:london", actual.getLocationKey());
+        verify(requestCoalescer).execute(eq("city:london"), any());
+    }
+
+    @Test
+    void testGivenUpstreamIds_whenRefreshWeatherDataForUpstreamIds_thenSaveTrackedLocationsAndReturnMissingIds() {
+        OpenWeatherResponse londonResponse = createMockApiResponse();
+        londonResponse.setId(2643743L);
+        OpenWeatherGroupResponse groupResponse = new OpenWeatherGroupResponse();
+        groupResponse.setCnt(1);
+        groupResponse.setList(List.of(londonResponse));
+        WeatherData londonByCity = WeatherData.builder().locationKey("city:london").upstreamId(2643743L).build();
+        WeatherData londonByZip = WeatherData.builder()
+                .locationKey("zip:EC1A,GB")
+                .zipCode("EC1A")
+                .upstreamId(2643743L)
+                .build();
+        ArgumentCaptor<WeatherData> savedData = ArgumentCaptor.forClass(WeatherData.class);
+
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(weatherApiClient.getWeatherByCityIds("2643743,2988507", "test-api-key", "metric")).thenReturn(groupResponse);
+        when(weatherDataRepository.findByUpstreamIdIn(List.of(2643743L, 2988507L))).thenReturn(List.of(londonByCity, londonByZip));
+
+        List<Long> actual = service.refreshWeatherDataForUpstreamIds(List.of(2643743L, 2988507L));
+
+        assertEquals(List.of(2988507L), actual);
+        verify(cacheService, times(2)).saveToCache(savedData.capture());
+        assertEquals("city:london", savedData.getAllValues().get(0).getLocationKey());
+        assertEquals("zip:EC1A,GB", savedData.getAllValues().get(1).getLocationKey());
+        assertEquals("EC1A", savedData.getAllValues().get(1).getZipCode());
+        assertEquals(2643743L, savedData.getAllValues().get(1).getUpstreamId());
+        verify(weatherApiClient, times(1)).getWeatherByCityIds(any(), any(), any());
+    }
+
     @Test
     void testWhenGetAllTrackedCities_thenReturnListOfCities() {
         List<String> trackedCities = Arrays.asList("London", "New York");
@@ -188,6 +485,22 @@ class WeatherServiceImplTest {
         verify(cacheService).getCachedWeatherData(any(WeatherRequest.class));
     }
 
+    @Test
+    void testUpstreamCallingMethods_whenInspected_thenNoneHoldATransactionWhileWaitingForQuota() throws Exception {
+        List<Method> upstreamCallers = List.of(
+                WeatherServiceImpl.class.getMethod("getWeather", WeatherRequest.class),
+                WeatherServiceImpl.class.getMethod("getEncodedWeather", WeatherRequest.class),
+                WeatherServiceImpl.class.getMethod("fetchAndSaveWeatherData", WeatherRequest.class),
+                WeatherServiceImpl.class.getMethod("refreshWeatherDataForCity", String.class),
+                WeatherServiceImpl.class.getMethod("refreshWeatherDataForZipCode", String.class),
+                WeatherServiceImpl.class.getMethod("refreshWeatherDataForUpstreamIds", List.class),
+                WeatherServiceImpl.class.getMethod("refreshWeatherDataForLocationKey", String.class)
+        );
+
+        assertNull(WeatherServiceImpl.class.getAnnotation(Transactional.class));
+        upstreamCallers.forEach(method -> assertNull(method.getAnnotation(Transactional.class), method.getName()));
+    }
+
     @Test
     void testValidateRequest_whenValidCityRequest_thenNoException() throws Exception {
         WeatherRequest validRequest = createCityRequest();
@@ -210,48 +523,325 @@ class WeatherServiceImplTest {
     }
 
     @Test
-    void testConvertToWeatherData_whenValidApiResponse_thenReturnWeatherData() throws Exception {
-        OpenWeatherResponse apiResponse = createMockApiResponse();
-        String zipCode = "12345";
+    void testGivenColdLocations_whenUntrackInactiveLocations_thenEvictOnlyColdLocations() {
+        when(weatherDataRepository.findAllLocationKeys()).thenReturn(List.of("city:london", "city:londn"));
+        doReturn(DemandTier.WARM).when(demandTracker).tierOf("city:london");
+        doReturn(DemandTier.COLD).when(demandTracker).tierOf("city:londn");
+        when(cacheService.evict(List.of("city:londn"))).thenReturn(1);
 
-        Method mapMethod = WeatherServiceImpl.class.getDeclaredMethod("mapFromApiResponse", OpenWeatherResponse.class, String.class);
-        mapMethod.setAccessible(true);
+        int actual = service.untrackInactiveLocations();
 
-        WeatherData actual = (WeatherData) mapMethod.invoke(service, apiResponse, zipCode);
+        assertEquals(1, actual);
+        verify(cacheService).evict(List.of("city:londn"));
+    }
 
-        assertNotNull(actual);
-        assertEquals("London", actual.getCity());
-        assertEquals("GB", actual.getCountry());
-        assertEquals(20.5, actual.getTemperature());
-        assertEquals(18.3, actual.getFeelsLike());
-        assertEquals(65, actual.getHumidity());
-        assertEquals(1013, actual.getPressure());
-        assertEquals("Clear sky", actual.getDescription());
-        assertEquals("Clear", actual.getMainWeather());
-        assertEquals(3.2, actual.getWindSpeed());
-        assertEquals(180, actual.getWindDirection());
+    @Test
+    void testGivenColdLocationWithLiveSubscriber_whenUntrackInactiveLocations_thenKeepSubscribedLocation() {
+        WeatherData london = createMockWeatherData();
+        london.setUpstreamId(2643743L);
+        locationResolver.canonicalize("city:london", london);
+
+        when(weatherDataRepository.findAllLocationKeys()).thenReturn(List.of("id:2643743", "city:londn"));
+        doReturn(DemandTier.COLD).when(demandTracker).tierOf(any());
+        when(updatePublisher.hasSubscribers("id:2643743", locationResolver.aliasesOf("id:2643743"))).thenReturn(true);
+        when(cacheService.evict(List.of("city:londn"))).thenReturn(1);
+
+        int actual = service.untrackInactiveLocations();
+
+        assertEquals(1, actual);
+        verify(cacheService).evict(List.of("city:londn"));
     }
 
     @Test
-    void testConvertToWeatherResponse_whenValidWeatherData_thenReturnWeatherResponse() throws Exception {
-        WeatherData weatherData = createMockWeatherData();
+    void testGivenZipLocationKey_whenRefreshWeatherDataForLocationKey_thenFetchWithCountryQualifiedZip() {
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(weatherApiClient.getWeatherByZipCode("94040,US", "test-api-key", "metric")).thenReturn(createMockApiResponse());
+        when(cacheService.saveToCache(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        Method mapMethod = WeatherServiceImpl.class.getDeclaredMethod("mapToResponse", WeatherData.class);
-        mapMethod.setAccessible(true);
+        service.refreshWeatherDataForLocationKey("zip:94040,US");
 
-        WeatherResponse actual = (WeatherResponse) mapMethod.invoke(service, weatherData);
+        ArgumentCaptor<WeatherData> saved = ArgumentCaptor.forClass(WeatherData.class);
+        verify(cacheService).saveToCache(saved.capture());
+        assertEquals("zip:94040,US", saved.getValue().getLocationKey());
+        verify(rateLimiter).acquire(RequestPriority.BACKGROUND);
+    }
+
+    @Test
+    void testGivenFreshReadingWithinRadius_whenGetWeatherByCoordinates_thenAnswerLocallyAndCountDemandForIt() {
+        WeatherData nearby = createMockWeatherData();
+        nearby.setLocationKey("city:london");
+        nearby.setLatitude(51.5085);
+        nearby.setLongitude(-0.1257);
+
+        when(cacheService.findNearestValidWeatherData(new GeoPoint(51.52, -0.1))).thenReturn(Optional.of(nearby));
+
+        WeatherResponse actual = service.getWeatherByCoordinates(51.52, -0.1);
 
-        assertNotNull(actual);
         assertEquals("London", actual.getCity());
-        assertEquals("GB", actual.getCountry());
-        assertEquals(20.5, actual.getTemperature());
-        assertEquals(18.3, actual.getFeelsLike());
-        assertEquals(65, actual.getHumidity());
-        assertEquals(1013, actual.getPressure());
-        assertEquals("Clear sky", actual.getDescription());
-        assertEquals("Clear", actual.getMainWeather());
-        assertEquals(3.2, actual.getWindSpeed());
-        assertEquals(180, actual.getWindDirection());
+        assertEquals(51.5085, actual.getLatitude());
+        verify(demandTracker).recordRequest("city:london");
+        verify(cacheService, never()).getCachedWeatherData(any());
+        verifyNoInteractions(weatherApiClient);
+    }
+
+    @Test
+    void testGivenNoReadingWithinRadius_whenGetWeatherByCoordinates_thenFetchAndCacheUnderCoordinateKey() {
+        OpenWeatherResponse apiResponse = createMockApiResponse();
+        OpenWeatherResponse.Coordinates coord = new OpenWeatherResponse.Coordinates();
+        coord.setLat(48.8534);
+        coord.setLon(2.3488);
+        apiResponse.setCoord(coord);
+
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(cacheService.findNearestValidWeatherData(new GeoPoint(48.8534, 2.3488))).thenReturn(Optional.empty());
+        when(cacheService.getCachedWeatherData(any(WeatherRequest.class))).thenReturn(Optional.empty());
+        when(weatherApiClient.getWeatherByCoordinates(48.8534, 2.3488, "test-api-key", "metric")).thenReturn(apiResponse);
+        when(cacheService.saveToCache(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        WeatherResponse actual = service.getWeatherByCoordinates(48.8534, 2.3488);
+
+        ArgumentCaptor<WeatherData> saved = ArgumentCaptor.forClass(WeatherData.class);
+        verify(cacheService).saveToCache(saved.capture());
+        assertEquals("coord:48.85,2.35", saved.getValue().getLocationKey());
+        assertEquals(48.8534, saved.getValue().getLatitude());
+        assertEquals(2.3488, actual.getLongitude());
+        verify(demandTracker).recordRequest("coord:48.85,2.35");
+        verify(rateLimiter).acquire(RequestPriority.INTERACTIVE);
+    }
+
+    @Test
+    void testGivenCoordinateLocationKey_whenRefreshWeatherDataForLocationKey_thenFetchByCoordinates() {
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(weatherApiClient.getWeatherByCoordinates(48.85, 2.35, "test-api-key", "metric")).thenReturn(createMockApiResponse());
+        when(cacheService.saveToCache(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.refreshWeatherDataForLocationKey("coord:48.85,2.35");
+
+        verify(weatherApiClient).getWeatherByCoordinates(48.85, 2.35, "test-api-key", "metric");
+        verify(rateLimiter).acquire(RequestPriority.BACKGROUND);
+    }
+
+    @Test
+    void testGivenOutOfRangeLatitude_whenGetWeatherByCoordinates_thenThrowInvalidWeatherRequestException() {
+        assertThrows(InvalidWeatherRequestException.class, () -> service.getWeatherByCoordinates(91, 0));
+
+        verifyNoInteractions(weatherApiClient);
+    }
+
+    @Test
+    void testGivenCityAndZipForSamePlace_whenFetchAndSaveWeatherData_thenStoreBothUnderUpstreamIdKey() {
+        OpenWeatherResponse apiResponse = createMockApiResponse();
+        apiResponse.setId(2643743L);
+        WeatherRequest zipRequest = new WeatherRequest();
+        zipRequest.setZipCode("EC1A");
+        zipRequest.setCountry("GB");
+        ArgumentCaptor<WeatherData> saved = ArgumentCaptor.forClass(WeatherData.class);
+
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(weatherApiClient.getWeatherByCity("London", "test-api-key", "metric")).thenReturn(apiResponse);
+        when(weatherApiClient.getWeatherByZipCode(any(), eq("test-api-key"), eq("metric"))).thenReturn(apiResponse);
+        when(cacheService.saveToCache(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.fetchAndSaveWeatherData(createCityRequest());
+        service.fetchAndSaveWeatherData(zipRequest);
+
+        verify(cacheService, times(2)).saveToCache(saved.capture());
+        assertEquals("id:2643743", saved.getAllValues().get(0).getLocationKey());
+        assertEquals("id:2643743", saved.getAllValues().get(1).getLocationKey());
+        assertEquals("id:2643743", locationResolver.resolve("city:london"));
+        assertEquals("id:2643743", locationResolver.resolve("zip:EC1A,GB"));
+    }
+
+    @Test
+    void testGivenAliasedQuery_whenGetWeather_thenCountDemandForCanonicalLocation() {
+        WeatherRequest cityRequest = createCityRequest();
+        WeatherData cachedData = createMockWeatherData();
+        cachedData.setUpstreamId(2643743L);
+        locationResolver.canonicalize("city:london", cachedData);
+
+        when(cacheService.getCachedWeatherData(cityRequest)).thenReturn(Optional.of(cachedData));
+        when(cacheService.isCacheValid(cachedData)).thenReturn(true);
+
+        service.getWeather(cityRequest);
+
+        verify(demandTracker).recordRequest("id:2643743");
+        verifyNoInteractions(weatherApiClient);
+    }
+
+    @Test
+    void testGivenFirstLookupForCity_whenGetWeather_thenMoveDemandToCanonicalLocation() {
+        WeatherRequest cityRequest = createCityRequest();
+        OpenWeatherResponse apiResponse = createMockApiResponse();
+        apiResponse.setId(2643743L);
+
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(cacheService.getCachedWeatherData(cityRequest)).thenReturn(Optional.empty());
+        when(weatherApiClient.getWeatherByCity("London", "test-api-key", "metric")).thenReturn(apiResponse);
+        when(cacheService.saveToCache(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.getWeather(cityRequest);
+
+        verify(demandTracker).recordRequest("city:london");
+        verify(demandTracker).merge("city:london", "id:2643743");
+        assertEquals(1.0, demandTracker.score("id:2643743"), 1e-3);
+        assertEquals(0.0, demandTracker.score("city:london"));
+    }
+
+    @Test
+    void testGivenUpstreamIdLocationKey_whenRefreshWeatherDataForLocationKey_thenRefreshThroughGroupCall() {
+        OpenWeatherResponse londonResponse = createMockApiResponse();
+        londonResponse.setId(2643743L);
+        OpenWeatherGroupResponse groupResponse = new OpenWeatherGroupResponse();
+        groupResponse.setList(List.of(londonResponse));
+        WeatherData london = WeatherData.builder().locationKey("id:2643743").upstreamId(2643743L).build();
+
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(weatherApiClient.getWeatherByCityIds("2643743", "test-api-key", "metric")).thenReturn(groupResponse);
+        when(weatherDataRepository.findByUpstreamIdIn(List.of(2643743L))).thenReturn(List.of(london));
+
+        service.refreshWeatherDataForLocationKey("id:2643743");
+
+        ArgumentCaptor<WeatherData> saved = ArgumentCaptor.forClass(WeatherData.class);
+        verify(cacheService).saveToCache(saved.capture());
+        assertEquals("id:2643743", saved.getValue().getLocationKey());
+        verify(rateLimiter).acquire(RequestPriority.BACKGROUND);
+    }
+
+    @Test
+    void testGivenUpstreamIdMissingFromGroupResponse_whenRefreshWeatherDataForLocationKey_thenThrowWeatherApiException() {
+        OpenWeatherGroupResponse groupResponse = new OpenWeatherGroupResponse();
+        groupResponse.setList(List.of());
+
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(weatherApiClient.getWeatherByCityIds("2643743", "test-api-key", "metric")).thenReturn(groupResponse);
+
+        assertThrows(WeatherApiException.class, () -> service.refreshWeatherDataForLocationKey("id:2643743"));
+
+        verify(cacheService, never()).saveToCache(any(WeatherData.class));
+    }
+
+    @Test
+    void testGivenUnknownCity_whenGetWeatherTwice_thenCallUpstreamOnceAndFailFastFromNegativeCache() {
+        WeatherRequest request = new WeatherRequest();
+        request.setCity("Lodnon");
+        Request feignRequest = Request.create(Request.HttpMethod.GET, "/weather", Map.of(), null, StandardCharsets.UTF_8, null);
+
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(cacheService.getCachedWeatherData(request)).thenReturn(Optional.empty());
+        when(weatherApiClient.getWeatherByCity("Lodnon", "test-api-key", "metric"))
+                .thenThrow(new FeignException.NotFound("city not found", feignRequest, null, Map.of()));
+
+        LocationNotFoundException first = assertThrows(LocationNotFoundException.class, () -> service.getWeather(request));
+        LocationNotFoundException second = assertThrows(LocationNotFoundException.class, () -> service.getWeather(request));
+
+        assertEquals(first.getMessage(), second.getMessage());
+        verify(weatherApiClient, times(1)).getWeatherByCity("Lodnon", "test-api-key", "metric");
+        verify(rateLimiter, times(1)).acquire(RequestPriority.INTERACTIVE);
+        assertEquals(1, negativeLookupCache.stats().hits());
+    }
+
+    @Test
+    void testGivenDeferredBackgroundRefresh_whenInteractiveMissForSameCity_thenFetchWithoutJoiningBackgroundFlight()
+            throws Exception {
+        WeatherRequest cityRequest = createCityRequest();
+        CountDownLatch backgroundWaiting = new CountDownLatch(1);
+        CountDownLatch releaseBackground = new CountDownLatch(1);
+
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(weatherApiClient.getWeatherByCity("London", "test-api-key", "metric")).thenReturn(createMockApiResponse());
+        when(cacheService.getCachedWeatherData(cityRequest)).thenReturn(Optional.empty());
+        when(cacheService.saveToCache(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doAnswer(invocation -> {
+            backgroundWaiting.countDown();
+            releaseBackground.await(5, TimeUnit.SECONDS);
+
+            return null;
+        }).when(rateLimiter).acquire(RequestPriority.BACKGROUND);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> background = executor.submit(() -> service.refreshWeatherDataForCity("London"));
+            assertTrue(backgroundWaiting.await(5, TimeUnit.SECONDS));
+
+            WeatherResponse actual = assertTimeoutPreemptively(Duration.ofSeconds(2), () -> service.getWeather(cityRequest));
+
+            assertEquals("London", actual.getCity());
+            verify(rateLimiter).acquire(RequestPriority.INTERACTIVE);
+            releaseBackground.countDown();
+            background.get(5, TimeUnit.SECONDS);
+        }
+
+        verify(weatherApiClient, times(2)).getWeatherByCity("London", "test-api-key", "metric");
+    }
+
+    @Test
+    void testGivenNegativelyCachedCity_whenGetWeatherBatch_thenReportNotFoundWithoutUpstreamCall() {
+        WeatherRequest request = new WeatherRequest();
+        request.setCity("Lodnon");
+        Request feignRequest = Request.create(Request.HttpMethod.GET, "/weather", Map.of(), null, StandardCharsets.UTF_8, null);
+
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(cacheService.getCachedWeatherData(request)).thenReturn(Optional.empty());
+        when(weatherApiClient.getWeatherByCity("Lodnon", "test-api-key", "metric"))
+                .thenThrow(new FeignException.NotFound("city not found", feignRequest, null, Map.of()));
+        assertThrows(LocationNotFoundException.class, () -> service.getWeather(request));
+
+        BatchWeatherResponse actual = service.getWeatherBatch(List.of(request));
+
+        assertEquals(0, actual.getFailed());
+        assertEquals(BatchItemStatus.NOT_FOUND, actual.getResults().getFirst().getStatus());
+        verify(weatherApiClient, times(1)).getWeatherByCity("Lodnon", "test-api-key", "metric");
+    }
+
+    @Test
+    void testGivenAliasedZipCode_whenUpstreamReportsNotFound_thenNegativeCacheByResolvedKey() {
+        WeatherRequest request = new WeatherRequest();
+        request.setZipCode("EC1A");
+        request.setCountry("GB");
+        locationResolver.canonicalize("zip:EC1A,GB", WeatherData.builder().upstreamId(2643743L).build());
+        Request feignRequest = Request.create(Request.HttpMethod.GET, "/weather", Map.of(), null, StandardCharsets.UTF_8, null);
+
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(cacheService.getCachedWeatherData(request)).thenReturn(Optional.empty());
+        when(weatherApiClient.getWeatherByZipCode(any(), eq("test-api-key"), eq("metric")))
+                .thenThrow(new FeignException.NotFound("zip not found", feignRequest, null, Map.of()));
+
+        assertThrows(LocationNotFoundException.class, () -> service.getWeather(request));
+
+        assertTrue(negativeLookupCache.get("id:2643743").isPresent());
+        assertTrue(negativeLookupCache.get("zip:EC1A,GB").isEmpty());
+    }
+
+    @Test
+    void testGivenUpstreamServerError_whenGetWeather_thenDoNotCacheAsNotFound() {
+        WeatherRequest request = createCityRequest();
+
+        when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+        when(cacheService.getCachedWeatherData(request)).thenReturn(Optional.empty());
+        when(weatherApiClient.getWeatherByCity("London", "test-api-key", "metric"))
+                .thenThrow(new RuntimeException("connection reset"));
+
+        assertThrows(WeatherApiException.class, () -> service.getWeather(request));
+        assertThrows(WeatherApiException.class, () -> service.getWeather(request));
+
+        verify(weatherApiClient, times(2)).getWeatherByCity("London", "test-api-key", "metric");
+        assertEquals(0, negativeLookupCache.size());
+    }
+
+    @Test
+    void testGivenZipRequest_whenGetRecentHistory_thenSummarizeByNormalizedLocationKey() {
+        WeatherRequest request = new WeatherRequest();
+        request.setZipCode("94040");
+        WeatherHistorySummary summary = WeatherHistorySummary.builder()
+                .locationKey("zip:94040,US")
+                .samples(2)
+                .build();
+
+        when(recentReadingsStore.summarize("zip:94040,US", 12)).thenReturn(summary);
+
+        WeatherHistorySummary actual = service.getRecentHistory(request, 12);
+
+        assertEquals(2, actual.getSamples());
+        verifyNoInteractions(weatherApiClient);
     }
 
     private WeatherRequest createCityRequest() {
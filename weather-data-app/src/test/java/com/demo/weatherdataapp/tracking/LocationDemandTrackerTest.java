@@ -0,0 +1,108 @@
+package com.demo.weatherdataapp.tracking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LocationDemandTrackerTest {
+    private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toMillis(1));
+    private final LocationDemandTracker tracker = new LocationDemandTracker(60, 3, 24, now::get);
+
+    @Test
+    void testGivenRequests_whenHalfLifeElapses_thenScoreHalves() {
+        tracker.recordRequest("city:london");
+        tracker.recordRequest("city:london");
+
+        now.addAndGet(TimeUnit.MINUTES.toMillis(60));
+
+        assertEquals(1.0, tracker.score("city:london"), 1e-9);
+    }
+
+    @Test
+    void testGivenFrequentRequests_whenTierOf_thenHotUntilDemandDecays() {
+        for (int i = 0; i < 4; i++) {
+            tracker.recordRequest("city:london");
+        }
+        tracker.recordRequest("city:paris");
+
+        assertEquals(DemandTier.HOT, tracker.tierOf("city:london"));
+        assertEquals(DemandTier.WARM, tracker.tierOf("city:paris"));
+        assertEquals(List.of("city:london"), tracker.hotLocationKeys());
+
+        now.addAndGet(TimeUnit.HOURS.toMillis(2));
+
+        assertEquals(DemandTier.WARM, tracker.tierOf("city:london"));
+    }
+
+    @Test
+    void testGivenNoDemandWithinWindow_whenTierOf_thenColdAndPruned() {
+        tracker.recordRequest("city:londn");
+
+        now.addAndGet(TimeUnit.HOURS.toMillis(24));
+
+        assertEquals(DemandTier.COLD, tracker.tierOf("city:londn"));
+        assertEquals(1, tracker.prune());
+        assertEquals(0.0, tracker.score("city:londn"));
+    }
+
+    @Test
+    void testGivenUnknownLocation_whenTierOf_thenWarmDuringStartupGraceAndColdAfter() {
+        assertEquals(DemandTier.WARM, tracker.tierOf("city:berlin"));
+
+        now.addAndGet(TimeUnit.HOURS.toMillis(24));
+
+        assertEquals(DemandTier.COLD, tracker.tierOf("city:berlin"));
+    }
+
+    @Test
+    void testGivenDemandUnderQueryKey_whenMergedIntoCanonicalKeyAndStartupGraceEnds_thenCanonicalStaysWarm() {
+        now.addAndGet(TimeUnit.HOURS.toMillis(23));
+        tracker.recordRequest("city:london");
+        tracker.recordRequest("city:london");
+        tracker.merge("city:london", "id:2643743");
+
+        now.addAndGet(TimeUnit.HOURS.toMillis(2));
+
+        assertEquals(DemandTier.WARM, tracker.tierOf("id:2643743"));
+        assertEquals(2.0 * Math.pow(0.5, 2), tracker.score("id:2643743"), 1e-9);
+        assertEquals(DemandTier.COLD, tracker.tierOf("city:london"));
+        assertEquals(0, tracker.prune());
+    }
+
+    @Test
+    void testGivenDemandUnderBothKeys_whenMerge_thenScoresAddUp() {
+        tracker.recordRequest("city:london");
+        tracker.recordRequest("id:2643743");
+
+        tracker.merge("city:london", "id:2643743");
+
+        assertEquals(2.0, tracker.score("id:2643743"), 1e-9);
+        assertEquals(0.0, tracker.score("city:london"));
+    }
+
+    @Test
+    void testGivenSnapshot_whenRestoredIntoNewTracker_thenScoreAndTierCarryOver() {
+        for (int i = 0; i < 4; i++) {
+            tracker.recordRequest("city:london");
+        }
+        List<DemandSnapshot> snapshot = tracker.snapshot();
+
+        now.addAndGet(TimeUnit.MINUTES.toMillis(60));
+        LocationDemandTracker restarted = new LocationDemandTracker(60, 3, 24, now::get);
+        snapshot.forEach(restarted::restore);
+
+        assertEquals(2.0, restarted.score("city:london"), 1e-9);
+        assertEquals(DemandTier.WARM, restarted.tierOf("city:london"));
+    }
+
+    @Test
+    void testGivenInactiveSnapshotEntry_whenRestore_thenIgnored() {
+        tracker.restore(new DemandSnapshot("city:london", 50.0, 0, 0));
+
+        assertEquals(0.0, tracker.score("city:london"), 1e-9);
+    }
+}
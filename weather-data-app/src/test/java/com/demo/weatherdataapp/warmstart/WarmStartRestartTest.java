@@ -0,0 +1,135 @@
+package com.demo.weatherdataapp.warmstart;
+
+import com.demo.weatherdataapp.cache.BackgroundRefreshExecutor;
+import com.demo.weatherdataapp.cache.LocationResolver;
+import com.demo.weatherdataapp.cache.NegativeLookupCache;
+import com.demo.weatherdataapp.cache.RequestCoalescer;
+import com.demo.weatherdataapp.cache.WeatherL1Cache;
+import com.demo.weatherdataapp.client.WeatherApiClient;
+import com.demo.weatherdataapp.config.WeatherApiConfig;
+import com.demo.weatherdataapp.dto.OpenWeatherResponse;
+import com.demo.weatherdataapp.entity.WeatherData;
+import com.demo.weatherdataapp.geo.CoordinateIndex;
+import com.demo.weatherdataapp.history.RecentReadingsStore;
+import com.demo.weatherdataapp.mapper.WeatherResponseEncoder;
+import com.demo.weatherdataapp.metrics.WeatherMetrics;
+import com.demo.weatherdataapp.push.WeatherUpdatePublisher;
+import com.demo.weatherdataapp.ratelimit.UpstreamRateLimiter;
+import com.demo.weatherdataapp.repository.WeatherDataHistoryRepository;
+import com.demo.weatherdataapp.repository.WeatherDataRepository;
+import com.demo.weatherdataapp.service.impl.WeatherCacheServiceImpl;
+import com.demo.weatherdataapp.service.impl.WeatherServiceImpl;
+import com.demo.weatherdataapp.tracking.LocationDemandTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class WarmStartRestartTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testGivenCityLookupBeforeRestart_whenSameLookupAfterRestart_thenServeFromSnapshotWithoutUpstreamCall() {
+        WeatherSnapshotStore snapshotStore = new WeatherSnapshotStore(objectMapper, directory.resolve("snapshot.json").toString());
+
+        Instance beforeRestart = new Instance(snapshotStore);
+        beforeRestart.weatherService.getWeatherByCity("London");
+        ArgumentCaptor<WeatherData> saved = ArgumentCaptor.forClass(WeatherData.class);
+        verify(beforeRestart.weatherDataRepository).save(saved.capture());
+        when(beforeRestart.weatherDataRepository.findAll()).thenReturn(List.of(saved.getValue()));
+        beforeRestart.warmStartRunner.save();
+
+        Instance afterRestart = new Instance(snapshotStore);
+        assertEquals(1, afterRestart.warmStartRunner.restore());
+        afterRestart.weatherService.getWeatherByCity("London");
+
+        verify(beforeRestart.weatherApiClient, times(1)).getWeatherByCity(any(), any(), any());
+        verifyNoInteractions(afterRestart.weatherApiClient);
+        assertEquals("id:2643743", afterRestart.locationResolver.resolve("city:london"));
+    }
+
+    private static final class Instance {
+        private final WeatherApiClient weatherApiClient = mock(WeatherApiClient.class);
+        private final WeatherDataRepository weatherDataRepository = mock(WeatherDataRepository.class);
+        private final LocationResolver locationResolver = new LocationResolver(100);
+        private final WeatherServiceImpl weatherService;
+        private final WarmStartRunner warmStartRunner;
+
+        private Instance(WeatherSnapshotStore snapshotStore) {
+            WeatherApiConfig weatherApiConfig = mock(WeatherApiConfig.class);
+            TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+            WeatherResponseEncoder responseEncoder = new WeatherResponseEncoder(new ObjectMapper());
+            RecentReadingsStore recentReadingsStore = new RecentReadingsStore(8, 100);
+            WeatherMetrics metrics = new WeatherMetrics(new SimpleMeterRegistry());
+            LocationDemandTracker demandTracker = new LocationDemandTracker(60, 10, 72);
+
+            when(weatherApiConfig.getApiKey()).thenReturn("test-api-key");
+            when(weatherApiClient.getWeatherByCity(any(), any(), any())).thenReturn(london());
+            when(weatherDataRepository.save(any(WeatherData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(weatherDataRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+            when(transactionTemplate.execute(any()))
+                    .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+            WeatherCacheServiceImpl cacheService = new WeatherCacheServiceImpl(weatherDataRepository,
+                    mock(WeatherDataHistoryRepository.class), new WeatherL1Cache(100, 30), new CoordinateIndex(10),
+                    locationResolver, responseEncoder, recentReadingsStore, mock(ApplicationEventPublisher.class),
+                    transactionTemplate, metrics);
+            ReflectionTestUtils.setField(cacheService, "cacheValidityMinutes", 30);
+            weatherService = new WeatherServiceImpl(weatherApiClient, weatherApiConfig, cacheService, weatherDataRepository,
+                    new RequestCoalescer(10000), locationResolver, new NegativeLookupCache(100, 600),
+                    mock(BackgroundRefreshExecutor.class), recentReadingsStore, demandTracker, metrics,
+                    CircuitBreaker.ofDefaults("openWeather"), new UpstreamRateLimiter(600, 100, 10, 0), responseEncoder,
+                    mock(WeatherUpdatePublisher.class));
+            warmStartRunner = new WarmStartRunner(snapshotStore, cacheService, demandTracker, locationResolver);
+            ReflectionTestUtils.setField(warmStartRunner, "maxAgeHours", 24);
+        }
+
+        private static OpenWeatherResponse london() {
+            OpenWeatherResponse response = new OpenWeatherResponse();
+            response.setId(2643743L);
+            response.setName("London");
+
+            OpenWeatherResponse.Main main = new OpenWeatherResponse.Main();
+            main.setTemp(20.5);
+            main.setHumidity(65);
+            response.setMain(main);
+
+            OpenWeatherResponse.Sys sys = new OpenWeatherResponse.Sys();
+            sys.setCountry("GB");
+            response.setSys(sys);
+
+            OpenWeatherResponse.Weather weather = new OpenWeatherResponse.Weather();
+            weather.setDescription("Clear sky");
+            weather.setMain("Clear");
+            response.setWeather(List.of(weather));
+
+            OpenWeatherResponse.Wind wind = new OpenWeatherResponse.Wind();
+            wind.setSpeed(3.2);
+            response.setWind(wind);
+
+            return response;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.demo.weatherdataapp.warmstart;
+
+import com.demo.weatherdataapp.cache.LocationResolver;
+import com.demo.weatherdataapp.entity.WeatherData;
+import com.demo.weatherdataapp.service.WeatherCacheService;
+import com.demo.weatherdataapp.tracking.DemandSnapshot;
+import com.demo.weatherdataapp.tracking.LocationDemandTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WarmStartRunnerTest {
+    @Mock
+    private WeatherSnapshotStore snapshotStore;
+    @Mock
+    private WeatherCacheService cacheService;
+    @Mock
+    private LocationDemandTracker demandTracker;
+    @Spy
+    private LocationResolver locationResolver = new LocationResolver(100);
+    @InjectMocks
+    private WarmStartRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(runner, "maxAgeHours", 24);
+    }
+
+    @Test
+    void testGivenFreshSnapshot_whenRestore_thenWarmCacheAndRestoreDemand() {
+        WeatherData london = WeatherData.builder().locationKey("city:london").city("London").lastUpdated(LocalDateTime.now()).build();
+        DemandSnapshot demand = new DemandSnapshot("city:london", 3.0, System.currentTimeMillis(), System.currentTimeMillis());
+        when(snapshotStore.read()).thenReturn(Optional.of(new WeatherSnapshot(WeatherSnapshot.CURRENT_VERSION,
+                System.currentTimeMillis(), List.of(london), List.of(demand), Map.of("city:london", "id:2643743"))));
+        when(cacheService.warmUp(List.of(london), Map.of("city:london", "id:2643743"))).thenReturn(1);
+
+        int actual = runner.restore();
+
+        assertEquals(1, actual);
+        verify(demandTracker).restore(demand);
+    }
+
+    @Test
+    void testGivenTooOldSnapshot_whenRestore_thenStartCold() {
+        long createdAt = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(25);
+        when(snapshotStore.read()).thenReturn(Optional.of(new WeatherSnapshot(WeatherSnapshot.CURRENT_VERSION,
+                createdAt, List.of(), List.of(), Map.of())));
+
+        int actual = runner.restore();
+
+        assertEquals(0, actual);
+        verify(cacheService, never()).warmUp(any(), any());
+    }
+
+    @Test
+    void testGivenCachedData_whenSave_thenWriteReadingsDemandAndAliasSnapshot() throws Exception {
+        WeatherData london = WeatherData.builder().locationKey("id:2643743").upstreamId(2643743L).city("London")
+                .lastUpdated(LocalDateTime.now()).build();
+        locationResolver.canonicalize("city:london", london);
+        DemandSnapshot demand = new DemandSnapshot("city:london", 3.0, 1L, 1L);
+        when(cacheService.getAllCachedWeatherData()).thenReturn(List.of(london));
+        when(demandTracker.snapshot()).thenReturn(List.of(demand));
+
+        runner.save();
+
+        ArgumentCaptor<WeatherSnapshot> captor = ArgumentCaptor.forClass(WeatherSnapshot.class);
+        verify(snapshotStore).write(captor.capture());
+        assertEquals(WeatherSnapshot.CURRENT_VERSION, captor.getValue().version());
+        assertEquals(List.of(london), captor.getValue().readings());
+        assertEquals(List.of(demand), captor.getValue().demand());
+        assertEquals(Map.of("city:london", "id:2643743"), captor.getValue().aliases());
+    }
+
+    @Test
+    void testGivenWriteFailure_whenSave_thenSwallowException() throws Exception {
+        when(cacheService.getAllCachedWeatherData()).thenReturn(List.of());
+        when(demandTracker.snapshot()).thenReturn(List.of());
+        doThrow(new IOException("disk full")).when(snapshotStore).write(any());
+
+        runner.save();
+
+        verify(snapshotStore).write(any());
+    }
+}
@@ -0,0 +1,71 @@
+package com.demo.weatherdataapp.warmstart;
+
+import com.demo.weatherdataapp.entity.WeatherData;
+import com.demo.weatherdataapp.tracking.DemandSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeatherSnapshotStoreTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testGivenSnapshot_whenWriteAndRead_thenRoundTripReadingsDemandAndAliases() throws Exception {
+        WeatherSnapshotStore store = new WeatherSnapshotStore(objectMapper, directory.resolve("nested/snapshot.json").toString());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        WeatherData london = WeatherData.builder()
+                .locationKey("city:london")
+                .upstreamId(2643743L)
+                .city("London")
+                .country("GB")
+                .temperature(18.5)
+                .humidity(70)
+                .timestamp(now)
+                .lastUpdated(now)
+                .build();
+        DemandSnapshot demand = new DemandSnapshot("city:london", 4.5, 1000L, 900L);
+
+        store.write(new WeatherSnapshot(WeatherSnapshot.CURRENT_VERSION, 1234L, List.of(london), List.of(demand),
+                Map.of("city:london", "id:2643743")));
+
+        WeatherSnapshot actual = store.read().orElseThrow();
+        assertEquals(1234L, actual.createdAtMillis());
+        assertEquals(List.of(london), actual.readings());
+        assertEquals(List.of(demand), actual.demand());
+        assertEquals(Map.of("city:london", "id:2643743"), actual.aliases());
+        try (var files = Files.list(directory.resolve("nested"))) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testGivenMissingFile_whenRead_thenReturnEmpty() {
+        WeatherSnapshotStore store = new WeatherSnapshotStore(objectMapper, directory.resolve("snapshot.json").toString());
+
+        assertEquals(Optional.empty(), store.read());
+    }
+
+    @Test
+    void testGivenCorruptOrUnsupportedFile_whenRead_thenReturnEmpty() throws Exception {
+        Path corrupt = Files.writeString(directory.resolve("corrupt.json"), "{\"version\":1,\"readings\":[");
+        Path future = Files.writeString(directory.resolve("future.json"), "{\"version\":99,\"createdAtMillis\":1}");
+
+        assertTrue(new WeatherSnapshotStore(objectMapper, corrupt.toString()).read().isEmpty());
+        assertTrue(new WeatherSnapshotStore(objectMapper, future.toString()).read().isEmpty());
+    }
+}